@@ -19,13 +19,19 @@ import java.util.Map;
 
 import javax.script.ScriptEngine;
 
+import org.eclipse.jdt.annotation.Nullable;
+import org.graalvm.polyglot.Engine;
 import org.openhab.core.automation.module.script.ScriptEngineFactory;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.core.ConfigurableService;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Modified;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * An implementation of {@link ScriptEngineFactory} with customizations for GraalJS ScriptEngines.
@@ -38,8 +44,27 @@ import org.osgi.service.component.annotations.Modified;
 @ConfigurableService(category = "automation", label = "JS Scripting", description_uri = "automation:jsscripting")
 public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
     private static final String CFG_INJECTION_ENABLED = "injectionEnabled";
+    private static final String CFG_CONTEXT_POOL_SIZE = "contextPoolSize";
     private static final String INJECTION_CODE = "Object.assign(this, require('openhab'));";
-    private boolean injectionEnabled = true;
+    private static final int DEFAULT_CONTEXT_POOL_SIZE = 2;
+    private static final String THREAD_POOL_NAME = "automation-jsscripting";
+    private final Logger logger = LoggerFactory.getLogger(GraalJSScriptEngineFactory.class);
+    private volatile boolean injectionEnabled = true;
+
+    /*
+     * Shared polyglot engine of all script engines, so the injected library and the required modules are parsed only
+     * once and their compiled code is shared between the contexts.
+     */
+    private final Engine engine = Engine.newBuilder().allowExperimentalOptions(true)
+            .option("engine.WarnInterpreterOnly", "false").build();
+
+    /*
+     * Script engines with a prepared context, so new and reloaded scripts don't have to wait for the creation of a
+     * context. The injected code is only parsed ahead of time, it is evaluated on the first invocation of a script.
+     */
+    private final PreparedScriptEnginePool<OpenhabGraalJSScriptEngine> enginePool = new PreparedScriptEnginePool<>(
+            this::newScriptEngine, OpenhabGraalJSScriptEngine::prepare, this::close,
+            ThreadPoolManager.getPool(THREAD_POOL_NAME));
 
     public static final String MIME_TYPE = "application/javascript;version=ECMAScript-2021";
 
@@ -70,8 +95,19 @@ public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
 
     @Override
     public ScriptEngine createScriptEngine(String scriptType) {
-        return new DebuggingGraalScriptEngine<>(
-                new OpenhabGraalJSScriptEngine(injectionEnabled ? INJECTION_CODE : null));
+        return new DebuggingGraalScriptEngine<>(enginePool.take());
+    }
+
+    private OpenhabGraalJSScriptEngine newScriptEngine() {
+        return new OpenhabGraalJSScriptEngine(injectionEnabled ? INJECTION_CODE : null, engine);
+    }
+
+    private void close(OpenhabGraalJSScriptEngine scriptEngine) {
+        try {
+            scriptEngine.close();
+        } catch (Exception e) {
+            logger.debug("Failed to close a prepared GraalJS script engine: {}", e.getMessage());
+        }
     }
 
     @Activate
@@ -79,9 +115,30 @@ public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
         modified(config);
     }
 
+    @Deactivate
+    protected void deactivate() {
+        enginePool.dispose();
+        // also closes the contexts of scripts which have not been disposed yet, running scripts are cancelled
+        engine.close(true);
+    }
+
     @Modified
     protected void modified(Map<String, ?> config) {
         Object injectionEnabled = config.get(CFG_INJECTION_ENABLED);
         this.injectionEnabled = injectionEnabled == null || (Boolean) injectionEnabled;
+        enginePool.reset(getContextPoolSize(config.get(CFG_CONTEXT_POOL_SIZE)));
+    }
+
+    private int getContextPoolSize(@Nullable Object value) {
+        if (value == null) {
+            return DEFAULT_CONTEXT_POOL_SIZE;
+        }
+        try {
+            return Math.max(0,
+                    value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(value.toString()));
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid context pool size '{}', using {}", value, DEFAULT_CONTEXT_POOL_SIZE);
+            return DEFAULT_CONTEXT_POOL_SIZE;
+        }
     }
 }
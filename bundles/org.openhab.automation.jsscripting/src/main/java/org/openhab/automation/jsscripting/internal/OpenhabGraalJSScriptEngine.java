@@ -30,16 +30,18 @@ import java.time.ZonedDateTime;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 import javax.script.ScriptContext;
-import javax.script.ScriptException;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.Engine;
 import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
 import org.openhab.automation.jsscripting.internal.fs.DelegatingFileSystem;
 import org.openhab.automation.jsscripting.internal.fs.PrefixedSeekableByteChannel;
@@ -66,8 +68,27 @@ public class OpenhabGraalJSScriptEngine
     private static final Logger LOGGER = LoggerFactory.getLogger(OpenhabGraalJSScriptEngine.class);
     private static final String GLOBAL_REQUIRE = "require(\"@jsscripting-globals\");";
     private static final String REQUIRE_WRAPPER_NAME = "__wraprequire__";
+    private static final byte[] REQUIRE_WRAPPER = ("require=" + REQUIRE_WRAPPER_NAME + "(require);").getBytes();
+    private static final String GLOBAL_SCRIPT_NAME = "@jsscripting-injection";
     // final CommonJS search path for our library
     private static final Path NODE_DIR = Paths.get("node_modules");
+    // the bundled node modules never change, so they are read from the bundle only once
+    private static final Map<String, byte[]> NODE_RESOURCES = new ConcurrentHashMap<>();
+
+    // Custom translate JS Objects - > Java Objects
+    private static final HostAccess HOST_ACCESS = HostAccess.newBuilder(HostAccess.ALL)
+            // Translate JS-Joda ZonedDateTime to java.time.ZonedDateTime
+            .targetTypeMapping(Value.class, ZonedDateTime.class, (v) -> v.hasMember("withFixedOffsetZone"), v -> {
+                return ZonedDateTime.parse(v.invokeMember("withFixedOffsetZone").invokeMember("toString").asString());
+            }, HostAccess.TargetMappingPrecedence.LOW)
+
+            // Translate JS-Joda Duration to java.time.Duration
+            .targetTypeMapping(Value.class, Duration.class,
+                    // picking two members to check as Duration has many common function names
+                    (v) -> v.hasMember("minusDuration") && v.hasMember("toNanos"), v -> {
+                        return Duration.ofNanos(v.invokeMember("toNanos").asLong());
+                    }, HostAccess.TargetMappingPrecedence.LOW)
+            .build();
 
     // shared lock object for synchronization of multi-thread access
     private final Object lock = new Object();
@@ -77,38 +98,26 @@ public class OpenhabGraalJSScriptEngine
     private Consumer<String> scriptDependencyListener;
 
     private boolean initialized = false;
-    private String globalScript;
+    private Source globalSource;
 
     /**
      * Creates an implementation of ScriptEngine (& Invocable), wrapping the contained engine, that tracks the script
      * lifecycle and provides hooks for scripts to do so too.
+     *
+     * @param injectionCode the code to evaluate before the first invocation or null
+     * @param engine the polyglot engine shared by all contexts, so parsed and compiled code is shared between them
      */
-    public OpenhabGraalJSScriptEngine(@Nullable String injectionCode) {
+    public OpenhabGraalJSScriptEngine(@Nullable String injectionCode, Engine engine) {
         super(null); // delegate depends on fields not yet initialised, so we cannot set it immediately
-        this.globalScript = GLOBAL_REQUIRE + (injectionCode != null ? injectionCode : "");
+        // equal sources are parsed only once per engine
+        this.globalSource = Source.newBuilder("js", GLOBAL_REQUIRE + (injectionCode != null ? injectionCode : ""),
+                GLOBAL_SCRIPT_NAME).cached(true).buildLiteral();
 
         LOGGER.debug("Initializing GraalJS script engine...");
 
-        // Custom translate JS Objects - > Java Objects
-        HostAccess hostAccess = HostAccess.newBuilder(HostAccess.ALL)
-                // Translate JS-Joda ZonedDateTime to java.time.ZonedDateTime
-                .targetTypeMapping(Value.class, ZonedDateTime.class, (v) -> v.hasMember("withFixedOffsetZone"), v -> {
-                    return ZonedDateTime
-                            .parse(v.invokeMember("withFixedOffsetZone").invokeMember("toString").asString());
-                }, HostAccess.TargetMappingPrecedence.LOW)
-
-                // Translate JS-Joda Duration to java.time.Duration
-                .targetTypeMapping(Value.class, Duration.class,
-                        // picking two members to check as Duration has many common function names
-                        (v) -> v.hasMember("minusDuration") && v.hasMember("toNanos"), v -> {
-                            return Duration.ofNanos(v.invokeMember("toNanos").asLong());
-                        }, HostAccess.TargetMappingPrecedence.LOW)
-                .build();
-
-        delegate = GraalJSScriptEngine.create(
-                Engine.newBuilder().allowExperimentalOptions(true).option("engine.WarnInterpreterOnly", "false")
-                        .build(),
-                Context.newBuilder("js").allowExperimentalOptions(true).allowAllAccess(true).allowHostAccess(hostAccess)
+        delegate = GraalJSScriptEngine.create(engine,
+                Context.newBuilder("js").allowExperimentalOptions(true).allowAllAccess(true)
+                        .allowHostAccess(HOST_ACCESS) //
                         .option("js.commonjs-require-cwd", JSDependencyTracker.LIB_PATH)
                         .option("js.nashorn-compat", "true") // to ease migration
                         .option("js.ecmascript-version", "2021") // nashorn compat will enforce es5 compatibility, we
@@ -126,16 +135,11 @@ public class OpenhabGraalJSScriptEngine
                                 if (path.toString().endsWith(".js")) {
                                     SeekableByteChannel sbc = null;
                                     if (isRootNodePath(path)) {
-                                        InputStream is = getClass().getResourceAsStream(nodeFileToResource(path));
-                                        if (is == null) {
-                                            throw new IOException("Could not read " + path.toString());
-                                        }
-                                        sbc = new ReadOnlySeekableByteArrayChannel(is.readAllBytes());
+                                        sbc = new ReadOnlySeekableByteArrayChannel(readNodeResource(path));
                                     } else {
                                         sbc = super.newByteChannel(path, options, attrs);
                                     }
-                                    return new PrefixedSeekableByteChannel(
-                                            ("require=" + REQUIRE_WRAPPER_NAME + "(require);").getBytes(), sbc);
+                                    return new PrefixedSeekableByteChannel(REQUIRE_WRAPPER, sbc);
                                 } else {
                                     return super.newByteChannel(path, options, attrs);
                                 }
@@ -172,11 +176,24 @@ public class OpenhabGraalJSScriptEngine
                         }));
     }
 
+    /**
+     * Creates the polyglot context and parses the injected code ahead of the first invocation.
+     *
+     * The injected code is not evaluated, because it needs the engine identifier which is only known once the engine
+     * has been handed out.
+     */
+    void prepare() {
+        Context context = delegate.getPolyglotContext();
+        context.initialize("js");
+        context.parse(globalSource);
+    }
+
     @Override
     protected void beforeInvocation() {
         if (initialized) {
             return;
         }
+        long start = System.nanoTime();
 
         ScriptContext ctx = delegate.getContext();
 
@@ -214,10 +231,37 @@ public class OpenhabGraalJSScriptEngine
         initialized = true;
 
         try {
-            eval(globalScript);
-        } catch (ScriptException e) {
+            // evaluated on the context, as the script engine would name the source after the script file, which
+            // prevents sharing its code with the other contexts
+            delegate.getPolyglotContext().eval(globalSource);
+        } catch (PolyglotException | IllegalStateException e) {
+            // the script engine reports errors of the code as ScriptException and fails on a closed context
             LOGGER.error("Could not inject global script", e);
         }
+        LOGGER.debug("Initialized GraalJS script engine '{}' in {} ms", engineIdentifier,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Reads a bundled node module file
+     *
+     * @param path a root node path, e.g. C:\node_modules\foo.js
+     * @return the content of the file
+     * @throws IOException if the file is not part of the bundle
+     */
+    private byte[] readNodeResource(Path path) throws IOException {
+        String resource = nodeFileToResource(path);
+        byte[] data = NODE_RESOURCES.get(resource);
+        if (data == null) {
+            try (InputStream is = getClass().getResourceAsStream(resource)) {
+                if (is == null) {
+                    throw new IOException("Could not read " + path.toString());
+                }
+                data = is.readAllBytes();
+            }
+            NODE_RESOURCES.put(resource, data);
+        }
+        return data;
     }
 
     /**
@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a number of prepared script engines, which are refilled in the background whenever one has been taken.
+ *
+ * @author Agent - Initial contribution
+ *
+ * @param <E> the type of the script engines
+ */
+@NonNullByDefault
+class PreparedScriptEnginePool<E> {
+    private final Logger logger = LoggerFactory.getLogger(PreparedScriptEnginePool.class);
+
+    private final Supplier<E> factory;
+    private final Consumer<E> preparer;
+    private final Consumer<E> closer;
+    private final Executor executor;
+
+    // access is guarded by the deque itself
+    private final Deque<E> preparedEngines = new ArrayDeque<>();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private volatile int size;
+    // incremented whenever the prepared engines are discarded, so engines prepared for an old configuration are dropped
+    private int generation;
+
+    /**
+     * @param factory creates a new script engine
+     * @param preparer prepares a new script engine in the background
+     * @param closer closes a prepared script engine which is discarded, must not throw
+     * @param executor runs the preparation
+     */
+    PreparedScriptEnginePool(Supplier<E> factory, Consumer<E> preparer, Consumer<E> closer, Executor executor) {
+        this.factory = factory;
+        this.preparer = preparer;
+        this.closer = closer;
+        this.executor = executor;
+    }
+
+    /**
+     * Takes a prepared script engine, or creates a new one if none is prepared, and starts refilling the pool.
+     *
+     * @return the script engine
+     */
+    E take() {
+        E engine;
+        synchronized (preparedEngines) {
+            engine = preparedEngines.poll();
+        }
+        if (engine == null) {
+            engine = factory.get();
+        }
+        refill();
+        return engine;
+    }
+
+    /**
+     * Discards the prepared script engines and prepares new ones, e.g. after the configuration has changed.
+     *
+     * @param size the number of script engines to keep prepared, 0 disables the pool
+     */
+    void reset(int size) {
+        this.size = size;
+        discard();
+        refill();
+    }
+
+    /**
+     * Closes the prepared script engines and stops preparing new ones.
+     */
+    void dispose() {
+        size = 0;
+        discard();
+    }
+
+    /**
+     * @return the number of prepared script engines
+     */
+    int getPreparedCount() {
+        synchronized (preparedEngines) {
+            return preparedEngines.size();
+        }
+    }
+
+    private void refill() {
+        if (size == 0 || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                while (true) {
+                    int generation;
+                    synchronized (preparedEngines) {
+                        if (preparedEngines.size() >= size) {
+                            break;
+                        }
+                        generation = this.generation;
+                    }
+                    E engine = factory.get();
+                    try {
+                        preparer.accept(engine);
+                    } catch (RuntimeException e) {
+                        closer.accept(engine);
+                        throw e;
+                    }
+                    synchronized (preparedEngines) {
+                        if (generation == this.generation) {
+                            preparedEngines.add(engine);
+                            continue;
+                        }
+                    }
+                    closer.accept(engine);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Failed to prepare a GraalJS script engine: {}", e.getMessage());
+                return;
+            } finally {
+                refilling.set(false);
+            }
+            // an engine may have been taken after the check above, while refilling was still set
+            synchronized (preparedEngines) {
+                if (preparedEngines.size() >= size) {
+                    return;
+                }
+            }
+            refill();
+        });
+    }
+
+    private void discard() {
+        List<E> discarded;
+        synchronized (preparedEngines) {
+            generation++;
+            discarded = new ArrayList<>(preparedEngines);
+            preparedEngines.clear();
+        }
+        discarded.forEach(closer);
+    }
+}
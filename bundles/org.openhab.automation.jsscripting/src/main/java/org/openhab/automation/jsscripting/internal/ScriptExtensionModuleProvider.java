@@ -12,7 +12,6 @@
  */
 package org.openhab.automation.jsscripting.internal;
 
-import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -37,6 +36,11 @@ public class ScriptExtensionModuleProvider {
 
     private static final String RUNTIME_MODULE_PREFIX = "@runtime";
     private static final String DEFAULT_MODULE_NAME = "Defaults";
+    // convert to Map to JS Object, the source is shared so it is parsed only once per engine
+    private static final Source MAP_TO_OBJECT = Source.newBuilder("js",
+            "(function (mapOfValues) {\n" + "let rv = {};\n" + "for (var key in mapOfValues) {\n"
+                    + "    rv[key] = mapOfValues.get(key);\n" + "}\n" + "return rv;\n" + "})",
+            "<generated>").cached(true).buildLiteral();
     private final Object lock;
 
     private final ScriptExtensionAccessor scriptExtensionAccessor;
@@ -74,15 +78,7 @@ public class ScriptExtensionModuleProvider {
     }
 
     private Value toValue(Context ctx, Map<String, Object> map) {
-        try {
-            return ctx.eval(Source.newBuilder( // convert to Map to JS Object
-                    "js",
-                    "(function (mapOfValues) {\n" + "let rv = {};\n" + "for (var key in mapOfValues) {\n"
-                            + "    rv[key] = mapOfValues.get(key);\n" + "}\n" + "return rv;\n" + "})",
-                    "<generated>").build()).execute(map);
-        } catch (IOException e) {
-            throw new IllegalArgumentException("Failed to generate exports", e);
-        }
+        return ctx.eval(MAP_TO_OBJECT).execute(map);
     }
 
     /**
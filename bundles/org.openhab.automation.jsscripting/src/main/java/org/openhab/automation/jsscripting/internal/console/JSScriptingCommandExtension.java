@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal.console;
+
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.automation.jsscripting.internal.scope.SharedCache;
+import org.openhab.core.io.console.Console;
+import org.openhab.core.io.console.extensions.AbstractConsoleCommandExtension;
+import org.openhab.core.io.console.extensions.ConsoleCommandExtension;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * The {@link JSScriptingCommandExtension} prints the statistics of the shared cache
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = ConsoleCommandExtension.class)
+public class JSScriptingCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String CACHE = "cache";
+
+    private final SharedCache sharedCache;
+
+    @Activate
+    public JSScriptingCommandExtension(final @Reference SharedCache sharedCache) {
+        super("jsscripting", "Show the statistics of JS Scripting");
+        this.sharedCache = sharedCache;
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length != 1 || !CACHE.equals(args[0])) {
+            printUsage(console);
+            return;
+        }
+        long hits = sharedCache.getHits();
+        long lookups = hits + sharedCache.getMisses();
+        console.printf("Shared cache: entries %d, hits %d, misses %d, hit rate %.1f %%, evictions %d%n",
+                sharedCache.getSize(), hits, sharedCache.getMisses(), lookups == 0 ? 0 : 100.0 * hits / lookups,
+                sharedCache.getEvictions());
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return List.of(buildCommandUsage(CACHE, "show the size and the hit rate of the shared cache"));
+    }
+}
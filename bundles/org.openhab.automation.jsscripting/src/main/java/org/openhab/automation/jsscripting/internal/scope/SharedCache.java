@@ -14,29 +14,118 @@ package org.openhab.automation.jsscripting.internal.scope;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.automation.module.script.ScriptExtensionProvider;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
 
 /**
  * Shared Cache implementation for JS scripting.
  *
+ * The cache is shared by all scripts, which access it from arbitrary threads. Entries can expire after a configured
+ * time, the size of the cache can be limited and the entries put by a script can be removed when it is unloaded.
+ * Without a size limit the entries are accessed without locking, the least recently used order is only maintained
+ * under a lock while a size limit is configured.
+ *
  * @author Jonathan Gilbert - Initial contribution
+ * @author Agent - Thread-safe cache with eviction and statistics
  */
-@Component(immediate = true)
+@Component(immediate = true, configurationPid = "org.openhab.jsscripting", service = { ScriptExtensionProvider.class,
+        SharedCache.class })
 @NonNullByDefault
-public class SharedCache implements ScriptExtensionProvider {
+public class SharedCache implements ScriptExtensionProvider, ScriptDisposalAware {
 
     private static final String PRESET_NAME = "cache";
     private static final String OBJECT_NAME = "sharedcache";
 
-    private JSCache cache = new JSCache();
+    private static final String CFG_MAX_SIZE = "cacheMaxSize";
+    private static final String CFG_EXPIRY = "cacheExpiry";
+    private static final String CFG_REMOVE_ON_UNLOAD = "cacheRemoveOnUnload";
+
+    private final Map<String, CacheEntry> entries = new ConcurrentHashMap<>();
+    /*
+     * The entries in access order, so the least recently used entry comes first. Only kept while the size of the cache
+     * is limited, then all changes of the entries are made while holding the lock. Otherwise the entries are read and
+     * changed without locking, and only the time of the last access is recorded per entry.
+     */
+    private final Lock lock = new ReentrantLock();
+    private final Map<String, CacheEntry> accessOrder = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, JSCache> caches = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private volatile int maxSize = 0;
+    private volatile long expiryMillis = 0;
+    private volatile boolean removeOnUnload = false;
+
+    private final LongSupplier clock;
+
+    public SharedCache() {
+        this(System::currentTimeMillis);
+    }
+
+    SharedCache(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Activate
+    protected void activate(Map<String, ?> config) {
+        modified(config);
+    }
+
+    @Modified
+    protected void modified(Map<String, ?> config) {
+        setMaxSize(getInt(config.get(CFG_MAX_SIZE)));
+        expiryMillis = TimeUnit.SECONDS.toMillis(getInt(config.get(CFG_EXPIRY)));
+        Object removeOnUnload = config.get(CFG_REMOVE_ON_UNLOAD);
+        this.removeOnUnload = removeOnUnload != null && Boolean.parseBoolean(removeOnUnload.toString());
+        evict();
+    }
+
+    private void setMaxSize(int maxSize) {
+        lock.lock();
+        try {
+            // changes made without the lock before the new size is visible are added to the access order afterwards
+            this.maxSize = maxSize;
+            accessOrder.clear();
+            if (maxSize > 0) {
+                entries.entrySet().stream().sorted(Comparator.comparingLong(e -> e.getValue().lastAccess))
+                        .forEachOrdered(e -> accessOrder.put(e.getKey(), e.getValue()));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int getInt(@Nullable Object value) {
+        if (value instanceof Number) {
+            return Math.max(0, ((Number) value).intValue());
+        } else if (value != null) {
+            try {
+                return Math.max(0, Integer.parseInt(value.toString()));
+            } catch (NumberFormatException e) {
+                // fall through to the default
+            }
+        }
+        return 0;
+    }
 
     @Override
     public Collection<String> getDefaultPresets() {
@@ -56,7 +145,7 @@ public class SharedCache implements ScriptExtensionProvider {
     @Override
     public @Nullable Object get(String scriptIdentifier, String type) throws IllegalArgumentException {
         if (OBJECT_NAME.equals(type)) {
-            return cache;
+            return caches.computeIfAbsent(scriptIdentifier, id -> new JSCache(this, id));
         }
 
         return null;
@@ -76,26 +165,260 @@ public class SharedCache implements ScriptExtensionProvider {
 
     @Override
     public void unload(String scriptIdentifier) {
-        // ignore for now
+        caches.remove(scriptIdentifier);
+        if (removeOnUnload) {
+            lock.lock();
+            try {
+                accessOrder.values().removeIf(entry -> scriptIdentifier.equals(entry.owner));
+                entries.values().removeIf(entry -> scriptIdentifier.equals(entry.owner));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    void putValue(String owner, String key, @Nullable Object value) {
+        CacheEntry entry = new CacheEntry(value, owner, clock.getAsLong());
+        boolean stored = false;
+        if (maxSize <= 0) {
+            entries.put(key, entry);
+            if (maxSize <= 0) {
+                return;
+            }
+            // the size has been limited meanwhile
+            stored = true;
+        }
+        lock.lock();
+        try {
+            if (!stored) {
+                entries.put(key, entry);
+            } else if (entries.get(key) != entry) {
+                // already replaced by another thread
+                return;
+            }
+            accessOrder.put(key, entry);
+            evictLeastRecentlyUsed();
+        } finally {
+            lock.unlock();
+        }
     }
 
+    @Nullable
+    Object removeValue(String key) {
+        CacheEntry entry;
+        if (maxSize <= 0) {
+            entry = entries.remove(key);
+        } else {
+            lock.lock();
+            try {
+                accessOrder.remove(key);
+                entry = entries.remove(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return entry == null || isExpired(entry, clock.getAsLong()) ? null : entry.value;
+    }
+
+    @Nullable
+    Object getValue(String key) {
+        CacheEntry entry = getEntry(key, clock.getAsLong());
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    @Nullable
+    Object getOrCompute(String owner, String key, Supplier<@Nullable Object> supplier) {
+        Object value = getValue(key);
+        if (value != null) {
+            return value;
+        }
+        // the supplier is called without holding the lock, so it may use the cache itself
+        value = supplier.get();
+        if (value == null) {
+            return null;
+        }
+        CacheEntry entry = new CacheEntry(value, owner, clock.getAsLong());
+        if (maxSize <= 0) {
+            CacheEntry existing = entries.merge(key, entry,
+                    (old, computed) -> old.value != null && !isExpired(old, computed.created) ? old : computed);
+            if (maxSize <= 0 || existing != entry) {
+                // another thread may have been faster
+                return existing.value;
+            }
+        }
+        lock.lock();
+        try {
+            CacheEntry existing = entries.get(key);
+            if (existing != null && existing != entry && existing.value != null
+                    && !isExpired(existing, entry.created)) {
+                // another thread was faster
+                return existing.value;
+            }
+            entries.put(key, entry);
+            accessOrder.put(key, entry);
+            evictLeastRecentlyUsed();
+        } finally {
+            lock.unlock();
+        }
+        return value;
+    }
+
+    /**
+     * Returns the entry of the key and marks it as most recently used, an expired entry is removed.
+     */
+    private @Nullable CacheEntry getEntry(String key, long now) {
+        CacheEntry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry, now)) {
+            if (maxSize <= 0) {
+                if (entries.remove(key, entry)) {
+                    evictions.increment();
+                }
+                return null;
+            }
+            lock.lock();
+            try {
+                if (entries.remove(key, entry)) {
+                    accessOrder.remove(key);
+                    evictions.increment();
+                }
+            } finally {
+                lock.unlock();
+            }
+            return null;
+        }
+        entry.lastAccess = now;
+        if (maxSize > 0) {
+            lock.lock();
+            try {
+                accessOrder.get(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return entry;
+    }
+
+    private boolean isExpired(CacheEntry entry, long now) {
+        long expiryMillis = this.expiryMillis;
+        return expiryMillis > 0 && now - entry.created >= expiryMillis;
+    }
+
+    /**
+     * Removes the least recently used entries until the size limit is met. Must be called with the lock held.
+     */
+    private void evictLeastRecentlyUsed() {
+        int maxSize = this.maxSize;
+        if (maxSize <= 0) {
+            return;
+        }
+        Iterator<Map.Entry<String, CacheEntry>> iterator = accessOrder.entrySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            Map.Entry<String, CacheEntry> eldest = iterator.next();
+            iterator.remove();
+            if (entries.remove(eldest.getKey(), eldest.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Removes the expired entries and then the least recently used entries until the size limit is met
+     */
+    private void evict() {
+        lock.lock();
+        try {
+            long now = clock.getAsLong();
+            Iterator<Map.Entry<String, CacheEntry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, CacheEntry> entry = iterator.next();
+                if (isExpired(entry.getValue(), now)) {
+                    iterator.remove();
+                    accessOrder.remove(entry.getKey());
+                    evictions.increment();
+                }
+            }
+            evictLeastRecentlyUsed();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of entries
+     */
+    public int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of lookups which found a value
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups which did not find a value
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of entries removed because they expired or the cache was full
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private static class CacheEntry {
+        private final @Nullable Object value;
+        private final String owner;
+        private final long created;
+        private volatile long lastAccess;
+
+        private CacheEntry(@Nullable Object value, String owner, long created) {
+            this.value = value;
+            this.owner = owner;
+            this.created = created;
+            this.lastAccess = created;
+        }
+    }
+
+    /**
+     * The cache as seen by a script, entries are shared with all other scripts
+     */
     public static class JSCache {
-        private Map<String, Object> backingMap = new HashMap<>();
+        private final SharedCache cache;
+        private final String scriptIdentifier;
+
+        private JSCache(SharedCache cache, String scriptIdentifier) {
+            this.cache = cache;
+            this.scriptIdentifier = scriptIdentifier;
+        }
 
         public void put(String k, Object v) {
-            backingMap.put(k, v);
+            cache.putValue(scriptIdentifier, k, v);
         }
 
         public @Nullable Object remove(String k) {
-            return backingMap.remove(k);
+            return cache.removeValue(k);
         }
 
         public @Nullable Object get(String k) {
-            return backingMap.get(k);
+            return cache.getValue(k);
         }
 
         public @Nullable Object get(String k, Supplier<Object> supplier) {
-            return backingMap.computeIfAbsent(k, (unused_key) -> supplier.get());
+            return cache.getOrCompute(scriptIdentifier, k, supplier::get);
         }
     }
 }
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link PreparedScriptEnginePool}.
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class PreparedScriptEnginePoolTest {
+
+    private final List<TestEngine> created = new ArrayList<>();
+    private final Deque<Runnable> tasks = new ArrayDeque<>();
+    private final PreparedScriptEnginePool<TestEngine> pool = new PreparedScriptEnginePool<>(this::create,
+            engine -> engine.prepared = true, engine -> engine.closed = true, tasks::add);
+
+    @Test
+    public void testTakenEngineIsReplacedInBackground() {
+        pool.reset(2);
+        runTasks();
+        assertEquals(2, pool.getPreparedCount());
+
+        TestEngine engine = pool.take();
+
+        assertTrue(engine.prepared);
+        assertEquals(1, pool.getPreparedCount());
+        runTasks();
+        assertEquals(2, pool.getPreparedCount());
+        assertEquals(3, created.size());
+    }
+
+    @Test
+    public void testNewEngineIsCreatedIfNoneIsPrepared() {
+        pool.reset(1);
+
+        // the preparation has not run yet
+        TestEngine engine = pool.take();
+
+        assertFalse(engine.prepared);
+        runTasks();
+        assertEquals(1, pool.getPreparedCount());
+    }
+
+    @Test
+    public void testPoolSizeZeroPreparesNothing() {
+        pool.reset(0);
+
+        TestEngine engine = pool.take();
+
+        assertFalse(engine.prepared);
+        assertTrue(tasks.isEmpty());
+        assertEquals(0, pool.getPreparedCount());
+        assertEquals(1, created.size());
+    }
+
+    @Test
+    public void testResetReplacesPreparedEngines() {
+        pool.reset(2);
+        runTasks();
+        List<TestEngine> old = new ArrayList<>(created);
+
+        pool.reset(1);
+        runTasks();
+
+        assertTrue(old.stream().allMatch(engine -> engine.closed));
+        assertEquals(1, pool.getPreparedCount());
+        assertFalse(old.contains(pool.take()));
+    }
+
+    @Test
+    public void testDisposeClosesPreparedEngines() {
+        pool.reset(2);
+        runTasks();
+
+        pool.dispose();
+
+        assertTrue(created.stream().allMatch(engine -> engine.closed));
+        assertEquals(0, pool.getPreparedCount());
+        pool.take();
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void testEngineBeingPreparedDuringDisposeIsClosed() {
+        List<PreparedScriptEnginePool<TestEngine>> pools = new ArrayList<>();
+        PreparedScriptEnginePool<TestEngine> pool = new PreparedScriptEnginePool<>(this::create, engine -> {
+            // the add-on is deactivated while the engine is prepared
+            pools.get(0).dispose();
+            engine.prepared = true;
+        }, engine -> engine.closed = true, tasks::add);
+        pools.add(pool);
+
+        pool.reset(1);
+        runTasks();
+
+        assertEquals(0, pool.getPreparedCount());
+        assertEquals(1, created.size());
+        assertTrue(created.get(0).closed);
+    }
+
+    @Test
+    public void testFailingPreparationClosesEngine() {
+        PreparedScriptEnginePool<TestEngine> pool = new PreparedScriptEnginePool<>(this::create, engine -> {
+            throw new IllegalStateException("context could not be created");
+        }, engine -> engine.closed = true, Runnable::run);
+
+        pool.reset(1);
+
+        assertEquals(0, pool.getPreparedCount());
+        assertTrue(created.get(0).closed);
+        assertFalse(pool.take().closed);
+    }
+
+    private TestEngine create() {
+        TestEngine engine = new TestEngine();
+        created.add(engine);
+        return engine;
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static class TestEngine {
+        private boolean prepared;
+        private boolean closed;
+    }
+}
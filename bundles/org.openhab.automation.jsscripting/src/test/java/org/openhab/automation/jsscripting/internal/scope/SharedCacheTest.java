@@ -0,0 +1,194 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal.scope;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.automation.jsscripting.internal.scope.SharedCache.JSCache;
+
+/**
+ * Tests the {@link SharedCache}.
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class SharedCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private final SharedCache sharedCache = new SharedCache(now::get);
+
+    @Test
+    public void testEntriesAreSharedBetweenScripts() {
+        sharedCache.activate(Map.of());
+        getCache("script1").put("key", "value");
+
+        assertEquals("value", getCache("script2").get("key"));
+        assertEquals("value", getCache("script2").remove("key"));
+        assertNull(getCache("script1").get("key"));
+    }
+
+    @Test
+    public void testEntriesExpireAfterConfiguredTime() {
+        sharedCache.activate(Map.of("cacheExpiry", 10));
+        JSCache cache = getCache("script");
+        cache.put("key", "value");
+
+        now.addAndGet(9_999);
+        assertEquals("value", cache.get("key"));
+        // reading an entry doesn't extend its lifetime
+        now.addAndGet(1);
+        assertNull(cache.get("key"));
+        assertEquals(0, sharedCache.getSize());
+        assertEquals(1, sharedCache.getEvictions());
+    }
+
+    @Test
+    public void testExpiredEntryIsReplacedBySupplier() {
+        sharedCache.activate(Map.of("cacheExpiry", 10));
+        JSCache cache = getCache("script");
+        cache.put("key", "old");
+
+        now.addAndGet(10_000);
+
+        assertEquals("new", cache.get("key", () -> "new"));
+        assertEquals("new", cache.get("key"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        sharedCache.activate(Map.of("cacheMaxSize", 2));
+        JSCache cache = getCache("script");
+        cache.put("a", "1");
+        cache.put("b", "2");
+        // reading a makes b the least recently used entry
+        assertEquals("1", cache.get("a"));
+
+        cache.put("c", "3");
+
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+        assertEquals("3", cache.get("c"));
+        assertEquals(2, sharedCache.getSize());
+        assertEquals(1, sharedCache.getEvictions());
+    }
+
+    @Test
+    public void testReducedMaxSizeEvictsLeastRecentlyUsedEntries() {
+        sharedCache.activate(Map.of());
+        JSCache cache = getCache("script");
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+        // without a size limit the recency is taken from the time of the last access
+        now.incrementAndGet();
+        cache.get("a");
+
+        sharedCache.modified(Map.of("cacheMaxSize", 1));
+
+        assertEquals(1, sharedCache.getSize());
+        assertEquals("1", cache.get("a"));
+    }
+
+    @Test
+    public void testSupplierIsOnlyCalledOnMiss() {
+        sharedCache.activate(Map.of());
+        JSCache cache = getCache("script");
+
+        assertEquals("1", cache.get("key", () -> "1"));
+        assertEquals("1", cache.get("key", () -> fail("the value is cached")));
+        assertEquals(1, sharedCache.getHits());
+        assertEquals(1, sharedCache.getMisses());
+    }
+
+    @Test
+    public void testEntriesOfUnloadedScriptAreRemovedIfConfigured() {
+        sharedCache.activate(Map.of("cacheRemoveOnUnload", true));
+        getCache("script1").put("a", "1");
+        getCache("script2").put("b", "2");
+
+        sharedCache.unload("script1");
+
+        assertNull(getCache("script2").get("a"));
+        assertEquals("2", getCache("script2").get("b"));
+    }
+
+    @Test
+    public void testEntriesOfUnloadedScriptAreKeptByDefault() {
+        sharedCache.activate(Map.of());
+        getCache("script1").put("a", "1");
+
+        sharedCache.unload("script1");
+
+        assertEquals("1", getCache("script1").get("a"));
+    }
+
+    @Test
+    public void testEntriesPutWhileUnboundedAreEvictedOnceBounded() {
+        sharedCache.activate(Map.of());
+        JSCache cache = getCache("script");
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        sharedCache.modified(Map.of("cacheMaxSize", 2));
+        cache.put("c", "3");
+        sharedCache.modified(Map.of());
+        cache.put("d", "4");
+
+        assertEquals(3, sharedCache.getSize());
+        assertNull(cache.get("a"));
+        assertEquals("4", cache.get("d"));
+    }
+
+    @Test
+    public void testConcurrentAccessWithoutSizeLimit() throws InterruptedException {
+        sharedCache.activate(Map.of());
+        JSCache cache = getCache("script");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Object>> tasks = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tasks.add(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        String key = "key" + (j % 100);
+                        cache.get(key, () -> key);
+                        cache.put(key + "-put", key);
+                    }
+                    return null;
+                });
+            }
+            executor.invokeAll(tasks);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(200, sharedCache.getSize());
+        assertEquals("key42", cache.get("key42"));
+        assertEquals(8000, sharedCache.getHits() + sharedCache.getMisses() - 1);
+    }
+
+    private JSCache getCache(String scriptIdentifier) {
+        Object cache = sharedCache.get(scriptIdentifier, "sharedcache");
+        assertNotNull(cache);
+        return (JSCache) cache;
+    }
+}
@@ -27,10 +27,12 @@ import org.osgi.framework.BundleContext;
  *
  * @author Jan N. Klug - Initial contribution
  * @author Sami Salonen - Copied from HTTP binding to provide consistent user experience
+ * @author Agent - Determine the identity transformation once
  */
 @NonNullByDefault
 public class CascadedValueTransformationImpl implements ValueTransformation {
     private final List<SingleValueTransformation> transformations;
+    private final boolean identityTransform;
 
     public CascadedValueTransformationImpl(@Nullable String transformationString) {
         String transformationNonNull = transformationString == null ? "" : transformationString;
@@ -41,6 +43,7 @@ public class CascadedValueTransformationImpl implements ValueTransformation {
             localTransformations = Collections.singletonList(new SingleValueTransformation(transformationString));
         }
         transformations = localTransformations;
+        identityTransform = transformations.stream().allMatch(SingleValueTransformation::isIdentityTransform);
     }
 
     @Override
@@ -55,7 +58,7 @@ public class CascadedValueTransformationImpl implements ValueTransformation {
 
     @Override
     public boolean isIdentityTransform() {
-        return transformations.stream().allMatch(SingleValueTransformation::isIdentityTransform);
+        return identityTransform;
     }
 
     @Override
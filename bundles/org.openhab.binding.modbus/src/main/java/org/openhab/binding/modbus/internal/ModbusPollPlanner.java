@@ -0,0 +1,326 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.core.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.core.io.transport.modbus.BitArray;
+import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
+import org.openhab.core.io.transport.modbus.ModbusConstants;
+import org.openhab.core.io.transport.modbus.ModbusFailureCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.core.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.io.transport.modbus.PollTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Merges the regular polls of an endpoint into as few requests as possible.
+ *
+ * Polls with the same slave id, function code and refresh interval are merged if their ranges are adjacent or
+ * overlap and the merged request does not exceed the maximum length of a read request. The result of a merged request
+ * is split into the results of the original requests, so the callbacks receive the same results as if they had been
+ * polled separately.
+ *
+ * Changes of the registered polls are applied after a short delay, so the pollers of an endpoint which are initialized
+ * together are planned once.
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusPollPlanner {
+
+    private static final long PLAN_DELAY_MILLIS = 500;
+
+    /**
+     * A regular poll registered with the planner
+     */
+    public class Registration {
+        private final ModbusReadRequestBlueprint request;
+        private final long refreshMillis;
+        private final ModbusReadCallback resultCallback;
+        private final ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback;
+
+        private Registration(ModbusReadRequestBlueprint request, long refreshMillis,
+                ModbusReadCallback resultCallback,
+                ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback) {
+            this.request = request;
+            this.refreshMillis = refreshMillis;
+            this.resultCallback = resultCallback;
+            this.failureCallback = failureCallback;
+        }
+
+        /**
+         * Stops the poll
+         */
+        public void unregister() {
+            ModbusPollPlanner.this.unregister(this);
+        }
+
+        private int getEnd() {
+            return request.getReference() + request.getDataLength();
+        }
+    }
+
+    /**
+     * A request covering one or more registered polls
+     */
+    class PlannedPoll implements ModbusReadCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> {
+        final ModbusReadRequestBlueprint request;
+        final long refreshMillis;
+        final List<Registration> registrations;
+        @Nullable
+        PollTask pollTask;
+
+        PlannedPoll(ModbusReadRequestBlueprint request, long refreshMillis, List<Registration> registrations) {
+            this.request = request;
+            this.refreshMillis = refreshMillis;
+            this.registrations = registrations;
+        }
+
+        @Override
+        public void handle(AsyncModbusReadResult result) {
+            if (registrations.size() == 1) {
+                registrations.get(0).resultCallback.handle(result);
+                return;
+            }
+            int start = request.getReference();
+            result.getRegisters().ifPresent(registers -> {
+                byte[] bytes = registers.getBytes();
+                for (Registration registration : registrations) {
+                    int from = 2 * (registration.request.getReference() - start);
+                    int to = from + 2 * registration.request.getDataLength();
+                    registration.resultCallback.handle(new AsyncModbusReadResult(registration.request,
+                            new ModbusRegisterArray(Arrays.copyOfRange(bytes, from, to))));
+                }
+            });
+            result.getBits().ifPresent(bits -> {
+                for (Registration registration : registrations) {
+                    int offset = registration.request.getReference() - start;
+                    BitArray slice = new BitArray(registration.request.getDataLength());
+                    for (int i = 0; i < slice.size(); i++) {
+                        slice.setBit(i, bits.getBit(offset + i));
+                    }
+                    registration.resultCallback.handle(new AsyncModbusReadResult(registration.request, slice));
+                }
+            });
+        }
+
+        @Override
+        public void handle(AsyncModbusFailure<ModbusReadRequestBlueprint> failure) {
+            if (registrations.size() == 1) {
+                registrations.get(0).failureCallback.handle(failure);
+                return;
+            }
+            for (Registration registration : registrations) {
+                registration.failureCallback
+                        .handle(new AsyncModbusFailure<>(registration.request, failure.getCause()));
+            }
+        }
+
+        /**
+         * Tests if the poll serves the same registrations with the same request
+         */
+        boolean isSameAs(PlannedPoll other) {
+            return refreshMillis == other.refreshMillis && Objects.equals(request, other.request)
+                    && registrations.equals(other.registrations);
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusPollPlanner.class);
+
+    private final ModbusCommunicationInterface comms;
+    private final ScheduledExecutorService scheduler;
+    private final List<Registration> registrations = new ArrayList<>();
+    private List<PlannedPoll> plannedPolls = new ArrayList<>();
+    private @Nullable ScheduledFuture<?> planJob;
+    private boolean disposed;
+
+    /**
+     * Creates a planner
+     *
+     * @param comms the communication interface of the endpoint
+     * @param scheduler the scheduler to plan the polls with
+     */
+    public ModbusPollPlanner(ModbusCommunicationInterface comms, ScheduledExecutorService scheduler) {
+        this.comms = comms;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Registers a regular poll
+     *
+     * @param request the request to poll
+     * @param refreshMillis the poll interval
+     * @param resultCallback the callback for the results of the request
+     * @param failureCallback the callback for the failures of the request
+     * @return the registration to unregister the poll with
+     */
+    public synchronized Registration register(ModbusReadRequestBlueprint request, long refreshMillis,
+            ModbusReadCallback resultCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback) {
+        Registration registration = new Registration(request, refreshMillis, resultCallback, failureCallback);
+        registrations.add(registration);
+        schedulePlan();
+        return registration;
+    }
+
+    private synchronized void unregister(Registration registration) {
+        if (registrations.remove(registration)) {
+            schedulePlan();
+        }
+    }
+
+    private void schedulePlan() {
+        if (disposed) {
+            return;
+        }
+        ScheduledFuture<?> localPlanJob = planJob;
+        if (localPlanJob == null || localPlanJob.isDone()) {
+            planJob = scheduler.schedule(this::plan, PLAN_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Merges the registered polls and updates the polls of the communication interface. Polls which have not changed
+     * keep running.
+     */
+    synchronized void plan() {
+        if (disposed) {
+            return;
+        }
+        List<PlannedPoll> newPolls = merge(registrations);
+        List<PlannedPoll> polls = new ArrayList<>(newPolls.size());
+        List<PlannedPoll> obsoletePolls = new ArrayList<>(plannedPolls);
+        for (PlannedPoll newPoll : newPolls) {
+            PlannedPoll existing = obsoletePolls.stream().filter(poll -> poll.isSameAs(newPoll)).findFirst()
+                    .orElse(null);
+            if (existing != null) {
+                obsoletePolls.remove(existing);
+                polls.add(existing);
+            } else {
+                polls.add(newPoll);
+            }
+        }
+        obsoletePolls.forEach(this::unregisterPoll);
+        for (PlannedPoll poll : polls) {
+            if (poll.pollTask == null) {
+                logger.debug("Registering poll {} every {} ms for {} pollers", poll.request, poll.refreshMillis,
+                        poll.registrations.size());
+                poll.pollTask = comms.registerRegularPoll(poll.request, poll.refreshMillis, 0, poll, poll);
+            }
+        }
+        plannedPolls = polls;
+        logger.debug("Planned {} polls for {} pollers", polls.size(), registrations.size());
+    }
+
+    /**
+     * Stops all polls
+     */
+    public synchronized void dispose() {
+        disposed = true;
+        ScheduledFuture<?> localPlanJob = planJob;
+        if (localPlanJob != null) {
+            localPlanJob.cancel(false);
+        }
+        plannedPolls.forEach(this::unregisterPoll);
+        plannedPolls = new ArrayList<>();
+        registrations.clear();
+    }
+
+    private void unregisterPoll(PlannedPoll poll) {
+        PollTask pollTask = poll.pollTask;
+        if (pollTask != null) {
+            comms.unregisterRegularPoll(pollTask);
+            poll.pollTask = null;
+        }
+    }
+
+    /**
+     * @return the polls currently registered with the communication interface
+     */
+    synchronized List<PlannedPoll> getPlannedPolls() {
+        return List.copyOf(plannedPolls);
+    }
+
+    private List<PlannedPoll> merge(List<Registration> registrations) {
+        Map<String, List<Registration>> groups = new HashMap<>();
+        for (Registration registration : registrations) {
+            ModbusReadRequestBlueprint request = registration.request;
+            String key = request.getUnitID() + ":" + request.getFunctionCode() + ":" + registration.refreshMillis;
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(registration);
+        }
+
+        List<PlannedPoll> polls = new ArrayList<>();
+        for (List<Registration> group : groups.values()) {
+            group.sort(Comparator.comparingInt((Registration registration) -> registration.request.getReference())
+                    .thenComparingInt(registration -> registration.request.getDataLength()));
+            int maxLength = getMaxLength(group.get(0).request.getFunctionCode());
+            List<Registration> merged = new ArrayList<>();
+            int start = 0;
+            int end = 0;
+            for (Registration registration : group) {
+                int registrationStart = registration.request.getReference();
+                if (!merged.isEmpty() && (registrationStart > end
+                        || Math.max(end, registration.getEnd()) - start > maxLength)) {
+                    polls.add(newPoll(merged, start, end));
+                    merged = new ArrayList<>();
+                }
+                if (merged.isEmpty()) {
+                    start = registrationStart;
+                    end = registration.getEnd();
+                } else {
+                    end = Math.max(end, registration.getEnd());
+                }
+                merged.add(registration);
+            }
+            polls.add(newPoll(merged, start, end));
+        }
+        return polls;
+    }
+
+    private PlannedPoll newPoll(List<Registration> registrations, int start, int end) {
+        Registration first = registrations.get(0);
+        if (registrations.size() == 1) {
+            return new PlannedPoll(first.request, first.refreshMillis, registrations);
+        }
+        int maxTries = registrations.stream().mapToInt(registration -> registration.request.getMaxTries()).max()
+                .orElse(1);
+        return new PlannedPoll(new ModbusReadRequestBlueprint(first.request.getUnitID(),
+                first.request.getFunctionCode(), start, end - start, maxTries), first.refreshMillis, registrations);
+    }
+
+    private static int getMaxLength(ModbusReadFunctionCode functionCode) {
+        switch (functionCode) {
+            case READ_COILS:
+            case READ_INPUT_DISCRETES:
+                return ModbusConstants.MAX_BITS_READ_COUNT;
+            default:
+                return ModbusConstants.MAX_REGISTERS_READ_COUNT;
+        }
+    }
+}
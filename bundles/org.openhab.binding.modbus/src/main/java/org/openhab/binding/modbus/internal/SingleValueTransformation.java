@@ -13,6 +13,7 @@
 package org.openhab.binding.modbus.internal;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.regex.Matcher;
@@ -29,6 +30,8 @@ import org.openhab.core.transform.TransformationService;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.TypeParser;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,6 +41,7 @@ import org.slf4j.LoggerFactory;
  * Inspired from other openHAB binding "Transformation" classes.
  *
  * @author Sami Salonen - Initial contribution
+ * @author Agent - Resolve the transformation service once
  *
  */
 @NonNullByDefault
@@ -50,6 +54,8 @@ public class SingleValueTransformation implements ValueTransformation {
     /** RegEx to extract and parse a function String <code>'(.*?)\((.*)\)'</code> */
     private static final Pattern EXTRACT_FUNCTION_PATTERN_OLD = Pattern.compile("(?<service>.*?)\\((?<arg>.*)\\)");
     private static final Pattern EXTRACT_FUNCTION_PATTERN_NEW = Pattern.compile("(?<service>.*?):(?<arg>.*)");
+    // the service property the transformation services are registered with, as used by TransformationHelper
+    private static final String TRANSFORM_PROPERTY = "openhab.transform";
 
     /**
      * Ordered list of types that are tried out first when trying to parse transformed command
@@ -66,6 +72,22 @@ public class SingleValueTransformation implements ValueTransformation {
     private final @Nullable String transformation;
     final @Nullable String transformationServiceName;
     final @Nullable String transformationServiceParam;
+    private final boolean identityTransform;
+
+    /**
+     * Transformation service resolved on first use, so it is not looked up for every value
+     */
+    private volatile @Nullable ResolvedService resolvedService;
+
+    private static class ResolvedService {
+        private final ServiceReference<TransformationService> reference;
+        private final TransformationService service;
+
+        private ResolvedService(ServiceReference<TransformationService> reference, TransformationService service) {
+            this.reference = reference;
+            this.service = service;
+        }
+    }
 
     /**
      *
@@ -75,6 +97,7 @@ public class SingleValueTransformation implements ValueTransformation {
      */
     public SingleValueTransformation(@Nullable String transformation) {
         this.transformation = transformation;
+        this.identityTransform = TRANSFORM_DEFAULT.equalsIgnoreCase(transformation);
         //
         // Parse transformation configuration here on construction, but delay the
         // construction of TransformationService to call-time
@@ -117,6 +140,7 @@ public class SingleValueTransformation implements ValueTransformation {
     SingleValueTransformation(String transformation, @Nullable String transformationServiceName,
             @Nullable String transformationServiceParam) {
         this.transformation = transformation;
+        this.identityTransform = TRANSFORM_DEFAULT.equalsIgnoreCase(transformation);
         this.transformationServiceName = transformationServiceName;
         this.transformationServiceParam = transformationServiceParam;
     }
@@ -134,7 +158,7 @@ public class SingleValueTransformation implements ValueTransformation {
                             "transformation service parameter is missing! Invalid transform?");
                 }
                 @Nullable
-                TransformationService transformationService = TransformationHelper.getTransformationService(context,
+                TransformationService transformationService = getTransformationService(context,
                         transformationServiceName);
                 if (transformationService != null) {
                     transformedResponse = transformationService.transform(transformationServiceParam, value);
@@ -162,9 +186,37 @@ public class SingleValueTransformation implements ValueTransformation {
         return transformedResponse == null ? "" : transformedResponse;
     }
 
+    /**
+     * Same lookup as {@link TransformationHelper#getTransformationService(BundleContext, String)}, which runs a
+     * filtered service lookup on every call. The helper doesn't return the service reference, which is needed to keep
+     * the service until it is unregistered, so the lookup is repeated here.
+     */
+    private @Nullable TransformationService getTransformationService(BundleContext context, String name)
+            throws TransformationException {
+        ResolvedService localResolvedService = resolvedService;
+        // the bundle of a reference is null once the service has been unregistered
+        if (localResolvedService != null && localResolvedService.reference.getBundle() != null) {
+            return localResolvedService.service;
+        }
+        resolvedService = null;
+        try {
+            Collection<ServiceReference<TransformationService>> references = context
+                    .getServiceReferences(TransformationService.class, "(" + TRANSFORM_PROPERTY + "=" + name + ")");
+            ServiceReference<TransformationService> reference = references.isEmpty() ? null
+                    : references.iterator().next();
+            TransformationService service = reference == null ? null : context.getService(reference);
+            if (reference != null && service != null) {
+                resolvedService = new ResolvedService(reference, service);
+            }
+            return service;
+        } catch (InvalidSyntaxException e) {
+            throw new TransformationException("Cannot get service reference for transformation " + name, e);
+        }
+    }
+
     @Override
     public boolean isIdentityTransform() {
-        return TRANSFORM_DEFAULT.equalsIgnoreCase(this.transformation);
+        return identityTransform;
     }
 
     public static Optional<Command> tryConvertToCommand(String transformed) {
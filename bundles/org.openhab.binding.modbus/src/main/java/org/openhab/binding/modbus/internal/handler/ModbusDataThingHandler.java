@@ -16,7 +16,6 @@ import static org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal
 
 import java.math.BigDecimal;
 import java.time.Duration;
-import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -95,6 +94,7 @@ import org.slf4j.LoggerFactory;
  * to avoid data race conditions.
  *
  * @author Sami Salonen - Initial contribution
+ * @author Agent - Skip unchanged values without creating states
  */
 @NonNullByDefault
 public class ModbusDataThingHandler extends BaseThingHandler {
@@ -104,6 +104,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
     private final BundleContext bundleContext;
 
     private static final Duration MIN_STATUS_INFO_UPDATE_INTERVAL = Duration.ofSeconds(1);
+    private static final DecimalType ONE = new DecimalType(BigDecimal.ONE);
     private static final Map<String, List<Class<? extends State>>> CHANNEL_ID_TO_ACCEPTED_TYPES = new HashMap<>();
 
     static {
@@ -152,7 +153,13 @@ public class ModbusDataThingHandler extends BaseThingHandler {
     private volatile Map<ChannelUID, Long> channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
     private volatile Map<ChannelUID, State> channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
 
-    private volatile LocalDateTime lastStatusInfoUpdate = LocalDateTime.MIN;
+    // Raw data of the last value which was processed completely. While it does not change and no channel is due for
+    // an update of its unchanged value, the value is not transformed again.
+    private volatile boolean lastRawValueValid;
+    private volatile long lastRawValue;
+    private volatile long lastRawValueUnchangedUntilMillis;
+
+    private volatile long lastStatusInfoUpdateMillis;
     private volatile ThingStatusInfo statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE,
             null);
 
@@ -480,7 +487,8 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         childOfEndpoint = false;
         pollerHandler = null;
         channelCache = new HashMap<>();
-        lastStatusInfoUpdate = LocalDateTime.MIN;
+        lastStatusInfoUpdateMillis = 0L;
+        lastRawValueValid = false;
         statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE, null);
         channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
         channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
@@ -786,15 +794,18 @@ public class ModbusDataThingHandler extends BaseThingHandler {
     }
 
     private boolean containsOnOff(List<Class<? extends State>> channelAcceptedDataTypes) {
-        return channelAcceptedDataTypes.stream().anyMatch(clz -> {
-            return clz.equals(OnOffType.class);
-        });
+        return channelAcceptedDataTypes.contains(OnOffType.class);
     }
 
     private boolean containsOpenClosed(List<Class<? extends State>> acceptedDataTypes) {
-        return acceptedDataTypes.stream().anyMatch(clz -> {
-            return clz.equals(OpenClosedType.class);
-        });
+        return acceptedDataTypes.contains(OpenClosedType.class);
+    }
+
+    @Override
+    public void channelLinked(ChannelUID channelUID) {
+        // newly linked channels need the full update
+        lastRawValueValid = false;
+        super.channelLinked(channelUID);
     }
 
     public synchronized void onReadResult(AsyncModbusReadResult result) {
@@ -841,14 +852,35 @@ public class ModbusDataThingHandler extends BaseThingHandler {
             int itemsPerRegister = 16 / readValueType.getBits();
             extractIndex = (readIndex.get() - pollStart) * itemsPerRegister + subIndex;
         }
+
+        // The registers holding the value. Types smaller than a register are compared by their whole register.
+        int firstRegister = readValueType.getBits() >= 16 ? extractIndex : readIndex.get() - pollStart;
+        int registerCount = Math.max(1, readValueType.getBits() / 16);
+        boolean rawValueAvailable = firstRegister >= 0 && firstRegister + registerCount <= registers.size();
+        long rawValue = 0;
+        if (rawValueAvailable) {
+            for (int i = 0; i < registerCount; i++) {
+                rawValue = (rawValue << 16) | registers.getRegister(firstRegister + i);
+            }
+            if (isUnchanged(rawValue)) {
+                processUnchangedValue();
+                return;
+            }
+        }
+
         numericState = ModbusBitUtilities.extractStateFromRegisters(registers, extractIndex, readValueType)
                 .map(state -> (State) state).orElse(UnDefType.UNDEF);
         boolean boolValue = !numericState.equals(DecimalType.ZERO);
         Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
-        logger.debug(
-                "Thing {} channels updated: {}. readValueType={}, readIndex={}, readSubIndex(or 0)={}, extractIndex={} -> numeric value {} and boolValue={}. Registers {} for request {}",
-                thing.getUID(), values, readValueType, readIndex, readSubIndex.orElse(0), extractIndex, numericState,
-                boolValue, registers, request);
+        if (rawValueAvailable) {
+            rememberRawValue(rawValue, values);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(
+                    "Thing {} channels updated: {}. readValueType={}, readIndex={}, readSubIndex(or 0)={}, extractIndex={} -> numeric value {} and boolValue={}. Registers {} for request {}",
+                    thing.getUID(), values, readValueType, readIndex, readSubIndex.orElse(0), extractIndex,
+                    numericState, boolValue, registers, request);
+        }
     }
 
     private synchronized void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
@@ -858,11 +890,63 @@ public class ModbusDataThingHandler extends BaseThingHandler {
             return;
         }
         boolean boolValue = bits.getBit(readIndex.get() - pollStart);
-        DecimalType numericState = boolValue ? new DecimalType(BigDecimal.ONE) : DecimalType.ZERO;
+        long rawValue = boolValue ? 1L : 0L;
+        if (isUnchanged(rawValue)) {
+            processUnchangedValue();
+            return;
+        }
+        DecimalType numericState = boolValue ? ONE : DecimalType.ZERO;
         Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
-        logger.debug(
-                "Thing {} channels updated: {}. readValueType={}, readIndex={} -> numeric value {} and boolValue={}. Bits {} for request {}",
-                thing.getUID(), values, readValueType, readIndex, numericState, boolValue, bits, request);
+        rememberRawValue(rawValue, values);
+        if (logger.isDebugEnabled()) {
+            logger.debug(
+                    "Thing {} channels updated: {}. readValueType={}, readIndex={} -> numeric value {} and boolValue={}. Bits {} for request {}",
+                    thing.getUID(), values, readValueType, readIndex, numericState, boolValue, bits, request);
+        }
+    }
+
+    /**
+     * Tests if the raw data equals the data of the last value and no channel is due for an update of its unchanged
+     * value, so the channels would not be updated anyway.
+     */
+    private boolean isUnchanged(long rawValue) {
+        return lastRawValueValid && lastRawValue == rawValue
+                && System.currentTimeMillis() < lastRawValueUnchangedUntilMillis;
+    }
+
+    /**
+     * Remember the raw data of a processed value, together with the time the first channel is due for an update of its
+     * unchanged value
+     */
+    private void rememberRawValue(long rawValue, Map<ChannelUID, State> states) {
+        long updateInterval = updateUnchangedValuesEveryMillis;
+        if (updateInterval <= 0L || states.isEmpty()) {
+            // every value updates the channels
+            lastRawValueValid = false;
+            return;
+        }
+        ChannelUID lastReadSuccessUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS);
+        long unchangedUntil = Long.MAX_VALUE;
+        for (ChannelUID uid : states.keySet()) {
+            if (!uid.equals(lastReadSuccessUID)) {
+                unchangedUntil = Math.min(unchangedUntil, channelLastUpdated.getOrDefault(uid, 0L) + updateInterval);
+            }
+        }
+        lastRawValue = rawValue;
+        lastRawValueUnchangedUntilMillis = unchangedUntil;
+        lastRawValueValid = true;
+    }
+
+    /**
+     * Update status and last read success for a value which has not changed since the last value
+     */
+    private void processUnchangedValue() {
+        updateStatusIfChanged(ThingStatus.ONLINE);
+        ChannelUID lastReadSuccessUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS);
+        if (isLinked(lastReadSuccessUID)) {
+            tryUpdateState(lastReadSuccessUID, new DateTimeType());
+            channelLastUpdated.put(lastReadSuccessUID, System.currentTimeMillis());
+        }
     }
 
     private synchronized void onError(ModbusReadRequestBlueprint request, Exception error) {
@@ -871,6 +955,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         } else if (!isReadEnabled) {
             return;
         }
+        lastRawValueValid = false;
         if (error instanceof ModbusConnectionException) {
             logger.trace("Thing {} '{}' had {} error on read: {}", getThing().getUID(), getThing().getLabel(),
                     error.getClass().getSimpleName(), error.toString());
@@ -965,15 +1050,16 @@ public class ModbusDataThingHandler extends BaseThingHandler {
             logger.trace("No transformation available, aborting processUpdatedValue");
             return Collections.emptyMap();
         }
-        Map<ChannelUID, State> states = new HashMap<>();
-        CHANNEL_ID_TO_ACCEPTED_TYPES.keySet().stream().forEach(channelId -> {
+        Map<ChannelUID, State> states = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+        for (Map.Entry<String, List<Class<? extends State>>> entry : CHANNEL_ID_TO_ACCEPTED_TYPES.entrySet()) {
+            String channelId = entry.getKey();
             ChannelUID channelUID = getChannelUID(channelId);
             if (!isLinked(channelUID)) {
-                return;
+                continue;
             }
-            List<Class<? extends State>> acceptedDataTypes = CHANNEL_ID_TO_ACCEPTED_TYPES.get(channelId);
+            List<Class<? extends State>> acceptedDataTypes = entry.getValue();
             if (acceptedDataTypes.isEmpty()) {
-                return;
+                continue;
             }
 
             State boolLikeState;
@@ -1003,11 +1089,13 @@ public class ModbusDataThingHandler extends BaseThingHandler {
             }
 
             if (transformedState != null) {
-                logger.trace(
-                        "Channel {} will be updated to '{}' (type {}). Input data: number value {} (value type '{}' taken into account) and bool value {}. Transformation: {}",
-                        channelId, transformedState, transformedState.getClass().getSimpleName(), numericState,
-                        readValueType, boolValue,
-                        localReadTransformation.isIdentityTransform() ? "<identity>" : localReadTransformation);
+                if (logger.isTraceEnabled()) {
+                    logger.trace(
+                            "Channel {} will be updated to '{}' (type {}). Input data: number value {} (value type '{}' taken into account) and bool value {}. Transformation: {}",
+                            channelId, transformedState, transformedState.getClass().getSimpleName(), numericState,
+                            readValueType, boolValue,
+                            localReadTransformation.isIdentityTransform() ? "<identity>" : localReadTransformation);
+                }
                 states.put(channelUID, transformedState);
             } else {
                 String types = String.join(", ",
@@ -1017,7 +1105,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
                         channelId, types, numericState, readValueType, boolValue,
                         localReadTransformation.isIdentityTransform() ? "<identity>" : localReadTransformation);
             }
-        });
+        }
 
         ChannelUID lastReadSuccessUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS);
         if (isLinked(lastReadSuccessUID)) {
@@ -1072,12 +1160,16 @@ public class ModbusDataThingHandler extends BaseThingHandler {
 
     private void updateStatusIfChanged(ThingStatus status, ThingStatusDetail statusDetail,
             @Nullable String description) {
-        ThingStatusInfo newStatusInfo = new ThingStatusInfo(status, statusDetail, description);
-        Duration durationSinceLastUpdate = Duration.between(lastStatusInfoUpdate, LocalDateTime.now());
-        boolean intervalElapsed = MIN_STATUS_INFO_UPDATE_INTERVAL.minus(durationSinceLastUpdate).isNegative();
-        if (statusInfo.getStatus() == ThingStatus.UNKNOWN || !statusInfo.equals(newStatusInfo) || intervalElapsed) {
+        ThingStatusInfo localStatusInfo = statusInfo;
+        long now = System.currentTimeMillis();
+        boolean intervalElapsed = now - lastStatusInfoUpdateMillis > MIN_STATUS_INFO_UPDATE_INTERVAL.toMillis();
+        // compare the fields, so no status info is created while the status does not change
+        if (localStatusInfo.getStatus() == ThingStatus.UNKNOWN || localStatusInfo.getStatus() != status
+                || localStatusInfo.getStatusDetail() != statusDetail
+                || !Objects.equals(localStatusInfo.getDescription(), description) || intervalElapsed) {
+            ThingStatusInfo newStatusInfo = new ThingStatusInfo(status, statusDetail, description);
             statusInfo = newStatusInfo;
-            lastStatusInfoUpdate = LocalDateTime.now();
+            lastStatusInfoUpdateMillis = now;
             updateStatus(newStatusInfo);
         }
     }
@@ -74,6 +74,12 @@ public class ModbusSerialThingHandler
                 stopBits, parity, encoding, config.isEcho(), config.getReceiveTimeoutMillis());
     }
 
+    @Override
+    protected boolean isPollMergingEnabled() {
+        ModbusSerialConfiguration localConfig = config;
+        return localConfig != null && localConfig.isMergePolls();
+    }
+
     /**
      * Return true if auto discovery is enabled in the config
      */
@@ -87,6 +87,12 @@ public class ModbusTcpThingHandler
         return getThing().getUID();
     }
 
+    @Override
+    protected boolean isPollMergingEnabled() {
+        ModbusTcpConfiguration localConfig = config;
+        return localConfig != null && localConfig.isMergePolls();
+    }
+
     /**
      * Returns true if discovery is enabled
      */
@@ -0,0 +1,198 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.openhab.binding.modbus.internal.ModbusPollPlanner.PlannedPoll;
+import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.core.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.core.io.transport.modbus.BitArray;
+import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
+import org.openhab.core.io.transport.modbus.ModbusFailureCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.core.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.io.transport.modbus.PollTask;
+
+/**
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusPollPlannerTest {
+
+    private @NonNullByDefault({}) ModbusCommunicationInterface comms;
+    private @NonNullByDefault({}) ModbusPollPlanner planner;
+
+    @BeforeEach
+    public void setUp() {
+        comms = mock(ModbusCommunicationInterface.class);
+        when(comms.registerRegularPoll(any(), anyLong(), anyLong(), any(), any()))
+                .thenAnswer(invocation -> mock(PollTask.class));
+        planner = new ModbusPollPlanner(comms, mock(ScheduledExecutorService.class));
+    }
+
+    @Test
+    public void testAdjacentAndOverlappingPollsAreMerged() {
+        register(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 10, 1000);
+        register(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 5, 1000);
+        register(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 12, 10, 1000);
+        register(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 30, 5, 1000);
+        register(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 10, 2000);
+        register(ModbusReadFunctionCode.READ_INPUT_REGISTERS, 22, 3, 1000);
+        planner.plan();
+
+        assertEquals(List.of("READ_INPUT_REGISTERS 22+3 @1000 x1", "READ_MULTIPLE_REGISTERS 0+10 @2000 x1",
+                "READ_MULTIPLE_REGISTERS 0+22 @1000 x3", "READ_MULTIPLE_REGISTERS 30+5 @1000 x1"), describePolls());
+        verify(comms, times(4)).registerRegularPoll(any(), anyLong(), eq(0L), any(), any());
+    }
+
+    @Test
+    public void testMergedPollsDoNotExceedMaximumLength() {
+        register(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 100, 1000);
+        register(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 100, 25, 1000);
+        register(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 125, 10, 1000);
+        register(ModbusReadFunctionCode.READ_COILS, 0, 1000, 1000);
+        register(ModbusReadFunctionCode.READ_COILS, 1000, 1000, 1000);
+        planner.plan();
+
+        assertEquals(List.of("READ_COILS 0+2000 @1000 x2", "READ_MULTIPLE_REGISTERS 0+125 @1000 x2",
+                "READ_MULTIPLE_REGISTERS 125+10 @1000 x1"), describePolls());
+    }
+
+    @Test
+    public void testRegistersAreSplit() {
+        ModbusReadCallback first = mock(ModbusReadCallback.class);
+        ModbusReadCallback second = mock(ModbusReadCallback.class);
+        ModbusReadRequestBlueprint firstRequest = request(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 5, 2);
+        ModbusReadRequestBlueprint secondRequest = request(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 6, 3);
+        planner.register(firstRequest, 1000, first, failureCallback());
+        planner.register(secondRequest, 1000, second, failureCallback());
+        planner.plan();
+
+        PlannedPoll poll = planner.getPlannedPolls().get(0);
+        poll.handle(new AsyncModbusReadResult(poll.request, new ModbusRegisterArray(1, 2, 3, 4)));
+
+        ArgumentCaptor<AsyncModbusReadResult> captor = ArgumentCaptor.forClass(AsyncModbusReadResult.class);
+        verify(first).handle(captor.capture());
+        assertSame(firstRequest, captor.getValue().getRequest());
+        assertEquals(new ModbusRegisterArray(1, 2), captor.getValue().getRegisters().get());
+        verify(second).handle(captor.capture());
+        assertSame(secondRequest, captor.getValue().getRequest());
+        assertEquals(new ModbusRegisterArray(2, 3, 4), captor.getValue().getRegisters().get());
+    }
+
+    @Test
+    public void testBitsAreSplit() {
+        ModbusReadCallback first = mock(ModbusReadCallback.class);
+        ModbusReadCallback second = mock(ModbusReadCallback.class);
+        ModbusReadRequestBlueprint firstRequest = request(ModbusReadFunctionCode.READ_COILS, 0, 3);
+        ModbusReadRequestBlueprint secondRequest = request(ModbusReadFunctionCode.READ_COILS, 3, 2);
+        planner.register(firstRequest, 1000, first, failureCallback());
+        planner.register(secondRequest, 1000, second, failureCallback());
+        planner.plan();
+
+        PlannedPoll poll = planner.getPlannedPolls().get(0);
+        poll.handle(new AsyncModbusReadResult(poll.request, new BitArray(true, false, true, true, false)));
+
+        ArgumentCaptor<AsyncModbusReadResult> captor = ArgumentCaptor.forClass(AsyncModbusReadResult.class);
+        verify(first).handle(captor.capture());
+        assertEquals("101", toString(captor.getValue().getBits().get()));
+        verify(second).handle(captor.capture());
+        assertEquals("10", toString(captor.getValue().getBits().get()));
+    }
+
+    @Test
+    public void testFailureIsPassedToAllPollers() {
+        ModbusFailureCallback<ModbusReadRequestBlueprint> first = failureCallback();
+        ModbusFailureCallback<ModbusReadRequestBlueprint> second = failureCallback();
+        ModbusReadRequestBlueprint firstRequest = request(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 2);
+        ModbusReadRequestBlueprint secondRequest = request(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 2);
+        planner.register(firstRequest, 1000, mock(ModbusReadCallback.class), first);
+        planner.register(secondRequest, 1000, mock(ModbusReadCallback.class), second);
+        planner.plan();
+
+        Exception error = new Exception("failed");
+        PlannedPoll poll = planner.getPlannedPolls().get(0);
+        poll.handle(new AsyncModbusFailure<>(poll.request, error));
+
+        verify(first).handle(argThat(failure -> failure.getRequest() == firstRequest && failure.getCause() == error));
+        verify(second)
+                .handle(argThat(failure -> failure.getRequest() == secondRequest && failure.getCause() == error));
+    }
+
+    @Test
+    public void testOnlyChangedPollsAreRegisteredAgain() {
+        register(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 10, 1000);
+        ModbusPollPlanner.Registration registration = register(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10,
+                10, 1000);
+        register(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 50, 10, 1000);
+        planner.plan();
+        List<PlannedPoll> polls = planner.getPlannedPolls();
+        PollTask mergedTask = polls.stream().filter(poll -> poll.registrations.size() == 2).findFirst().get().pollTask;
+
+        registration.unregister();
+        planner.plan();
+
+        verify(comms).unregisterRegularPoll(mergedTask);
+        verify(comms, times(3)).registerRegularPoll(any(), anyLong(), anyLong(), any(), any());
+        assertEquals(List.of("READ_MULTIPLE_REGISTERS 0+10 @1000 x1", "READ_MULTIPLE_REGISTERS 50+10 @1000 x1"),
+                describePolls());
+
+        planner.dispose();
+        verify(comms, times(3)).unregisterRegularPoll(any());
+    }
+
+    private ModbusPollPlanner.Registration register(ModbusReadFunctionCode functionCode, int start, int length,
+            long refresh) {
+        return planner.register(request(functionCode, start, length), refresh, mock(ModbusReadCallback.class),
+                failureCallback());
+    }
+
+    private ModbusReadRequestBlueprint request(ModbusReadFunctionCode functionCode, int start, int length) {
+        return new ModbusReadRequestBlueprint(1, functionCode, start, length, 3);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback() {
+        return mock(ModbusFailureCallback.class);
+    }
+
+    private String toString(BitArray bits) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < bits.size(); i++) {
+            result.append(bits.getBit(i) ? '1' : '0');
+        }
+        return result.toString();
+    }
+
+    private List<String> describePolls() {
+        return planner.getPlannedPolls().stream()
+                .map(poll -> String.format("%s %d+%d @%d x%d", poll.request.getFunctionCode(),
+                        poll.request.getReference(), poll.request.getDataLength(), poll.refreshMillis,
+                        poll.registrations.size()))
+                .sorted(Comparator.naturalOrder()).collect(Collectors.toList());
+    }
+}
@@ -13,14 +13,24 @@
 package org.openhab.binding.modbus.internal;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.openhab.core.transform.TransformationException;
+import org.openhab.core.transform.TransformationService;
+import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceReference;
 
 /**
  * @author Sami Salonen - Initial contribution
+ * @author Agent - Test resolving the transformation service once
  */
 @NonNullByDefault
 public class SingleValueTransformationTest {
@@ -80,4 +90,27 @@ public class SingleValueTransformationTest {
         assertFalse(transformation.isIdentityTransform());
         assertEquals("static", transformation.transform(Mockito.mock(BundleContext.class), "xx"));
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testTransformationServiceIsResolvedOnce() throws InvalidSyntaxException, TransformationException {
+        BundleContext context = mock(BundleContext.class);
+        ServiceReference<TransformationService> reference = mock(ServiceReference.class);
+        TransformationService service = mock(TransformationService.class);
+        when(reference.getBundle()).thenReturn(mock(Bundle.class));
+        when(context.getServiceReferences(TransformationService.class, "(openhab.transform=MAP)"))
+                .thenReturn(List.of(reference));
+        when(context.getService(reference)).thenReturn(service);
+        when(service.transform(eq("file.map"), anyString())).thenAnswer(invocation -> "mapped");
+
+        SingleValueTransformation transformation = new SingleValueTransformation("MAP(file.map)");
+        assertEquals("mapped", transformation.transform(context, "1"));
+        assertEquals("mapped", transformation.transform(context, "2"));
+        verify(context, times(1)).getServiceReferences(TransformationService.class, "(openhab.transform=MAP)");
+
+        // the service is resolved again once it has been unregistered
+        when(reference.getBundle()).thenReturn(null);
+        assertEquals("mapped", transformation.transform(context, "3"));
+        verify(context, times(2)).getServiceReferences(TransformationService.class, "(openhab.transform=MAP)");
+    }
 }
@@ -14,6 +14,7 @@ package org.openhab.binding.mqtt.generic;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.IllegalFormatException;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -31,6 +32,7 @@ import org.openhab.core.io.transport.mqtt.MqttMessageSubscriber;
 import org.openhab.core.library.types.StringType;
 import org.openhab.core.thing.ChannelUID;
 import org.openhab.core.types.Command;
+import org.openhab.core.types.State;
 import org.openhab.core.types.TypeParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,6 +64,9 @@ public class ChannelState implements MqttMessageSubscriber {
     private @Nullable ScheduledFuture<?> scheduledFuture;
     private CompletableFuture<@Nullable Void> future = CompletableFuture.completedFuture(null);
     private final Object futureLock = new Object();
+    // Last payload parsed by the fast path and the state it resulted in
+    private byte @Nullable [] lastPayload;
+    private @Nullable State lastState;
 
     /**
      * Creates a new channel state.
@@ -169,6 +174,13 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
+        // Untransformed state value: Try to parse the payload without decoding it
+        if (transformationsIn.isEmpty() && !config.trigger && processPayload(payload, channelStateUpdateListener)) {
+            receivedOrTimeout();
+            return;
+        }
+        lastPayload = null;
+
         // String value: Apply transformations
         String strValue = new String(payload, StandardCharsets.UTF_8);
         for (ChannelStateTransformation t : transformationsIn) {
@@ -222,6 +234,38 @@ public class ChannelState implements MqttMessageSubscriber {
         receivedOrTimeout();
     }
 
+    /**
+     * Updates the cached value from a payload which the value can parse without decoding it into a string.
+     * If the payload is the same as the last one and the cached value has not been changed since, the cached state is
+     * posted again without parsing.
+     *
+     * @return true if the payload has been processed
+     */
+    private boolean processPayload(byte[] payload, ChannelStateUpdateListener channelStateUpdateListener) {
+        if (!config.postCommand && cachedValue.getChannelState() == lastState && Arrays.equals(payload, lastPayload)) {
+            channelStateUpdateListener.updateChannelState(channelUID, cachedValue.getChannelState());
+            return true;
+        }
+        Command command = cachedValue.parsePayload(payload);
+        if (command == null) {
+            return false;
+        }
+        try {
+            cachedValue.update(command);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return false;
+        }
+        lastPayload = payload.clone();
+        lastState = cachedValue.getChannelState();
+
+        if (config.postCommand) {
+            channelStateUpdateListener.postChannelCommand(channelUID, (Command) cachedValue.getChannelState());
+        } else {
+            channelStateUpdateListener.updateChannelState(channelUID, cachedValue.getChannelState());
+        }
+        return true;
+    }
+
     /**
      * Returns the state topic. Might be an empty string if this is a stateless channel (TRIGGER kind channel).
      */
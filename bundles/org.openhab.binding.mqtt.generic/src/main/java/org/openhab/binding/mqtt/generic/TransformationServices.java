@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.transform.TransformationService;
+
+/**
+ * Keeps the registered {@link TransformationService}s by their type, so they are resolved once when they are bound
+ * to a component and not looked up in the service registry for every transformed MQTT message.
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class TransformationServices implements TransformationServiceProvider {
+    private static final String TRANSFORM_PROPERTY = "openhab.transform";
+
+    private final Map<String, TransformationService> services = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a registered transformation service
+     *
+     * @param service The transformation service
+     * @param properties The service properties, containing the type of the service
+     */
+    public void add(TransformationService service, Map<String, Object> properties) {
+        Object type = properties.get(TRANSFORM_PROPERTY);
+        if (type != null) {
+            services.put(type.toString(), service);
+        }
+    }
+
+    /**
+     * Removes a transformation service which is no longer registered
+     *
+     * @param service The transformation service
+     * @param properties The service properties, containing the type of the service
+     */
+    public void remove(TransformationService service, Map<String, Object> properties) {
+        Object type = properties.get(TRANSFORM_PROPERTY);
+        if (type != null) {
+            services.remove(type.toString(), service);
+        }
+    }
+
+    @Override
+    public @Nullable TransformationService getTransformationService(String type) {
+        return services.get(type);
+    }
+}
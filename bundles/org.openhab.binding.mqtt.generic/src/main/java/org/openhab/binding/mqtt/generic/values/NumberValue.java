@@ -88,6 +88,12 @@ public class NumberValue extends Value {
         return state.format(formatPattern);
     }
 
+    @Override
+    public @Nullable Command parsePayload(byte[] payload) {
+        BigDecimal value = parseDecimal(payload);
+        return value == null ? null : new DecimalType(value);
+    }
+
     @Override
     public void update(Command command) throws IllegalArgumentException {
         BigDecimal newValue = null;
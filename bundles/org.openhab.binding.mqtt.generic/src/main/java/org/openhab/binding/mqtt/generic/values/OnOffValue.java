@@ -12,6 +12,8 @@
  */
 package org.openhab.binding.mqtt.generic.values;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -30,10 +32,15 @@ import org.openhab.core.types.CommandOption;
  */
 @NonNullByDefault
 public class OnOffValue extends Value {
+    private static final byte[] ON = OnOffType.ON.name().getBytes(StandardCharsets.UTF_8);
+    private static final byte[] OFF = OnOffType.OFF.name().getBytes(StandardCharsets.UTF_8);
+
     private final String onState;
     private final String offState;
     private final String onCommand;
     private final String offCommand;
+    private final byte[] onStatePayload;
+    private final byte[] offStatePayload;
 
     /**
      * Creates a switch On/Off type, that accepts "ON", "1" for on and "OFF","0" for off.
@@ -69,6 +76,23 @@ public class OnOffValue extends Value {
         this.offState = offState == null ? OnOffType.OFF.name() : offState;
         this.onCommand = onCommand == null ? OnOffType.ON.name() : onCommand;
         this.offCommand = offCommand == null ? OnOffType.OFF.name() : offCommand;
+        this.onStatePayload = this.onState.getBytes(StandardCharsets.UTF_8);
+        this.offStatePayload = this.offState.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public @Nullable Command parsePayload(byte[] payload) {
+        // the type names take precedence, like when parsing the string
+        if (Arrays.equals(payload, ON)) {
+            return OnOffType.ON;
+        } else if (Arrays.equals(payload, OFF)) {
+            return OnOffType.OFF;
+        } else if (Arrays.equals(payload, onStatePayload)) {
+            return OnOffType.ON;
+        } else if (Arrays.equals(payload, offStatePayload)) {
+            return OnOffType.OFF;
+        }
+        return null;
     }
 
     @Override
@@ -14,6 +14,7 @@ package org.openhab.binding.mqtt.generic.values;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.net.URLConnection;
 import java.util.List;
 
@@ -27,6 +28,7 @@ import org.openhab.core.types.Command;
 import org.openhab.core.types.CommandDescriptionBuilder;
 import org.openhab.core.types.State;
 import org.openhab.core.types.StateDescriptionFragmentBuilder;
+import org.openhab.core.types.TypeParser;
 import org.openhab.core.types.UnDefType;
 
 /**
@@ -125,6 +127,54 @@ public abstract class Value {
      */
     public abstract void update(Command command) throws IllegalArgumentException;
 
+    /**
+     * Parses an MQTT payload into a command without decoding it into a string first.
+     * <p>
+     * Only payloads which result in the same value as the string parsed by {@link TypeParser} may be handled here,
+     * all other payloads have to be left to the string based parsing.
+     * </p>
+     *
+     * @param payload The MQTT payload
+     * @return The command or null if the payload needs to be parsed as string
+     */
+    public @Nullable Command parsePayload(byte[] payload) {
+        return null;
+    }
+
+    /**
+     * Parses a plain decimal number like "-12.50" from an ASCII payload.
+     *
+     * @param payload The MQTT payload
+     * @return The number or null if the payload is not a plain decimal number of at most 18 digits
+     */
+    protected static @Nullable BigDecimal parseDecimal(byte[] payload) {
+        int length = payload.length;
+        int index = length > 0 && payload[0] == '-' ? 1 : 0;
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; index < length; index++) {
+            byte c = payload[index];
+            if (c >= '0' && c <= '9') {
+                if (++digits > 18) {
+                    return null;
+                }
+                unscaled = unscaled * 10 + (c - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (c == '.' && scale < 0 && digits > 0) {
+                scale = 0;
+            } else {
+                return null;
+            }
+        }
+        if (digits == 0 || scale == 0) {
+            return null;
+        }
+        return BigDecimal.valueOf(payload[0] == '-' ? -unscaled : unscaled, Math.max(scale, 0));
+    }
+
     /**
      * Returns the given command if it cannot be handled by {@link #update(Command)}
      * or {@link #update(byte[])} and need to be posted straight to the framework instead.
@@ -45,14 +45,17 @@ import org.openhab.binding.mqtt.generic.values.DateTimeValue;
 import org.openhab.binding.mqtt.generic.values.ImageValue;
 import org.openhab.binding.mqtt.generic.values.LocationValue;
 import org.openhab.binding.mqtt.generic.values.NumberValue;
+import org.openhab.binding.mqtt.generic.values.OnOffValue;
 import org.openhab.binding.mqtt.generic.values.PercentageValue;
 import org.openhab.binding.mqtt.generic.values.TextValue;
 import org.openhab.core.io.transport.mqtt.MqttBrokerConnection;
 import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
 import org.openhab.core.library.types.RawType;
 import org.openhab.core.library.types.StringType;
 import org.openhab.core.library.unit.Units;
 import org.openhab.core.thing.ChannelUID;
+import org.openhab.core.types.State;
 
 /**
  * Tests the {@link ChannelState} class.
@@ -173,6 +176,46 @@ public class ChannelStateTests {
         verify(channelStateUpdateListenerMock, times(3)).updateChannelState(eq(channelUIDMock), any());
     }
 
+    @Test
+    public void receiveIdenticalPayloadTest() {
+        NumberValue value = new NumberValue(null, null, new BigDecimal(10), null);
+        ChannelState c = spy(new ChannelState(config, channelUIDMock, value, channelStateUpdateListenerMock));
+        c.start(connectionMock, mock(ScheduledExecutorService.class), 100);
+
+        c.processMessage("state", "15".getBytes());
+        State state = value.getChannelState();
+        c.processMessage("state", "15".getBytes());
+        assertThat(value.getChannelState(), is(sameInstance(state)));
+
+        c.processMessage("state", "INCREASE".getBytes());
+        c.processMessage("state", "15".getBytes());
+        assertThat(value.getChannelState().toString(), is("15"));
+        assertThat(value.getChannelState(), is(not(sameInstance(state))));
+
+        verify(channelStateUpdateListenerMock, times(4)).updateChannelState(eq(channelUIDMock), any());
+    }
+
+    @Test
+    public void receiveOnOffTest() {
+        OnOffValue value = new OnOffValue("1", "0");
+        ChannelState c = spy(new ChannelState(config, channelUIDMock, value, channelStateUpdateListenerMock));
+        c.start(connectionMock, mock(ScheduledExecutorService.class), 100);
+
+        c.processMessage("state", "1".getBytes());
+        assertThat(value.getChannelState(), is(OnOffType.ON));
+
+        c.processMessage("state", "OFF".getBytes());
+        assertThat(value.getChannelState(), is(OnOffType.OFF));
+
+        c.processMessage("state", "1".getBytes());
+        assertThat(value.getChannelState(), is(OnOffType.ON));
+
+        c.processMessage("state", "0".getBytes());
+        assertThat(value.getChannelState(), is(OnOffType.OFF));
+
+        verify(channelStateUpdateListenerMock, times(4)).updateChannelState(eq(channelUIDMock), any());
+    }
+
     @Test
     public void receiveDecimalFractionalTest() {
         NumberValue value = new NumberValue(null, null, new BigDecimal(10.5), null);
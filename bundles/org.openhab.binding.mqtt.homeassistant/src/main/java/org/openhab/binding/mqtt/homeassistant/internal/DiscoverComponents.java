@@ -29,6 +29,8 @@ import org.openhab.binding.mqtt.generic.TransformationServiceProvider;
 import org.openhab.binding.mqtt.generic.utils.FutureCollector;
 import org.openhab.binding.mqtt.homeassistant.internal.component.AbstractComponent;
 import org.openhab.binding.mqtt.homeassistant.internal.component.ComponentFactory;
+import org.openhab.binding.mqtt.homeassistant.internal.discovery.ConfigPayloadProcessor;
+import org.openhab.binding.mqtt.homeassistant.internal.discovery.DiscoveryStatistics;
 import org.openhab.binding.mqtt.homeassistant.internal.exception.ConfigurationException;
 import org.openhab.binding.mqtt.homeassistant.internal.exception.UnsupportedComponentException;
 import org.openhab.core.io.transport.mqtt.MqttBrokerConnection;
@@ -53,6 +55,7 @@ public class DiscoverComponents implements MqttMessageSubscriber {
     private final ChannelStateUpdateListener updateListener;
     private final AvailabilityTracker tracker;
     private final TransformationServiceProvider transformationServiceProvider;
+    private final ConfigPayloadProcessor configProcessor;
 
     protected final CompletableFuture<@Nullable Void> discoverFinishedFuture = new CompletableFuture<>();
     private final Gson gson;
@@ -80,6 +83,17 @@ public class DiscoverComponents implements MqttMessageSubscriber {
     public DiscoverComponents(ThingUID thingUID, ScheduledExecutorService scheduler,
             ChannelStateUpdateListener channelStateUpdateListener, AvailabilityTracker tracker, Gson gson,
             TransformationServiceProvider transformationServiceProvider) {
+        this(thingUID, scheduler, channelStateUpdateListener, tracker, gson, transformationServiceProvider,
+                new ConfigPayloadProcessor());
+    }
+
+    /**
+     * Create a new discovery object, which processes the configurations with the given processor.
+     */
+    public DiscoverComponents(ThingUID thingUID, ScheduledExecutorService scheduler,
+            ChannelStateUpdateListener channelStateUpdateListener, AvailabilityTracker tracker, Gson gson,
+            TransformationServiceProvider transformationServiceProvider, ConfigPayloadProcessor configProcessor) {
+        this.configProcessor = configProcessor;
         this.thingUID = thingUID;
         this.scheduler = scheduler;
         this.updateListener = channelStateUpdateListener;
@@ -93,7 +107,15 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         if (!topic.endsWith("/config")) {
             return;
         }
+        configProcessor.process(topic, payload, p -> processConfig(topic, p));
+    }
 
+    /**
+     * Creates the component of a configuration and passes it to the listener.
+     *
+     * @return true if the component has been passed to the listener
+     */
+    private boolean processConfig(String topic, byte[] payload) {
         HaID haID = new HaID(topic);
         String config = new String(payload);
         AbstractComponent<?> component = null;
@@ -106,8 +128,10 @@ public class DiscoverComponents implements MqttMessageSubscriber {
 
                 logger.trace("Found HomeAssistant thing {} component {}", haID.objectID, haID.component);
 
+                final ComponentDiscovered discoveredListener = this.discoveredListener;
                 if (discoveredListener != null) {
                     discoveredListener.componentDiscovered(haID, component);
+                    return true;
                 }
             } catch (UnsupportedComponentException e) {
                 logger.warn("HomeAssistant discover error: thing {} component type is unsupported: {}", haID.objectID,
@@ -121,6 +145,7 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         } else {
             logger.warn("Configuration of HomeAssistant thing {} is empty", haID.objectID);
         }
+        return false;
     }
 
     /**
@@ -187,6 +212,20 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         return null;
     }
 
+    /**
+     * Forgets the configurations processed so far, so they are processed again when they are received the next time.
+     */
+    public void resetProcessedConfigs() {
+        configProcessor.reset();
+    }
+
+    /**
+     * Returns the statistics of the processed configurations.
+     */
+    public DiscoveryStatistics getStatistics() {
+        return configProcessor.getStatistics();
+    }
+
     /**
      * Stops an ongoing discovery or do nothing if no discovery is running.
      */
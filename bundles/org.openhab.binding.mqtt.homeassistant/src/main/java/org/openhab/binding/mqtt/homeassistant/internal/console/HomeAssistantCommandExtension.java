@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal.console;
+
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.mqtt.homeassistant.internal.discovery.HomeAssistantDiscovery;
+import org.openhab.binding.mqtt.homeassistant.internal.handler.HomeAssistantThingHandler;
+import org.openhab.core.io.console.Console;
+import org.openhab.core.io.console.extensions.AbstractConsoleCommandExtension;
+import org.openhab.core.io.console.extensions.ConsoleCommandExtension;
+import org.openhab.core.thing.Thing;
+import org.openhab.core.thing.ThingRegistry;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * The {@link HomeAssistantCommandExtension} prints the statistics of the Home Assistant discovery
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = ConsoleCommandExtension.class)
+public class HomeAssistantCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String STATS = "stats";
+
+    private final ThingRegistry thingRegistry;
+    private final HomeAssistantDiscovery discovery;
+
+    @Activate
+    public HomeAssistantCommandExtension(final @Reference ThingRegistry thingRegistry,
+            final @Reference HomeAssistantDiscovery discovery) {
+        super("homeassistant", "Show the statistics of the Home Assistant MQTT discovery");
+        this.thingRegistry = thingRegistry;
+        this.discovery = discovery;
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length != 1 || !STATS.equals(args[0])) {
+            printUsage(console);
+            return;
+        }
+        console.println("Discovery service: " + discovery.getStatistics());
+        for (Thing thing : thingRegistry.getAll()) {
+            if (thing.getHandler() instanceof HomeAssistantThingHandler) {
+                HomeAssistantThingHandler handler = (HomeAssistantThingHandler) thing.getHandler();
+                console.println(thing.getUID() + ": " + handler.getDiscoveryStatistics());
+            }
+        }
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return List.of(buildCommandUsage(STATS,
+                "list the received, skipped and processed component configurations and their processing times"));
+    }
+}
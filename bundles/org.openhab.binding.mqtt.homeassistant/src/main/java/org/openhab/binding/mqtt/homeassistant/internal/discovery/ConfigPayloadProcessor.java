@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal.discovery;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.common.ThreadPoolManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Processes retained Home Assistant configuration payloads on a worker pool instead of the MQTT callback thread.
+ *
+ * <p>
+ * The last processed payload is kept per key, so configurations which the broker replays unchanged, e.g. after a
+ * reconnect, are skipped. Payloads of the same key are processed in order; if several payloads of a key are
+ * received while one is processed, only the latest one is processed afterwards.
+ * </p>
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class ConfigPayloadProcessor {
+    /** The thread pool shared by all processors, its size can be configured like for any openHAB thread pool */
+    public static final String THREAD_POOL_NAME = "mqtt-homeassistant-discovery";
+
+    private final Logger logger = LoggerFactory.getLogger(ConfigPayloadProcessor.class);
+
+    private final Executor executor;
+    private final Map<String, byte[]> processedPayloads = new ConcurrentHashMap<>();
+    private final Map<String, PendingConfig> pendingConfigs = new ConcurrentHashMap<>();
+    private final DiscoveryStatistics statistics = new DiscoveryStatistics();
+
+    private static class PendingConfig {
+        final byte[] payload;
+        final Predicate<byte[]> processor;
+
+        PendingConfig(byte[] payload, Predicate<byte[]> processor) {
+            this.payload = payload;
+            this.processor = processor;
+        }
+    }
+
+    /**
+     * Creates a processor using the shared discovery thread pool.
+     */
+    public ConfigPayloadProcessor() {
+        this(ThreadPoolManager.getPool(THREAD_POOL_NAME));
+    }
+
+    /**
+     * @param executor The executor processing the payloads
+     */
+    public ConfigPayloadProcessor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Processes a payload, unless it is the same as the last processed payload of the key.
+     *
+     * @param key The key of the configuration, usually the topic
+     * @param payload The configuration payload
+     * @param processor Processes the payload, returns true if an identical payload can be skipped from now on
+     */
+    public void process(String key, byte[] payload, Predicate<byte[]> processor) {
+        statistics.received();
+        byte[] processedPayload = processedPayloads.get(key);
+        if (processedPayload != null && Arrays.equals(processedPayload, payload) && !pendingConfigs.containsKey(key)) {
+            logger.trace("Skipping unchanged configuration {}", key);
+            statistics.skipped();
+            return;
+        }
+        if (pendingConfigs.put(key, new PendingConfig(payload, processor)) == null) {
+            executor.execute(() -> processPending(key));
+        }
+    }
+
+    private void processPending(String key) {
+        PendingConfig config = pendingConfigs.get(key);
+        while (config != null) {
+            long start = System.nanoTime();
+            boolean processed = false;
+            try {
+                processed = config.processor.test(config.payload);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to process configuration {}: {}", key, e.getMessage());
+            }
+            if (processed) {
+                processedPayloads.put(key, config.payload);
+            } else {
+                processedPayloads.remove(key);
+            }
+            long nanos = System.nanoTime() - start;
+            boolean done = pendingConfigs.remove(key, config);
+            statistics.processed(nanos);
+            if (done) {
+                return;
+            }
+            config = pendingConfigs.get(key);
+        }
+    }
+
+    /**
+     * Forgets the last processed payload of a key, so the next payload is processed in any case.
+     *
+     * @param key The key of the configuration
+     */
+    public void forget(String key) {
+        processedPayloads.remove(key);
+    }
+
+    /**
+     * Forgets the last processed payloads of all keys.
+     */
+    public void reset() {
+        processedPayloads.clear();
+    }
+
+    /**
+     * @return true if no payload is waiting to be processed
+     */
+    public boolean isIdle() {
+        return pendingConfigs.isEmpty();
+    }
+
+    public DiscoveryStatistics getStatistics() {
+        return statistics;
+    }
+}
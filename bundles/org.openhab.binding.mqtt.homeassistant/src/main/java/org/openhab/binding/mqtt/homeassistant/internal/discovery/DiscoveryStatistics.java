@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal.discovery;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Counts the received, skipped and processed Home Assistant configuration payloads and the time spent processing them.
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class DiscoveryStatistics {
+    private final LongAdder received = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder processingNanos = new LongAdder();
+    private final AtomicLong maxProcessingNanos = new AtomicLong();
+
+    void received() {
+        received.increment();
+    }
+
+    void skipped() {
+        skipped.increment();
+    }
+
+    void processed(long nanos) {
+        processed.increment();
+        processingNanos.add(nanos);
+        maxProcessingNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * @return the number of received configuration payloads
+     */
+    public long getReceived() {
+        return received.sum();
+    }
+
+    /**
+     * @return the number of payloads which were skipped, because they were identical to the last processed one
+     */
+    public long getSkipped() {
+        return skipped.sum();
+    }
+
+    /**
+     * @return the number of processed payloads
+     */
+    public long getProcessed() {
+        return processed.sum();
+    }
+
+    /**
+     * @return the total processing time in nanoseconds
+     */
+    public long getProcessingNanos() {
+        return processingNanos.sum();
+    }
+
+    /**
+     * @return the longest processing time of a payload in nanoseconds
+     */
+    public long getMaxProcessingNanos() {
+        return maxProcessingNanos.get();
+    }
+
+    @Override
+    public String toString() {
+        long processed = getProcessed();
+        return String.format("received %d, skipped %d, processed %d, avg %.3f ms, max %.3f ms", getReceived(),
+                getSkipped(), processed, processed == 0 ? 0 : getProcessingNanos() / 1_000_000.0 / processed,
+                getMaxProcessingNanos() / 1_000_000.0);
+    }
+}
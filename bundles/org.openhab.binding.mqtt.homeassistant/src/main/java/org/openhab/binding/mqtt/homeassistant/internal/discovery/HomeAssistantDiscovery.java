@@ -63,7 +63,8 @@ import com.google.gson.GsonBuilder;
  *
  * @author David Graeff - Initial contribution
  */
-@Component(service = DiscoveryService.class, configurationPid = "discovery.mqttha")
+@Component(service = { DiscoveryService.class,
+        HomeAssistantDiscovery.class }, configurationPid = "discovery.mqttha")
 @NonNullByDefault
 public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
     @SuppressWarnings("unused")
@@ -74,6 +75,7 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
 
     private @Nullable ScheduledFuture<?> future;
     private final Gson gson;
+    private final ConfigPayloadProcessor configProcessor = new ConfigPayloadProcessor();
 
     public static final Map<String, String> HA_COMP_TO_NAME = new TreeMap<>();
     {
@@ -158,6 +160,26 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         return summary.toString();
     }
 
+    @Override
+    protected void startScan() {
+        // a scan reports all things again
+        configProcessor.reset();
+        super.startScan();
+    }
+
+    @Override
+    protected void startBackgroundDiscovery() {
+        configProcessor.reset();
+        super.startBackgroundDiscovery();
+    }
+
+    /**
+     * Returns the statistics of the processed configurations.
+     */
+    public DiscoveryStatistics getStatistics() {
+        return configProcessor.getStatistics();
+    }
+
     @Override
     public void receivedMessage(ThingUID connectionBridge, MqttBrokerConnection connection, String topic,
             byte[] payload) {
@@ -171,14 +193,20 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
             return;
         }
 
-        // Reset the found-component timer.
-        // We will collect components for the thing label description for another 2 seconds.
-        final ScheduledFuture<?> future = this.future;
-        if (future != null) {
-            future.cancel(false);
-        }
-        this.future = scheduler.schedule(this::publishResults, 2, TimeUnit.SECONDS);
+        configProcessor.process(getConfigKey(connectionBridge, topic), payload,
+                p -> processConfig(connectionBridge, topic, p));
+    }
+
+    private static String getConfigKey(ThingUID connectionBridge, String topic) {
+        return connectionBridge.getAsString() + ":" + topic;
+    }
 
+    /**
+     * Adds the component of a configuration to the discovery result of its thing.
+     *
+     * @return true if the configuration is valid
+     */
+    private boolean processConfig(ThingUID connectionBridge, String topic, byte[] payload) {
         // We will of course find multiple of the same unique Thing IDs, for each different component another one.
         // Therefore the components are assembled into a list and given to the DiscoveryResult label for the user to
         // easily recognize object capabilities.
@@ -195,6 +223,34 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
 
             final ThingUID thingUID = new ThingUID(typeID, connectionBridge, thingID);
 
+            addComponent(connectionBridge, topic, haID, config, thingID, thingUID);
+            schedulePublishResults();
+            return true;
+        } catch (ConfigurationException e) {
+            logger.warn("HomeAssistant discover error: invalid configuration of thing {} component {}: {}",
+                    haID.objectID, haID.component, e.getMessage());
+        } catch (Exception e) {
+            logger.warn("HomeAssistant discover error: {}", e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Reset the found-component timer.
+     * We will collect components for the thing label description for another 2 seconds.
+     */
+    private synchronized void schedulePublishResults() {
+        final ScheduledFuture<?> future = this.future;
+        if (future != null) {
+            future.cancel(false);
+        }
+        this.future = scheduler.schedule(this::publishResults, 2, TimeUnit.SECONDS);
+    }
+
+    private void addComponent(ThingUID connectionBridge, String topic, HaID haID, AbstractChannelConfiguration config,
+            String thingID, ThingUID thingUID) {
+        // configurations are processed in parallel
+        synchronized (componentsPerThingID) {
             thingIDPerTopic.put(topic, thingUID);
 
             // We need to keep track of already found component topics for a specific thing
@@ -230,20 +286,17 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
                     DiscoveryResultBuilder.create(thingUID).withProperties(properties)
                             .withRepresentationProperty("deviceId").withBridge(connectionBridge)
                             .withLabel(config.getThingName() + " (" + componentNames + ")").build());
-        } catch (ConfigurationException e) {
-            logger.warn("HomeAssistant discover error: invalid configuration of thing {} component {}: {}",
-                    haID.objectID, haID.component, e.getMessage());
-        } catch (Exception e) {
-            logger.warn("HomeAssistant discover error: {}", e.getMessage());
         }
     }
 
     protected void publishResults() {
         Collection<DiscoveryResult> localResults;
 
-        localResults = new ArrayList<>(results.values());
-        results.clear();
-        componentsPerThingID.clear();
+        // The components are kept, so a changed configuration is added to the known components of its thing
+        synchronized (componentsPerThingID) {
+            localResults = new ArrayList<>(results.values());
+            results.clear();
+        }
         for (DiscoveryResult result : localResults) {
             final ThingTypeUID typeID = result.getThingTypeUID();
             ThingType type = typeProvider.derive(typeID, MqttBindingConstants.HOMEASSISTANT_MQTT_THING).build();
@@ -258,8 +311,19 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         if (!topic.endsWith("/config")) {
             return;
         }
-        if (thingIDPerTopic.containsKey(topic)) {
+        // processed like a configuration, so it is not overtaken by a configuration of the topic still in progress
+        configProcessor.process(getConfigKey(connectionBridge, topic), new byte[0], p -> {
+            removeComponent(topic);
+            return false;
+        });
+    }
+
+    private void removeComponent(String topic) {
+        synchronized (componentsPerThingID) {
             ThingUID thingUID = thingIDPerTopic.remove(topic);
+            if (thingUID == null) {
+                return;
+            }
             final String thingID = thingUID.getId();
 
             HaID haID = new HaID(topic);
@@ -267,6 +331,7 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
             Set<HaID> components = componentsPerThingID.getOrDefault(thingID, Collections.emptySet());
             components.remove(haID);
             if (components.isEmpty()) {
+                componentsPerThingID.remove(thingID);
                 thingRemoved(thingUID);
             }
         }
@@ -40,6 +40,7 @@ import org.openhab.binding.mqtt.homeassistant.internal.HandlerConfiguration;
 import org.openhab.binding.mqtt.homeassistant.internal.component.AbstractComponent;
 import org.openhab.binding.mqtt.homeassistant.internal.component.ComponentFactory;
 import org.openhab.binding.mqtt.homeassistant.internal.config.ChannelConfigurationTypeAdapterFactory;
+import org.openhab.binding.mqtt.homeassistant.internal.discovery.DiscoveryStatistics;
 import org.openhab.binding.mqtt.homeassistant.internal.exception.ConfigurationException;
 import org.openhab.core.io.transport.mqtt.MqttBrokerConnection;
 import org.openhab.core.thing.Channel;
@@ -243,6 +244,13 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
         return componentChannel.getState();
     }
 
+    /**
+     * Returns the statistics of the component configurations processed by the discovery of this thing.
+     */
+    public DiscoveryStatistics getDiscoveryStatistics() {
+        return discoverComponents.getStatistics();
+    }
+
     /**
      * Callback of {@link DiscoverComponents}. Add to a delayed batch processor.
      */
@@ -260,6 +268,8 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
     public void accept(List<AbstractComponent<?>> discoveredComponentsList) {
         MqttBrokerConnection connection = this.connection;
         if (connection == null) {
+            // the components are dropped, so their configurations have to be processed again
+            discoverComponents.resetProcessedConfigs();
             return;
         }
 
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal.discovery;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ConfigPayloadProcessor}
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class ConfigPayloadProcessorTest {
+    private static final String KEY = "homeassistant/sensor/node/config";
+    private static final String OTHER_KEY = "homeassistant/sensor/other/config";
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final ConfigPayloadProcessor processor = new ConfigPayloadProcessor(tasks::add);
+    private final List<String> processed = new ArrayList<>();
+
+    @Test
+    public void unchangedPayloadIsSkipped() {
+        processor.process(KEY, payload("a"), recorder(true));
+        runTasks();
+        processor.process(KEY, payload("a"), recorder(true));
+
+        assertThat(tasks.size(), is(0));
+        assertThat(processed, is(List.of("a")));
+        assertThat(processor.getStatistics().getReceived(), is(2L));
+        assertThat(processor.getStatistics().getSkipped(), is(1L));
+        assertThat(processor.getStatistics().getProcessed(), is(1L));
+    }
+
+    @Test
+    public void changedPayloadWithSameHashIsProcessed() {
+        byte[] first = new byte[] { 0, 31 };
+        byte[] second = new byte[] { 1, 0 };
+        assertThat(Arrays.hashCode(first), is(Arrays.hashCode(second)));
+        List<byte[]> payloads = new ArrayList<>();
+
+        processor.process(KEY, first, payload -> payloads.add(payload));
+        runTasks();
+        processor.process(KEY, second, payload -> payloads.add(payload));
+        runTasks();
+
+        assertThat(payloads, is(List.of(first, second)));
+    }
+
+    @Test
+    public void latestPendingPayloadOfKeyWins() {
+        processor.process(KEY, payload("a"), recorder(true));
+        processor.process(KEY, payload("b"), recorder(true));
+        processor.process(OTHER_KEY, payload("x"), recorder(true));
+        processor.process(KEY, payload("c"), recorder(true));
+
+        assertThat(tasks.size(), is(2));
+        assertThat(processor.isIdle(), is(false));
+        runTasks();
+        assertThat(processed, is(List.of("c", "x")));
+        assertThat(processor.isIdle(), is(true));
+    }
+
+    @Test
+    public void payloadReceivedWhileProcessingIsProcessedAfterwards() {
+        processor.process(KEY, payload("a"), payload -> {
+            processed.add(new String(payload, StandardCharsets.UTF_8));
+            // received on the MQTT thread while this payload is processed
+            processor.process(KEY, payload("b"), recorder(true));
+            processor.process(KEY, payload("c"), recorder(true));
+            return true;
+        });
+        runTasks();
+
+        assertThat(processed, is(List.of("a", "c")));
+        assertThat(processor.isIdle(), is(true));
+    }
+
+    @Test
+    public void payloadIsProcessedAgainAfterFailure() {
+        processor.process(KEY, payload("a"), recorder(false));
+        runTasks();
+        processor.process(KEY, payload("a"), payload -> {
+            processed.add("exception");
+            throw new IllegalArgumentException("invalid configuration");
+        });
+        runTasks();
+        processor.process(KEY, payload("a"), recorder(true));
+        runTasks();
+
+        assertThat(processed, is(List.of("a", "exception", "a")));
+        assertThat(processor.getStatistics().getSkipped(), is(0L));
+        assertThat(processor.isIdle(), is(true));
+    }
+
+    @Test
+    public void forgottenPayloadIsProcessedAgain() {
+        processor.process(KEY, payload("a"), recorder(true));
+        processor.process(OTHER_KEY, payload("x"), recorder(true));
+        runTasks();
+
+        processor.forget(KEY);
+        processor.process(KEY, payload("a"), recorder(true));
+        processor.process(OTHER_KEY, payload("x"), recorder(true));
+        runTasks();
+
+        assertThat(processed, is(List.of("a", "x", "a")));
+    }
+
+    @Test
+    public void payloadsAreProcessedAgainAfterReset() {
+        processor.process(KEY, payload("a"), recorder(true));
+        processor.process(OTHER_KEY, payload("x"), recorder(true));
+        runTasks();
+
+        processor.reset();
+        processor.process(KEY, payload("a"), recorder(true));
+        processor.process(OTHER_KEY, payload("x"), recorder(true));
+        runTasks();
+
+        assertThat(processed, is(List.of("a", "x", "a", "x")));
+    }
+
+    private Predicate<byte[]> recorder(boolean result) {
+        return payload -> {
+            processed.add(new String(payload, StandardCharsets.UTF_8));
+            return result;
+        };
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    private static byte[] payload(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -98,7 +98,8 @@ public class HomeAssistantThingHandlerTests extends AbstractHomeAssistantTests {
         var configTopic = "homeassistant/climate/0x847127fffe11dd6a_climate_zigbee2mqtt/config";
         thingHandler.discoverComponents.processMessage(configTopic,
                 getResourceAsByteArray("component/configTS0601ClimateThermostat.json"));
-        verify(thingHandler, times(1)).componentDiscovered(eq(new HaID(configTopic)), any(Climate.class));
+        verify(thingHandler, timeout(SUBSCRIBE_TIMEOUT).times(1)).componentDiscovered(eq(new HaID(configTopic)),
+                any(Climate.class));
 
         thingHandler.delayedProcessing.forceProcessNow();
         assertThat(haThing.getChannels().size(), CoreMatchers.is(6));
@@ -108,7 +109,7 @@ public class HomeAssistantThingHandlerTests extends AbstractHomeAssistantTests {
         configTopic = "homeassistant/switch/0x847127fffe11dd6a_auto_lock_zigbee2mqtt/config";
         thingHandler.discoverComponents.processMessage(configTopic,
                 getResourceAsByteArray("component/configTS0601AutoLock.json"));
-        verify(thingHandler, times(2)).componentDiscovered(any(), any());
+        verify(thingHandler, timeout(SUBSCRIBE_TIMEOUT).times(2)).componentDiscovered(any(), any());
         verify(thingHandler, times(1)).componentDiscovered(eq(new HaID(configTopic)), any(Switch.class));
 
         thingHandler.delayedProcessing.forceProcessNow();
@@ -132,6 +133,8 @@ public class HomeAssistantThingHandlerTests extends AbstractHomeAssistantTests {
         thingHandler.discoverComponents.processMessage(
                 "homeassistant/switch/0x847127fffe11dd6a_auto_lock_zigbee2mqtt/config",
                 getResourceAsByteArray("component/configTS0601AutoLock.json"));
+        // The configurations are processed on the discovery thread pool
+        verify(thingHandler, timeout(SUBSCRIBE_TIMEOUT).times(2)).componentDiscovered(any(), any());
         thingHandler.delayedProcessing.forceProcessNow();
         assertThat(haThing.getChannels().size(), CoreMatchers.is(7));
         verify(channelTypeProvider, times(7)).setChannelType(any(), any());
@@ -179,4 +182,19 @@ public class HomeAssistantThingHandlerTests extends AbstractHomeAssistantTests {
         thingHandler.delayedProcessing.forceProcessNow();
         assertThat(haThing.getChannels().size(), CoreMatchers.is(0));
     }
+
+    @Test
+    public void testUnchangedConfigIsSkipped() {
+        thingHandler.initialize();
+        var configTopic = "homeassistant/switch/0x847127fffe11dd6a_auto_lock_zigbee2mqtt/config";
+        var config = getResourceAsByteArray("component/configTS0601AutoLock.json");
+        thingHandler.discoverComponents.processMessage(configTopic, config);
+        verify(thingHandler, timeout(SUBSCRIBE_TIMEOUT).times(1)).componentDiscovered(any(), any(Switch.class));
+        waitForAssert(() -> assertThat(thingHandler.getDiscoveryStatistics().getProcessed(), CoreMatchers.is(1L)));
+
+        // A replayed retained configuration is not processed again
+        thingHandler.discoverComponents.processMessage(configTopic, config.clone());
+        assertThat(thingHandler.getDiscoveryStatistics().getSkipped(), CoreMatchers.is(1L));
+        verify(thingHandler, times(1)).componentDiscovered(any(), any());
+    }
 }
@@ -17,6 +17,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -50,7 +51,9 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
     private final Logger logger = LoggerFactory.getLogger(AbstractBrokerHandler.class);
 
     final Map<ChannelUID, PublishTriggerChannel> channelStateByChannelUID = new HashMap<>();
-    private final Map<String, @Nullable Map<MQTTTopicDiscoveryParticipant, @Nullable TopicSubscribe>> discoveryTopics = new HashMap<>();
+    // Concurrent maps, as discovery listeners are (un)registered by the handler factory while the handler is
+    // initialized or disposed
+    private final Map<String, @Nullable Map<MQTTTopicDiscoveryParticipant, @Nullable TopicSubscribe>> discoveryTopics = new ConcurrentHashMap<>();
 
     protected @Nullable MqttBrokerConnection connection;
     protected CompletableFuture<MqttBrokerConnection> connectionFuture = new CompletableFuture<>();
@@ -193,13 +196,15 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
      * @param topic the topic (wildcards supported)
      */
     public final void registerDiscoveryListener(MQTTTopicDiscoveryParticipant listener, String topic) {
-        Map<MQTTTopicDiscoveryParticipant, @Nullable TopicSubscribe> topicListeners = discoveryTopics
-                .computeIfAbsent(topic, t -> new HashMap<>());
-        topicListeners.compute(listener, (k, v) -> {
-            if (v != null) {
+        // registered within compute of the topic, so a concurrent unregistration can't drop the listeners of the topic
+        discoveryTopics.compute(topic, (t, v) -> {
+            Map<MQTTTopicDiscoveryParticipant, @Nullable TopicSubscribe> topicListeners = v != null ? v
+                    : new ConcurrentHashMap<>();
+            TopicSubscribe oldTopicSubscribe = topicListeners.get(listener);
+            if (oldTopicSubscribe != null) {
                 logger.warn("Duplicate subscription for {} to discovery topic {} on broker {}. Check discovery logic!",
                         listener, topic, thing.getUID());
-                v.stop();
+                oldTopicSubscribe.stop();
             }
 
             TopicSubscribe topicSubscribe = new TopicSubscribe(connection, topic, listener, thing.getUID());
@@ -215,7 +220,8 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
                     return null;
                 });
             }
-            return topicSubscribe;
+            topicListeners.put(listener, topicSubscribe);
+            return topicListeners;
         });
     }
 
@@ -12,11 +12,13 @@
  */
 package org.openhab.binding.mqtt.internal;
 
-import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 
@@ -35,7 +37,10 @@ import org.openhab.binding.mqtt.handler.BrokerHandler;
 import org.openhab.binding.mqtt.handler.BrokerHandlerEx;
 import org.openhab.binding.mqtt.handler.MqttBrokerConnectionEx;
 import org.openhab.core.config.core.Configuration;
+import org.openhab.core.io.transport.mqtt.MqttBrokerConnection;
+import org.openhab.core.io.transport.mqtt.internal.Subscription;
 import org.openhab.core.thing.Bridge;
+import org.openhab.core.thing.ThingUID;
 import org.openhab.core.thing.binding.ThingHandlerCallback;
 
 /**
@@ -47,6 +52,7 @@ import org.openhab.core.thing.binding.ThingHandlerCallback;
 @MockitoSettings(strictness = Strictness.LENIENT)
 @NonNullByDefault
 public class MQTTTopicDiscoveryServiceTest {
+    private static final int RETAINED_TOPICS = 20000;
 
     private @Mock @NonNullByDefault({}) Bridge thingMock;
     private @Mock @NonNullByDefault({}) ThingHandlerCallback callbackMock;
@@ -141,4 +147,46 @@ public class MQTTTopicDiscoveryServiceTest {
         connection.getSubscribers().get("topic").messageArrived("topic", bytes, false);
         verify(listenerMock).topicVanished(eq(thingMock.getUID()), eq(connection), eq("topic"));
     }
+
+    @Test
+    public void replayRetainedTopics() {
+        handler.initialize();
+        BrokerHandlerEx.verifyCreateBrokerConnection(handler, 1);
+        subject.createdHandler(handler);
+
+        CountingParticipant configs = new CountingParticipant();
+        CountingParticipant all = new CountingParticipant();
+        subject.subscribe(configs, "homeassistant/+/+/config");
+        subject.subscribe(all, "homeassistant/#");
+        Subscription configSubscription = connection.getSubscribers().get("homeassistant/+/+/config");
+        Subscription allSubscription = connection.getSubscribers().get("homeassistant/#");
+
+        // The MQTT client matches the topics against the topic filters and delivers a message to every matching
+        // subscription, this is simulated here. So this test checks the delivery to overlapping subscriptions, not the
+        // matching or its speed.
+        final byte[] bytes = "{}".getBytes();
+        for (int i = 0; i < RETAINED_TOPICS; i++) {
+            String topic = "homeassistant/sensor/node" + i + "/config";
+            configSubscription.messageArrived(topic, bytes, true);
+            allSubscription.messageArrived(topic, bytes, true);
+        }
+
+        assertThat(configs.topics.size(), is(RETAINED_TOPICS));
+        assertThat(all.topics.size(), is(RETAINED_TOPICS));
+    }
+
+    private static class CountingParticipant implements MQTTTopicDiscoveryParticipant {
+        final Set<String> topics = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public void receivedMessage(ThingUID thingUID, MqttBrokerConnection connection, String topic,
+                byte[] payload) {
+            topics.add(topic);
+        }
+
+        @Override
+        public void topicVanished(ThingUID thingUID, MqttBrokerConnection connection, String topic) {
+            topics.remove(topic);
+        }
+    }
 }
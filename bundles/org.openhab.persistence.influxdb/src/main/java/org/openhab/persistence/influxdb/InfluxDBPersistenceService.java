@@ -12,6 +12,8 @@
  */
 package org.openhab.persistence.influxdb;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Collections;
@@ -23,10 +25,12 @@ import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.OpenHAB;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemRegistry;
 import org.openhab.core.items.MetadataRegistry;
+import org.openhab.core.library.items.NumberItem;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.PersistenceItemInfo;
@@ -40,6 +44,7 @@ import org.openhab.persistence.influxdb.internal.InfluxDBHistoricItem;
 import org.openhab.persistence.influxdb.internal.InfluxDBPersistentItemInfo;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
 import org.openhab.persistence.influxdb.internal.InfluxDBStateConvertUtils;
+import org.openhab.persistence.influxdb.internal.InfluxDBWriteBuffer;
 import org.openhab.persistence.influxdb.internal.InfluxPoint;
 import org.openhab.persistence.influxdb.internal.InfluxRow;
 import org.openhab.persistence.influxdb.internal.ItemToStorePointCreator;
@@ -84,6 +89,10 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
 
     protected static final String CONFIG_URI = "persistence:influxdb";
 
+    // points which couldn't be written while the database was not reachable
+    private static final Path SPILL_FILE = Path.of(OpenHAB.getUserDataFolder(), "persistence", "influxdb",
+            "write-buffer.lp");
+
     // External dependencies
     private final ItemRegistry itemRegistry;
     private final MetadataRegistry metadataRegistry;
@@ -94,6 +103,7 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
     // Relax rules because can only be null if component is not active
     private @NonNullByDefault({}) ItemToStorePointCreator itemToStorePointCreator;
     private @NonNullByDefault({}) InfluxDBRepository influxDBRepository;
+    private @NonNullByDefault({}) InfluxDBWriteBuffer writeBuffer;
 
     @Activate
     public InfluxDBPersistenceService(final @Reference ItemRegistry itemRegistry,
@@ -113,6 +123,9 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
             itemToStorePointCreator = new ItemToStorePointCreator(configuration, metadataRegistry);
             influxDBRepository = createInfluxDBRepository();
             influxDBRepository.connect();
+            writeBuffer = new InfluxDBWriteBuffer(influxDBRepository, configuration.getWriteBatchSize(),
+                    configuration.getWriteFlushInterval(), SPILL_FILE,
+                    configuration.getWriteBufferFileMaxSize() * 1024L * 1024L);
         } else {
             logger.error("Cannot load configuration, persistence service wont work");
         }
@@ -131,6 +144,10 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
     @Deactivate
     public void deactivate() {
         logger.debug("InfluxDB persistence service deactivated");
+        if (writeBuffer != null) {
+            writeBuffer.close();
+            writeBuffer = null;
+        }
         if (influxDBRepository != null) {
             influxDBRepository.disconnect();
             influxDBRepository = null;
@@ -206,7 +223,7 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
             InfluxPoint point = itemToStorePointCreator.convert(item, alias);
             if (point != null) {
                 logger.trace("Storing item {} in InfluxDB point {}", item, point);
-                influxDBRepository.write(point);
+                writeBuffer.add(point);
             } else {
                 logger.trace("Ignoring item {} as is cannot be converted to a InfluxDB point", item);
             }
@@ -225,8 +242,14 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
                     filter.getItemName(), filter.getOrdering().toString(), filter.getState(), filter.getOperator(),
                     filter.getBeginDate(), filter.getEndDate(), filter.getPageSize(), filter.getPageNumber());
 
-            String query = RepositoryFactory.createQueryCreator(configuration, metadataRegistry).createQuery(filter,
-                    configuration.getRetentionPolicy());
+            // make points stored before visible to the query, without waiting for spilled points
+            writeBuffer.flushBeforeQuery();
+            FilterCriteriaQueryCreator queryCreator = RepositoryFactory.createQueryCreator(configuration,
+                    metadataRegistry);
+            Duration window = getAggregationWindow(filter);
+            String query = window.isZero() ? queryCreator.createQuery(filter, configuration.getRetentionPolicy())
+                    : queryCreator.createAggregatedQuery(filter, configuration.getRetentionPolicy(), window,
+                            configuration.getAggregationFunction());
             logger.trace("Query {}", query);
             List<InfluxRow> results = influxDBRepository.query(query);
             return results.stream().map(this::mapRow2HistoricItem).collect(Collectors.toList());
@@ -236,6 +259,35 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
         }
     }
 
+    /**
+     * Returns the window to aggregate the values of a query in, so that at most the configured number of points is
+     * returned.
+     *
+     * Persistence extensions like averageSince or sumSince query a time range without page size just like charts, so
+     * they cannot be told apart. Aggregation is enabled explicitly by the configured number of points, and only
+     * applies to unpaged queries of a {@link NumberItem} with begin and end date spanning at least the configured
+     * minimum range. Shorter ranges, e.g. of persistence extensions looking back a few hours, and paged queries get
+     * the stored values.
+     *
+     * @return the window or {@link Duration#ZERO} if the stored values must be returned
+     */
+    Duration getAggregationWindow(FilterCriteria filter) {
+        int maxPoints = configuration.getAggregationMaxPoints();
+        ZonedDateTime beginDate = filter.getBeginDate();
+        ZonedDateTime endDate = filter.getEndDate();
+        String itemName = filter.getItemName();
+        if (maxPoints <= 0 || beginDate == null || endDate == null || itemName == null
+                || filter.getPageSize() != Integer.MAX_VALUE || filter.getPageNumber() != 0 || filter.getState() != null
+                || !(itemRegistry.get(itemName) instanceof NumberItem)) {
+            return Duration.ZERO;
+        }
+        long seconds = Duration.between(beginDate, endDate).getSeconds();
+        if (seconds < Duration.ofHours(configuration.getAggregationMinRange()).getSeconds() || seconds <= maxPoints) {
+            return Duration.ZERO;
+        }
+        return Duration.ofSeconds((seconds + maxPoints - 1) / maxPoints);
+    }
+
     private HistoricItem mapRow2HistoricItem(InfluxRow row) {
         State state = InfluxDBStateConvertUtils.objectToState(row.getValue(), row.getItemName(), itemRegistry);
         return new InfluxDBHistoricItem(row.getItemName(), state,
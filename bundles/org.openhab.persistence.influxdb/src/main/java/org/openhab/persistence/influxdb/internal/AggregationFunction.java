@@ -0,0 +1,29 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Function used to combine the values of one window of an aggregated query, the names are the same in InfluxQL and
+ * Flux
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public enum AggregationFunction {
+    MEAN,
+    MIN,
+    MAX,
+    LAST
+}
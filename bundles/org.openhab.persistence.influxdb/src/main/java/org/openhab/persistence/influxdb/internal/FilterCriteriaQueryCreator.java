@@ -12,6 +12,8 @@
  */
 package org.openhab.persistence.influxdb.internal;
 
+import java.time.Duration;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.core.persistence.FilterCriteria;
 
@@ -31,6 +33,19 @@ public interface FilterCriteriaQueryCreator {
      */
     String createQuery(FilterCriteria criteria, String retentionPolicy);
 
+    /**
+     * Create query from {@link FilterCriteria} which returns one aggregated value per time window instead of all
+     * stored values. The state filter of the criteria is not supported by aggregated queries.
+     *
+     * @param criteria Criteria to create query from
+     * @param retentionPolicy Name of the retentionPolicy/bucket to use in query
+     * @param window Duration of the time windows, must be at least one second
+     * @param function Function used to aggregate the values of one window
+     * @return Created query as an String
+     */
+    String createAggregatedQuery(FilterCriteria criteria, String retentionPolicy, Duration window,
+            AggregationFunction function);
+
     default String getOperationSymbol(FilterCriteria.Operator operator, InfluxDBVersion version) {
         switch (operator) {
             case EQ:
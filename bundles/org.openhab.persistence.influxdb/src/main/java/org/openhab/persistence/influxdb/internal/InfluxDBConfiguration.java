@@ -40,6 +40,12 @@ public class InfluxDBConfiguration {
     public static final String ADD_CATEGORY_TAG_PARAM = "addCategoryTag";
     public static final String ADD_LABEL_TAG_PARAM = "addLabelTag";
     public static final String ADD_TYPE_TAG_PARAM = "addTypeTag";
+    public static final String WRITE_BATCH_SIZE_PARAM = "writeBatchSize";
+    public static final String WRITE_FLUSH_INTERVAL_PARAM = "writeFlushInterval";
+    public static final String WRITE_BUFFER_FILE_MAX_SIZE_PARAM = "writeBufferFileMaxSize";
+    public static final String AGGREGATION_MAX_POINTS_PARAM = "aggregationMaxPoints";
+    public static final String AGGREGATION_MIN_RANGE_PARAM = "aggregationMinRange";
+    public static final String AGGREGATION_FUNCTION_PARAM = "aggregationFunction";
     public static InfluxDBConfiguration NO_CONFIGURATION = new InfluxDBConfiguration(Collections.emptyMap());
     private final Logger logger = LoggerFactory.getLogger(InfluxDBConfiguration.class);
     private final String url;
@@ -55,6 +61,14 @@ public class InfluxDBConfiguration {
     private final boolean addTypeTag;
     private final boolean addLabelTag;
 
+    private final int writeBatchSize;
+    private final int writeFlushInterval;
+    private final int writeBufferFileMaxSize;
+
+    private final int aggregationMaxPoints;
+    private final int aggregationMinRange;
+    private final AggregationFunction aggregationFunction;
+
     public InfluxDBConfiguration(Map<String, Object> config) {
         url = (String) config.getOrDefault(URL_PARAM, "http://127.0.0.1:8086");
         user = (String) config.getOrDefault(USER_PARAM, "openhab");
@@ -68,6 +82,15 @@ public class InfluxDBConfiguration {
         addCategoryTag = getConfigBooleanValue(config, ADD_CATEGORY_TAG_PARAM, false);
         addLabelTag = getConfigBooleanValue(config, ADD_LABEL_TAG_PARAM, false);
         addTypeTag = getConfigBooleanValue(config, ADD_TYPE_TAG_PARAM, false);
+
+        writeBatchSize = getConfigIntegerValue(config, WRITE_BATCH_SIZE_PARAM, 1000, 1);
+        writeFlushInterval = getConfigIntegerValue(config, WRITE_FLUSH_INTERVAL_PARAM, 1000, 1);
+        writeBufferFileMaxSize = getConfigIntegerValue(config, WRITE_BUFFER_FILE_MAX_SIZE_PARAM, 100, 1);
+
+        aggregationMaxPoints = getConfigIntegerValue(config, AGGREGATION_MAX_POINTS_PARAM, 0, 0);
+        aggregationMinRange = getConfigIntegerValue(config, AGGREGATION_MIN_RANGE_PARAM, 24, 0);
+        aggregationFunction = parseAggregationFunction(
+                (String) config.getOrDefault(AGGREGATION_FUNCTION_PARAM, AggregationFunction.MEAN.name()));
     }
 
     private static boolean getConfigBooleanValue(Map<String, Object> config, String key, boolean defaultValue) {
@@ -81,6 +104,36 @@ public class InfluxDBConfiguration {
         }
     }
 
+    private int getConfigIntegerValue(Map<String, Object> config, String key, int defaultValue, int minValue) {
+        Object object = config.get(key);
+        try {
+            int value;
+            if (object instanceof Number) {
+                value = ((Number) object).intValue();
+            } else if (object instanceof String && !((String) object).isBlank()) {
+                value = Integer.parseInt(((String) object).trim());
+            } else {
+                return defaultValue;
+            }
+            if (value >= minValue) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // logged below
+        }
+        logger.warn("Invalid {} {}, using {}", key, object, defaultValue);
+        return defaultValue;
+    }
+
+    private AggregationFunction parseAggregationFunction(String value) {
+        try {
+            return AggregationFunction.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid aggregation function {}, using {}", value, AggregationFunction.MEAN);
+            return AggregationFunction.MEAN;
+        }
+    }
+
     private InfluxDBVersion parseInfluxVersion(@Nullable String value) {
         try {
             return Optional.ofNullable(value).map(InfluxDBVersion::valueOf).orElse(InfluxDBVersion.UNKNOWN);
@@ -157,6 +210,36 @@ public class InfluxDBConfiguration {
         return addLabelTag;
     }
 
+    public int getWriteBatchSize() {
+        return writeBatchSize;
+    }
+
+    public int getWriteFlushInterval() {
+        return writeFlushInterval;
+    }
+
+    /**
+     * @return the maximum size of the write buffer file in megabytes
+     */
+    public int getWriteBufferFileMaxSize() {
+        return writeBufferFileMaxSize;
+    }
+
+    public int getAggregationMaxPoints() {
+        return aggregationMaxPoints;
+    }
+
+    /**
+     * @return the minimum time range in hours of aggregated queries
+     */
+    public int getAggregationMinRange() {
+        return aggregationMinRange;
+    }
+
+    public AggregationFunction getAggregationFunction() {
+        return aggregationFunction;
+    }
+
     public String getUser() {
         return user;
     }
@@ -175,7 +258,10 @@ public class InfluxDBConfiguration {
                 + password.length() + " chars" + '\'' + ", token='" + token.length() + " chars" + '\''
                 + ", databaseName='" + databaseName + '\'' + ", retentionPolicy='" + retentionPolicy + '\''
                 + ", version=" + version + ", replaceUnderscore=" + replaceUnderscore + ", addCategoryTag="
-                + addCategoryTag + ", addTypeTag=" + addTypeTag + ", addLabelTag=" + addLabelTag + '}';
+                + addCategoryTag + ", addTypeTag=" + addTypeTag + ", addLabelTag=" + addLabelTag + ", writeBatchSize="
+                + writeBatchSize + ", writeFlushInterval=" + writeFlushInterval + ", writeBufferFileMaxSize="
+                + writeBufferFileMaxSize + ", aggregationMaxPoints=" + aggregationMaxPoints + ", aggregationMinRange="
+                + aggregationMinRange + ", aggregationFunction=" + aggregationFunction + '}';
         return sb;
     }
 
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.FIELD_VALUE_NAME;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Serializes {@link InfluxPoint}s to the InfluxDB line protocol with millisecond precision, which is understood by
+ * InfluxDB 1.X and 2.X
+ *
+ * @see <a href="https://docs.influxdata.com/influxdb/v2.0/reference/syntax/line-protocol/">Line protocol</a>
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDBLineProtocol {
+
+    private InfluxDBLineProtocol() {
+        // utility class
+    }
+
+    /**
+     * Converts a point to one line of line protocol
+     *
+     * @param point Point to convert
+     * @return the line or null if the point has no value which can be stored
+     */
+    public static @Nullable String toLineProtocol(InfluxPoint point) {
+        String fieldValue = formatFieldValue(point.getValue());
+        if (fieldValue == null) {
+            return null;
+        }
+        StringBuilder line = new StringBuilder(64);
+        escape(line, point.getMeasurementName(), false);
+        // sorted tags are recommended by InfluxDB for best write performance
+        for (Map.Entry<String, String> tag : new TreeMap<>(point.getTags()).entrySet()) {
+            if (!tag.getKey().isEmpty() && !tag.getValue().isEmpty()) {
+                line.append(',');
+                escape(line, tag.getKey(), true);
+                line.append('=');
+                escape(line, tag.getValue(), true);
+            }
+        }
+        line.append(' ').append(FIELD_VALUE_NAME).append('=').append(fieldValue);
+        line.append(' ').append(point.getTime().toEpochMilli());
+        return line.toString();
+    }
+
+    private static @Nullable String formatFieldValue(@Nullable Object value) {
+        if (value instanceof String) {
+            return quote((String) value);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte || value instanceof BigInteger) {
+            return value + "i";
+        } else if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        } else if (value instanceof Double || value instanceof Float) {
+            double doubleValue = ((Number) value).doubleValue();
+            return Double.isFinite(doubleValue) ? BigDecimal.valueOf(doubleValue).toPlainString() : null;
+        } else if (value instanceof Number) {
+            return value.toString();
+        } else if (value instanceof Boolean) {
+            return value.toString();
+        } else if (value == null) {
+            return null;
+        } else {
+            throw new UnnexpectedConditionException("Not expected value type");
+        }
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            // like the client libraries only quotes and backslashes are escaped, line breaks are kept
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static void escape(StringBuilder target, String value, boolean escapeEquals) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == ' ' || (escapeEquals && c == '=')) {
+                target.append('\\').append(c);
+            } else if (c == '\n') {
+                target.append("\\n");
+            } else if (c == '\r') {
+                target.append("\\r");
+            } else if (c == '\t') {
+                target.append("\\t");
+            } else {
+                target.append(c);
+            }
+        }
+    }
+}
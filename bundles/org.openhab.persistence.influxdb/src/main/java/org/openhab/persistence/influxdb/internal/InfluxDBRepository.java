@@ -66,9 +66,12 @@ public interface InfluxDBRepository {
     List<InfluxRow> query(String query);
 
     /**
-     * Write point to database
+     * Write records in line protocol with millisecond precision to database
      *
-     * @param influxPoint Point to write
+     * Records rejected by the server are logged and dropped, they won't be accepted when retried.
+     *
+     * @param records Records to write, see {@link InfluxDBLineProtocol}
+     * @return False if the server couldn't be reached and the records should be written again later, otherwise true
      */
-    void write(InfluxPoint influxPoint);
+    boolean write(List<String> records);
 }
@@ -0,0 +1,358 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.common.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write pipeline in front of an {@link InfluxDBRepository}.
+ *
+ * Points are serialized to line protocol once when they are added and written in batches, either when the batch size
+ * is reached or after the flush interval. If the server can't be reached the records are appended to a local spill
+ * file and further writes are retried with an exponential backoff. Once the server is reachable again the spill file
+ * is replayed in order before any new records are written. The spill file is limited in size, if it grows larger the
+ * oldest records are dropped.
+ *
+ * Records may contain line breaks within string values, so they are escaped in the spill file.
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDBWriteBuffer {
+    // number of batches which can be queued before the adding thread has to flush the queue itself
+    private static final int QUEUED_BATCHES = 10;
+    private static final long MAX_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final Logger logger = LoggerFactory.getLogger(InfluxDBWriteBuffer.class);
+
+    private final InfluxDBRepository repository;
+    private final int batchSize;
+    private final long flushInterval;
+    private final Path spillFile;
+    private final long maxSpillFileBytes;
+    private final BlockingQueue<String> queue;
+    private final ScheduledExecutorService scheduler = Executors
+            .newSingleThreadScheduledExecutor(new NamedThreadFactory("influxdb-writer"));
+    private final AtomicBoolean flushPending = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // guarded by flushLock
+    private long backoffMillis;
+    private long retryAt;
+
+    public InfluxDBWriteBuffer(InfluxDBRepository repository, int batchSize, int flushInterval, Path spillFile,
+            long maxSpillFileBytes) {
+        this.repository = repository;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.spillFile = spillFile;
+        this.maxSpillFileBytes = maxSpillFileBytes;
+        this.queue = new ArrayBlockingQueue<>(batchSize * QUEUED_BATCHES);
+        scheduler.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Adds a point to the buffer
+     *
+     * @param point Point to write
+     */
+    public void add(InfluxPoint point) {
+        String record = InfluxDBLineProtocol.toLineProtocol(point);
+        if (record == null) {
+            logger.debug("Ignoring point {} because its value can't be written", point);
+            return;
+        }
+        while (!queue.offer(record)) {
+            logger.debug("Write buffer is full, flushing on the calling thread");
+            flush();
+        }
+        if (queue.size() >= batchSize) {
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Writes the spilled and queued records if the server is expected to be reachable, otherwise the queued records
+     * are spilled
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<String> pending = new ArrayList<>(queue.size());
+            queue.drainTo(pending);
+
+            if (System.currentTimeMillis() < retryAt) {
+                spill(pending);
+                return;
+            }
+            if (!replaySpillFile()) {
+                spill(pending);
+                scheduleRetry();
+                return;
+            }
+            for (int from = 0; from < pending.size(); from += batchSize) {
+                List<String> batch = pending.subList(from, Math.min(from + batchSize, pending.size()));
+                if (!write(batch)) {
+                    spill(pending.subList(from, pending.size()));
+                    scheduleRetry();
+                    return;
+                }
+            }
+            if (backoffMillis > 0) {
+                logger.info("InfluxDB is reachable again, writes are resumed");
+                backoffMillis = 0;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the queued records before a query, so it sees the points stored before. The caller is never blocked by
+     * replaying the spill file or by an unreachable server: if a flush is in progress, records are spilled or the
+     * server is waited for, the records are written in the background instead.
+     */
+    public void flushBeforeQuery() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            if (System.currentTimeMillis() < retryAt || Files.exists(spillFile)) {
+                scheduleFlush();
+            } else {
+                flush();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Stops the periodic flushing and writes or spills all remaining records
+     */
+    public void close() {
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("InfluxDB writer did not terminate in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void scheduleFlush() {
+        if (!scheduler.isShutdown() && flushPending.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                flushPending.set(false);
+                flush();
+            });
+        }
+    }
+
+    private boolean write(List<String> batch) {
+        try {
+            return repository.write(batch);
+        } catch (RuntimeException e) {
+            logger.debug("Writing {} records failed: {}", batch.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void scheduleRetry() {
+        backoffMillis = backoffMillis == 0 ? flushInterval : Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+        retryAt = System.currentTimeMillis() + backoffMillis;
+        logger.warn("InfluxDB is not reachable, records are spilled to {} and writing is retried in {} ms", spillFile,
+                backoffMillis);
+    }
+
+    private void spill(List<String> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(spillFile.toAbsolutePath().getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (String record : records) {
+                    writer.write(encode(record));
+                    writer.newLine();
+                }
+            }
+            logger.debug("Spilled {} records to {}", records.size(), spillFile);
+        } catch (IOException e) {
+            logger.warn("Failed to spill {} records to {}, they are lost: {}", records.size(), spillFile,
+                    e.getMessage());
+            return;
+        }
+        limitSpillFile();
+    }
+
+    /**
+     * Drops the oldest records of the spill file if it is larger than allowed. The file is shrunk below the limit, so
+     * it is not rewritten by every spill while the server is unreachable.
+     */
+    private void limitSpillFile() {
+        try {
+            long size = Files.size(spillFile);
+            if (size <= maxSpillFileBytes) {
+                return;
+            }
+            long bytesToDrop = size - maxSpillFileBytes * 9 / 10;
+            Path remainingFile = spillFile.resolveSibling(spillFile.getFileName() + ".tmp");
+            int dropped = 0;
+            try (BufferedReader reader = Files.newBufferedReader(spillFile, StandardCharsets.UTF_8)) {
+                long droppedBytes = 0;
+                String line;
+                while (droppedBytes < bytesToDrop && (line = reader.readLine()) != null) {
+                    droppedBytes += line.getBytes(StandardCharsets.UTF_8).length + System.lineSeparator().length();
+                    dropped++;
+                }
+                copyRemaining(List.of(), reader, remainingFile);
+            }
+            Files.move(remainingFile, spillFile, StandardCopyOption.REPLACE_EXISTING);
+            logger.warn("Spill file {} exceeded {} bytes, dropped the {} oldest records", spillFile,
+                    maxSpillFileBytes, dropped);
+        } catch (IOException e) {
+            logger.warn("Failed to limit the size of spill file {}: {}", spillFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the records of the spill file in order and removes the file when all of them were written
+     *
+     * @return true if there are no spilled records left, otherwise false
+     */
+    private boolean replaySpillFile() {
+        if (!Files.exists(spillFile)) {
+            return true;
+        }
+        Path remainingFile = spillFile.resolveSibling(spillFile.getFileName() + ".tmp");
+        int replayed = 0;
+        boolean interrupted = false;
+        try (BufferedReader reader = Files.newBufferedReader(spillFile, StandardCharsets.UTF_8)) {
+            List<String> batch = new ArrayList<>(batchSize);
+            boolean endOfFile = false;
+            while (!endOfFile && !interrupted) {
+                String line = reader.readLine();
+                if (line == null) {
+                    endOfFile = true;
+                } else if (!line.isEmpty()) {
+                    batch.add(decode(line));
+                }
+                if (!batch.isEmpty() && (batch.size() >= batchSize || endOfFile)) {
+                    if (write(batch)) {
+                        replayed += batch.size();
+                        batch.clear();
+                    } else {
+                        copyRemaining(batch, reader, remainingFile);
+                        interrupted = true;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to replay spilled records from {}: {}", spillFile, e.getMessage());
+            return false;
+        }
+        try {
+            if (interrupted) {
+                // the spill file is replaced after it has been closed, records already written are dropped
+                Files.move(remainingFile, spillFile, StandardCopyOption.REPLACE_EXISTING);
+                logger.debug("Replayed {} spilled records before InfluxDB became unreachable", replayed);
+                return false;
+            }
+            Files.delete(spillFile);
+        } catch (IOException e) {
+            logger.warn("Failed to update spill file {}: {}", spillFile, e.getMessage());
+            return false;
+        }
+        logger.info("Replayed {} spilled records to InfluxDB", replayed);
+        return true;
+    }
+
+    private void copyRemaining(List<String> batch, BufferedReader reader, Path remainingFile) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(remainingFile, StandardCharsets.UTF_8)) {
+            for (String record : batch) {
+                writer.write(encode(record));
+                writer.newLine();
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Escapes the line breaks of a record, so every record is stored in one line of the spill file
+     */
+    static String encode(String record) {
+        if (record.indexOf('\\') < 0 && record.indexOf('\n') < 0 && record.indexOf('\r') < 0) {
+            return record;
+        }
+        StringBuilder encoded = new StringBuilder(record.length() + 16);
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (c == '\\') {
+                encoded.append("\\\\");
+            } else if (c == '\n') {
+                encoded.append("\\n");
+            } else if (c == '\r') {
+                encoded.append("\\r");
+            } else {
+                encoded.append(c);
+            }
+        }
+        return encoded.toString();
+    }
+
+    static String decode(String line) {
+        if (line.indexOf('\\') < 0) {
+            return line;
+        }
+        StringBuilder decoded = new StringBuilder(line.length());
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length()) {
+                char next = line.charAt(++i);
+                decoded.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                decoded.append(c);
+            }
+        }
+        return decoded.toString();
+    }
+}
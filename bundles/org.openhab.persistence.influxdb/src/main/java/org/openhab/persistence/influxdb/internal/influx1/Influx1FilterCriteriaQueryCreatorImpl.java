@@ -16,6 +16,8 @@ import static org.influxdb.querybuilder.BuiltQuery.QueryBuilder.*;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.*;
 import static org.openhab.persistence.influxdb.internal.InfluxDBStateConvertUtils.stateToObject;
 
+import java.time.Duration;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.influxdb.dto.Query;
@@ -25,6 +27,7 @@ import org.influxdb.querybuilder.Where;
 import org.influxdb.querybuilder.clauses.SimpleClause;
 import org.openhab.core.items.MetadataRegistry;
 import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.persistence.influxdb.internal.AggregationFunction;
 import org.openhab.persistence.influxdb.internal.FilterCriteriaQueryCreator;
 import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBMetadataUtils;
@@ -34,6 +37,7 @@ import org.openhab.persistence.influxdb.internal.InfluxDBVersion;
  * Implementation of {@link FilterCriteriaQueryCreator} for InfluxDB 1.0
  *
  * @author Joan Pujol Espinar - Initial contribution
+ * @author Agent - Build aggregated queries with the query builder
  */
 @NonNullByDefault
 public class Influx1FilterCriteriaQueryCreatorImpl implements FilterCriteriaQueryCreator {
@@ -98,6 +102,43 @@ public class Influx1FilterCriteriaQueryCreatorImpl implements FilterCriteriaQuer
         return query.getCommand();
     }
 
+    @Override
+    public String createAggregatedQuery(FilterCriteria criteria, String retentionPolicy, Duration window,
+            AggregationFunction function) {
+        final String itemName = criteria.getItemName();
+        final String tableName = calculateTableName(itemName);
+
+        Select select = select()
+                .raw(function.name() + "(\"" + COLUMN_VALUE_NAME_V1 + "\") AS \"" + COLUMN_VALUE_NAME_V1 + "\"")
+                .fromRaw(null, fullQualifiedTableName(retentionPolicy, tableName, itemName != null));
+
+        Where where = select.where();
+        if (itemName != null && !tableName.equals(itemName)) {
+            where = where.and(BuiltQuery.QueryBuilder.eq(TAG_ITEM_NAME, itemName));
+        }
+        if (criteria.getBeginDate() != null) {
+            where = where.and(
+                    BuiltQuery.QueryBuilder.gte(COLUMN_TIME_NAME_V1, criteria.getBeginDate().toInstant().toString()));
+        }
+        if (criteria.getEndDate() != null) {
+            where = where.and(
+                    BuiltQuery.QueryBuilder.lte(COLUMN_TIME_NAME_V1, criteria.getEndDate().toInstant().toString()));
+        }
+
+        // grouping by the item tag returns it as series tag, windows without values are omitted
+        select = select.groupBy(raw("time(" + Math.max(window.getSeconds(), 1) + "s)"), "\"" + TAG_ITEM_NAME + "\"")
+                .fill("none");
+
+        if (criteria.getOrdering() == FilterCriteria.Ordering.DESCENDING) {
+            select = select.orderBy(desc());
+        } else if (criteria.getOrdering() == FilterCriteria.Ordering.ASCENDING) {
+            select = select.orderBy(asc());
+        }
+
+        final Query query = (Query) select;
+        return query.getCommand();
+    }
+
     private String calculateTableName(@Nullable String itemName) {
         if (itemName == null) {
             return "/.*/";
@@ -17,11 +17,13 @@ import static com.influxdb.query.dsl.functions.restriction.Restrictions.tag;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.*;
 import static org.openhab.persistence.influxdb.internal.InfluxDBStateConvertUtils.stateToObject;
 
+import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.core.items.MetadataRegistry;
 import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.persistence.influxdb.internal.AggregationFunction;
 import org.openhab.persistence.influxdb.internal.FilterCriteriaQueryCreator;
 import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBMetadataUtils;
@@ -50,6 +52,49 @@ public class Influx2FilterCriteriaQueryCreatorImpl implements FilterCriteriaQuer
 
     @Override
     public String createQuery(FilterCriteria criteria, String retentionPolicy) {
+        Flux flux = createRangeQuery(criteria, retentionPolicy);
+
+        String itemName = criteria.getItemName();
+        if (itemName != null) {
+            flux = keepItemColumns(flux, itemName);
+        }
+
+        if (criteria.getState() != null && criteria.getOperator() != null) {
+            Restrictions restrictions = Restrictions.and(Restrictions.field().equal(FIELD_VALUE_NAME),
+                    Restrictions.value().custom(stateToObject(criteria.getState()),
+                            getOperationSymbol(criteria.getOperator(), InfluxDBVersion.V2)));
+            flux = flux.filter(restrictions);
+        }
+
+        flux = applyOrderingAndPageSize(criteria, flux);
+
+        return flux.toString();
+    }
+
+    @Override
+    public String createAggregatedQuery(FilterCriteria criteria, String retentionPolicy, Duration window,
+            AggregationFunction function) {
+        Flux flux = createRangeQuery(criteria, retentionPolicy);
+
+        // aggregateWindow needs the _start and _stop columns, so columns are only dropped afterwards
+        flux = flux.filter(Restrictions.field().equal(FIELD_VALUE_NAME));
+        flux = flux.expression("aggregateWindow(every: " + Math.max(window.getSeconds(), 1) + "s, fn: "
+                + function.name().toLowerCase() + ", timeSrc: \"_start\", createEmpty: false)");
+
+        String itemName = criteria.getItemName();
+        if (itemName != null) {
+            flux = keepItemColumns(flux, itemName);
+        }
+
+        if (criteria.getOrdering() != null) {
+            boolean desc = criteria.getOrdering() == FilterCriteria.Ordering.DESCENDING;
+            flux = flux.sort().withDesc(desc).withColumns(new String[] { COLUMN_TIME_NAME_V2 });
+        }
+
+        return flux.toString();
+    }
+
+    private Flux createRangeQuery(FilterCriteria criteria, String retentionPolicy) {
         Flux flux = Flux.from(retentionPolicy);
 
         RangeFlux range = flux.range();
@@ -66,30 +111,21 @@ public class Influx2FilterCriteriaQueryCreatorImpl implements FilterCriteriaQuer
         String itemName = criteria.getItemName();
         if (itemName != null) {
             String measurementName = calculateMeasurementName(itemName);
-            boolean needsToUseItemTagName = !measurementName.equals(itemName);
-
             flux = flux.filter(measurement().equal(measurementName));
-            if (needsToUseItemTagName) {
+            if (!measurementName.equals(itemName)) {
                 flux = flux.filter(tag(TAG_ITEM_NAME).equal(itemName));
             }
-
-            if (needsToUseItemTagName)
-                flux = flux.keep(new String[] { FIELD_MEASUREMENT_NAME, COLUMN_TIME_NAME_V2, COLUMN_VALUE_NAME_V2,
-                        TAG_ITEM_NAME });
-            else
-                flux = flux.keep(new String[] { FIELD_MEASUREMENT_NAME, COLUMN_TIME_NAME_V2, COLUMN_VALUE_NAME_V2 });
         }
+        return flux;
+    }
 
-        if (criteria.getState() != null && criteria.getOperator() != null) {
-            Restrictions restrictions = Restrictions.and(Restrictions.field().equal(FIELD_VALUE_NAME),
-                    Restrictions.value().custom(stateToObject(criteria.getState()),
-                            getOperationSymbol(criteria.getOperator(), InfluxDBVersion.V2)));
-            flux = flux.filter(restrictions);
-        }
-
-        flux = applyOrderingAndPageSize(criteria, flux);
-
-        return flux.toString();
+    private Flux keepItemColumns(Flux flux, String itemName) {
+        boolean needsToUseItemTagName = !calculateMeasurementName(itemName).equals(itemName);
+        if (needsToUseItemTagName)
+            return flux.keep(
+                    new String[] { FIELD_MEASUREMENT_NAME, COLUMN_TIME_NAME_V2, COLUMN_VALUE_NAME_V2, TAG_ITEM_NAME });
+        else
+            return flux.keep(new String[] { FIELD_MEASUREMENT_NAME, COLUMN_TIME_NAME_V2, COLUMN_VALUE_NAME_V2 });
     }
 
     private Flux applyOrderingAndPageSize(FilterCriteria criteria, Flux flux) {
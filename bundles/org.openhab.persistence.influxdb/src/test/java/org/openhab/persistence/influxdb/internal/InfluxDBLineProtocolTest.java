@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDBLineProtocolTest {
+    private static final Instant TIME = Instant.ofEpochMilli(1558302027124L);
+
+    @Test
+    public void decimalValueIsWrittenAsFloat() {
+        InfluxPoint point = InfluxPoint.newBuilder("sensor").withTime(TIME).withValue(new BigDecimal("21.50"))
+                .withTag("item", "sensor").build();
+        assertThat(InfluxDBLineProtocol.toLineProtocol(point), is("sensor,item=sensor value=21.50 1558302027124"));
+    }
+
+    @Test
+    public void integerValueIsWrittenWithSuffix() {
+        InfluxPoint point = InfluxPoint.newBuilder("switch").withTime(TIME).withValue(1).build();
+        assertThat(InfluxDBLineProtocol.toLineProtocol(point), is("switch value=1i 1558302027124"));
+    }
+
+    @Test
+    public void tagsAreSortedAndEscaped() {
+        InfluxPoint point = InfluxPoint.newBuilder("my measurement,1").withTime(TIME).withValue(new BigDecimal(5))
+                .withTag("item", "a=b").withTag("floor", "first floor").withTag("empty", "").build();
+        assertThat(InfluxDBLineProtocol.toLineProtocol(point),
+                is("my\\ measurement\\,1,floor=first\\ floor,item=a\\=b value=5 1558302027124"));
+    }
+
+    @Test
+    public void stringValueIsQuotedAndEscaped() {
+        InfluxPoint point = InfluxPoint.newBuilder("text").withTime(TIME).withValue("say \"hi\"\\\nbye").build();
+        assertThat(InfluxDBLineProtocol.toLineProtocol(point),
+                is("text value=\"say \\\"hi\\\"\\\\\nbye\" 1558302027124"));
+    }
+
+    @Test
+    public void lineBreaksOfKeysAreEscaped() {
+        InfluxPoint point = InfluxPoint.newBuilder("a\nb").withTime(TIME).withValue(1).withTag("tag", "c\td").build();
+        assertThat(InfluxDBLineProtocol.toLineProtocol(point), is("a\\nb,tag=c\\td value=1i 1558302027124"));
+    }
+
+    @Test
+    public void nonFiniteValueIsIgnored() {
+        InfluxPoint point = InfluxPoint.newBuilder("number").withTime(TIME).withValue(Double.NaN).build();
+        assertThat(InfluxDBLineProtocol.toLineProtocol(point), is(nullValue()));
+    }
+}
@@ -12,9 +12,17 @@
  */
 package org.openhab.persistence.influxdb.internal;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
+import static org.openhab.persistence.influxdb.internal.InfluxDBConfiguration.AGGREGATION_MAX_POINTS_PARAM;
+import static org.openhab.persistence.influxdb.internal.InfluxDBConfiguration.AGGREGATION_MIN_RANGE_PARAM;
 
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.jdt.annotation.DefaultLocation;
@@ -23,14 +31,18 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.openhab.core.items.ItemRegistry;
 import org.openhab.core.items.MetadataRegistry;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.persistence.influxdb.InfluxDBPersistenceService;
 
 /**
  * @author Joan Pujol Espinar - Initial contribution
+ * @author Agent - Test which queries are aggregated
  */
 @ExtendWith(MockitoExtension.class)
 @NonNullByDefault(value = { DefaultLocation.PARAMETER, DefaultLocation.RETURN_TYPE })
@@ -38,13 +50,14 @@ public class InfluxDBPersistenceServiceTest {
     private InfluxDBPersistenceService instance;
 
     private @Mock InfluxDBRepository influxDBRepository;
+    private @Mock ItemRegistry itemRegistry;
 
     private Map<String, Object> validConfig;
     private Map<String, Object> invalidConfig;
 
     @BeforeEach
     public void before() {
-        instance = new InfluxDBPersistenceService(mock(ItemRegistry.class), mock(MetadataRegistry.class)) {
+        instance = new InfluxDBPersistenceService(itemRegistry, mock(MetadataRegistry.class)) {
             @Override
             protected InfluxDBRepository createInfluxDBRepository() {
                 return influxDBRepository;
@@ -92,8 +105,11 @@ public class InfluxDBPersistenceServiceTest {
     public void storeItemWithConnectedRepository() {
         instance.activate(validConfig);
         when(influxDBRepository.isConnected()).thenReturn(true);
+        when(influxDBRepository.write(anyList())).thenReturn(true);
         instance.store(ItemTestHelper.createNumberItem("number", 5));
-        verify(influxDBRepository).write(any());
+        instance.deactivate();
+        verify(influxDBRepository).write(
+                argThat(records -> records.size() == 1 && records.get(0).startsWith("number,item=number value=5 ")));
     }
 
     @Test
@@ -103,4 +119,31 @@ public class InfluxDBPersistenceServiceTest {
         instance.store(ItemTestHelper.createNumberItem("number", 5));
         verify(influxDBRepository, never()).write(any());
     }
+
+    @Test
+    public void onlyUnpagedQueriesOfLongRangesAreAggregated() {
+        when(itemRegistry.get("number")).thenReturn(new NumberItem("number"));
+        when(influxDBRepository.isConnected()).thenReturn(true);
+        when(influxDBRepository.query(anyString())).thenReturn(List.of());
+        Map<String, Object> config = new HashMap<>(validConfig);
+        config.put(AGGREGATION_MAX_POINTS_PARAM, 100);
+        config.put(AGGREGATION_MIN_RANGE_PARAM, 24);
+        instance.activate(config);
+        ZonedDateTime now = ZonedDateTime.now();
+
+        // like a chart
+        instance.query(new FilterCriteria().setItemName("number").setBeginDate(now.minusDays(1)).setEndDate(now));
+        // like persistence extensions looking back a few hours, e.g. averageSince
+        instance.query(new FilterCriteria().setItemName("number").setBeginDate(now.minusHours(1)).setEndDate(now));
+        // a paged query
+        instance.query(new FilterCriteria().setItemName("number").setBeginDate(now.minusDays(1)).setEndDate(now)
+                .setPageSize(100));
+
+        ArgumentCaptor<String> queries = ArgumentCaptor.forClass(String.class);
+        verify(influxDBRepository, times(3)).query(queries.capture());
+        assertThat(queries.getAllValues().get(0), containsString("aggregateWindow"));
+        assertThat(queries.getAllValues().get(1), not(containsString("aggregateWindow")));
+        assertThat(queries.getAllValues().get(2), not(containsString("aggregateWindow")));
+        instance.deactivate();
+    }
 }
@@ -0,0 +1,229 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.DefaultLocation;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault(value = { DefaultLocation.PARAMETER, DefaultLocation.RETURN_TYPE })
+public class InfluxDBWriteBufferTest {
+    private @TempDir Path tempDir;
+
+    private FakeRepository repository;
+    private Path spillFile;
+    private InfluxDBWriteBuffer instance;
+
+    @BeforeEach
+    public void before() {
+        repository = new FakeRepository();
+        spillFile = tempDir.resolve("write-buffer.lp");
+        // long flush interval so that only explicit flushes write
+        instance = new InfluxDBWriteBuffer(repository, 2, 3600000, spillFile, 1024 * 1024);
+    }
+
+    @AfterEach
+    public void after() {
+        instance.close();
+    }
+
+    @Test
+    public void flushWritesQueuedRecordsInBatches() {
+        addPoints(1, 2, 3);
+        instance.flush();
+
+        assertThat(repository.batches, contains(List.of(line(1), line(2)), List.of(line(3))));
+        assertThat(Files.exists(spillFile), is(false));
+    }
+
+    @Test
+    public void unreachableServerSpillsRecords() throws IOException {
+        repository.reachable = false;
+        addPoints(1, 2, 3);
+        instance.flush();
+
+        assertThat(repository.batches, is(empty()));
+        assertThat(Files.readAllLines(spillFile), contains(line(1), line(2), line(3)));
+    }
+
+    @Test
+    public void spilledRecordsAreReplayedInOrderBeforeNewRecords() throws IOException {
+        Files.write(spillFile, List.of(line(1), line(2), line(3)));
+        addPoints(4);
+        instance.flush();
+
+        assertThat(repository.batches, contains(List.of(line(1), line(2)), List.of(line(3)), List.of(line(4))));
+        assertThat(Files.exists(spillFile), is(false));
+    }
+
+    @Test
+    public void interruptedReplayKeepsRemainingRecords() throws IOException {
+        Files.write(spillFile, List.of(line(1), line(2), line(3)));
+        repository.acceptedBatches = 1;
+        addPoints(4);
+        instance.flush();
+
+        assertThat(repository.batches, contains(List.of(line(1), line(2))));
+        assertThat(Files.readAllLines(spillFile), contains(line(3), line(4)));
+    }
+
+    @Test
+    public void lineBreaksOfSpilledRecordsAreRestored() throws IOException {
+        repository.reachable = false;
+        instance.add(InfluxPoint.newBuilder("text").withTime(Instant.ofEpochMilli(1)).withValue("a\\n\nb").build());
+        instance.flush();
+        assertThat(Files.readAllLines(spillFile), hasSize(1));
+
+        repository.reachable = true;
+        instance.close();
+        instance = new InfluxDBWriteBuffer(repository, 2, 3600000, spillFile, 1024 * 1024);
+        instance.flush();
+
+        assertThat(repository.batches, contains(List.of("text value=\"a\\\\n\nb\" 1")));
+    }
+
+    @Test
+    public void oldestSpilledRecordsAreDroppedIfFileIsTooLarge() throws IOException {
+        instance.close();
+        instance = new InfluxDBWriteBuffer(repository, 2, 3600000, spillFile, 100);
+        repository.reachable = false;
+        for (int i = 10; i < 30; i++) {
+            addPoints(i);
+            instance.flush();
+        }
+
+        List<String> spilled = Files.readAllLines(spillFile);
+        assertThat(Files.size(spillFile), lessThanOrEqualTo(100L));
+        assertThat(spilled, hasItem(line(29)));
+        assertThat(spilled, not(hasItem(line(10))));
+        // the remaining records are the newest ones in their original order
+        int first = 30 - spilled.size();
+        for (int i = 0; i < spilled.size(); i++) {
+            assertThat(spilled.get(i), is(line(first + i)));
+        }
+    }
+
+    @Test
+    public void flushBeforeQueryWritesQueuedRecords() {
+        addPoints(1);
+        instance.flushBeforeQuery();
+
+        assertThat(repository.batches, contains(List.of(line(1))));
+    }
+
+    @Test
+    public void flushBeforeQueryDoesNotWaitForSpilledRecords() throws Exception {
+        Files.write(spillFile, List.of(line(1)));
+        CountDownLatch writesAllowed = new CountDownLatch(1);
+        repository.writesAllowed = writesAllowed;
+        addPoints(2);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), instance::flushBeforeQuery);
+        writesAllowed.countDown();
+        long timeout = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (repository.batches.size() < 2 && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+
+        assertThat(repository.batches, contains(List.of(line(1)), List.of(line(2))));
+    }
+
+    private void addPoints(int... values) {
+        for (int value : values) {
+            instance.add(InfluxPoint.newBuilder("test").withTime(Instant.ofEpochMilli(value))
+                    .withValue(new BigDecimal(value)).build());
+        }
+    }
+
+    private static String line(int value) {
+        return "test value=" + value + " " + value;
+    }
+
+    private static class FakeRepository implements InfluxDBRepository {
+        private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+        private volatile boolean reachable = true;
+        private int acceptedBatches = Integer.MAX_VALUE;
+        private @Nullable CountDownLatch writesAllowed;
+
+        @Override
+        public boolean write(List<String> records) {
+            CountDownLatch writesAllowed = this.writesAllowed;
+            if (writesAllowed != null) {
+                try {
+                    writesAllowed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            if (!reachable || batches.size() >= acceptedBatches) {
+                return false;
+            }
+            batches.add(new ArrayList<>(records));
+            return true;
+        }
+
+        @Override
+        public boolean isConnected() {
+            return true;
+        }
+
+        @Override
+        public boolean connect() {
+            return true;
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public boolean checkConnectionStatus() {
+            return true;
+        }
+
+        @Override
+        public Map<String, Integer> getStoredItemsCount() {
+            return Map.of();
+        }
+
+        @Override
+        public List<InfluxRow> query(String query) {
+            return List.of();
+        }
+    }
+}
@@ -12,10 +12,12 @@
  */
 package org.openhab.persistence.influxdb.internal;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
@@ -183,6 +185,76 @@ public class InfluxFilterCriteriaQueryCreatorImplTest {
                         + "|> keep(columns:[\"_measurement\", \"_time\", \"_value\"])\n\t" + "|> last()"));
     }
 
+    @Test
+    public void testAggregatedQuery() {
+        FilterCriteria criteria = createBaseCriteria();
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime tomorrow = now.plus(1, ChronoUnit.DAYS);
+        criteria.setBeginDate(now);
+        criteria.setEndDate(tomorrow);
+        criteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+
+        String queryV1 = instanceV1.createAggregatedQuery(criteria, RETENTION_POLICY, Duration.ofMinutes(1),
+                AggregationFunction.MEAN);
+        String expectedQueryV1 = String.format(
+                "SELECT MEAN(\"value\") AS \"value\" FROM \"origin\".\"sampleItem\" WHERE time >= '%s' AND time <= '%s'"
+                        + " GROUP BY time(60s),\"item\" fill(none) ORDER BY time ASC;",
+                now.toInstant(), tomorrow.toInstant());
+        assertThat(queryV1, equalTo(expectedQueryV1));
+
+        String queryV2 = instanceV2.createAggregatedQuery(criteria, RETENTION_POLICY, Duration.ofMinutes(1),
+                AggregationFunction.MEAN);
+        String expectedQueryV2 = String.format("from(bucket:\"origin\")\n\t" + "|> range(start:%s, stop:%s)\n\t"
+                + "|> filter(fn: (r) => r[\"_measurement\"] == \"sampleItem\")\n\t"
+                + "|> filter(fn: (r) => r[\"_field\"] == \"value\")\n\t"
+                + "|> aggregateWindow(every: 60s, fn: mean, timeSrc: \"_start\", createEmpty: false)\n\t"
+                + "|> keep(columns:[\"_measurement\", \"_time\", \"_value\"])\n\t"
+                + "|> sort(desc:false, columns:[\"_time\"])", INFLUX2_DATE_FORMATTER.format(now.toInstant()),
+                INFLUX2_DATE_FORMATTER.format(tomorrow.toInstant()));
+        assertThat(queryV2, equalTo(expectedQueryV2));
+    }
+
+    @Test
+    public void testAggregatedQueryWithMeasurementNameFromMetadata() {
+        FilterCriteria criteria = createBaseCriteria();
+        criteria.setOrdering(FilterCriteria.Ordering.DESCENDING);
+        MetadataKey metadataKey = new MetadataKey(InfluxDBPersistenceService.SERVICE_NAME, "sampleItem");
+
+        when(metadataRegistry.get(metadataKey))
+                .thenReturn(new Metadata(metadataKey, "measurementName", Map.of("key1", "val1", "key2", "val2")));
+
+        String queryV1 = instanceV1.createAggregatedQuery(criteria, RETENTION_POLICY, Duration.ofHours(1),
+                AggregationFunction.MAX);
+        assertThat(queryV1, equalTo("SELECT MAX(\"value\") AS \"value\" FROM \"origin\".\"measurementName\""
+                + " WHERE item = 'sampleItem' GROUP BY time(3600s),\"item\" fill(none) ORDER BY time DESC;"));
+
+        String queryV2 = instanceV2.createAggregatedQuery(criteria, RETENTION_POLICY, Duration.ofHours(1),
+                AggregationFunction.MAX);
+        assertThat(queryV2,
+                equalTo("from(bucket:\"origin\")\n\t" + "|> range(start:-100y)\n\t"
+                        + "|> filter(fn: (r) => r[\"_measurement\"] == \"measurementName\")\n\t"
+                        + "|> filter(fn: (r) => r[\"item\"] == \"sampleItem\")\n\t"
+                        + "|> filter(fn: (r) => r[\"_field\"] == \"value\")\n\t"
+                        + "|> aggregateWindow(every: 3600s, fn: max, timeSrc: \"_start\", createEmpty: false)\n\t"
+                        + "|> keep(columns:[\"_measurement\", \"_time\", \"_value\", \"item\"])\n\t"
+                        + "|> sort(desc:true, columns:[\"_time\"])"));
+    }
+
+    @Test
+    public void testAggregatedQueryEscapesItemNameLikePlainQuery() {
+        String itemName = "sample'Item";
+        FilterCriteria criteria = createBaseCriteria(itemName);
+        MetadataKey metadataKey = new MetadataKey(InfluxDBPersistenceService.SERVICE_NAME, itemName);
+        when(metadataRegistry.get(metadataKey)).thenReturn(new Metadata(metadataKey, "measurementName", Map.of()));
+
+        String query = instanceV1.createQuery(criteria, RETENTION_POLICY);
+        String aggregatedQuery = instanceV1.createAggregatedQuery(criteria, RETENTION_POLICY, Duration.ofHours(1),
+                AggregationFunction.MAX);
+        String whereClause = query.substring(query.indexOf(" WHERE "), query.length() - 1);
+        // the item name is escaped by the query builder in both queries
+        assertThat(aggregatedQuery, containsString(whereClause + " GROUP BY "));
+    }
+
     private FilterCriteria createBaseCriteria() {
         return createBaseCriteria(ITEM_NAME);
     }
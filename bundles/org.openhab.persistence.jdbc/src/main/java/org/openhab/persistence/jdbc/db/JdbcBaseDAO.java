@@ -13,17 +13,25 @@
 package org.openhab.persistence.jdbc.db;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import javax.measure.Quantity;
@@ -55,10 +63,12 @@ import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.types.State;
 import org.openhab.core.types.TypeParser;
+import org.openhab.persistence.jdbc.dto.AggregationFunction;
 import org.openhab.persistence.jdbc.dto.ItemVO;
 import org.openhab.persistence.jdbc.dto.ItemsVO;
 import org.openhab.persistence.jdbc.dto.JdbcHistoricItem;
 import org.openhab.persistence.jdbc.utils.DbMetaData;
+import org.openhab.persistence.jdbc.utils.ResultSetIterable;
 import org.openhab.persistence.jdbc.utils.StringUtilsExt;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -79,8 +89,14 @@ public class JdbcBaseDAO {
     // Get Database Meta data
     protected @Nullable DbMetaData dbMeta;
 
+    // the SQL of statements only depends on table, operation and filter shape, it is built once and then reused.
+    // Only the SQL strings are cached, the prepared statements themselves are created by Yank for every execution.
+    private static final int SQL_CACHE_MAX_SIZE = 2000;
+    private final Map<String, String> sqlCache = new ConcurrentHashMap<>();
+
     protected String sqlPingDB = "SELECT 1";
     protected String sqlGetDB = "SELECT DATABASE()";
+    protected String sqlGetNow = "SELECT #tablePrimaryValue#";
     protected String sqlIfTableExists = "SHOW TABLES LIKE '#searchTable#'";
     protected String sqlCreateNewEntryInItemsTable = "INSERT INTO #itemsManageTable# (ItemName) VALUES ('#itemname#')";
     protected String sqlCreateItemsTableIfNot = "CREATE TABLE IF NOT EXISTS #itemsManageTable# (ItemId INT NOT NULL AUTO_INCREMENT,#colname# #coltype# NOT NULL,PRIMARY KEY (ItemId))";
@@ -89,6 +105,14 @@ public class JdbcBaseDAO {
     protected String sqlGetItemTables = "SELECT table_name FROM information_schema.tables WHERE table_type='BASE TABLE' AND table_schema='#jdbcUriDatabaseName#' AND NOT table_name='#itemsManageTable#'";
     protected String sqlCreateItemTable = "CREATE TABLE IF NOT EXISTS #tableName# (time #tablePrimaryKey# NOT NULL, value #dbType#, PRIMARY KEY(time))";
     protected String sqlInsertItemValue = "INSERT INTO #tableName# (TIME, VALUE) VALUES( #tablePrimaryValue#, ? ) ON DUPLICATE KEY UPDATE VALUE= ?";
+    protected String sqlInsertItemValues = "INSERT INTO #tableName# (TIME, VALUE) VALUES #valueRows# ON DUPLICATE KEY UPDATE VALUE=VALUES(VALUE)";
+    protected String sqlInsertItemValuesRow = "( ?, ? )";
+    // expression grouping the time column into buckets of #bucketSeconds#, null if aggregation is not supported
+    protected @Nullable String sqlTimeBucket = "FLOOR(UNIX_TIMESTAMP(time) / #bucketSeconds#)";
+    // upper bound of rows per multi-row insert, keeps the statement below the parameter limits of the databases
+    protected int maxRowsPerInsert = 500;
+    // placeholder of a filter date, bound by filterDateAsObject
+    protected String sqlFilterDateParameter = "?";
 
     /********
      * INIT *
@@ -322,9 +346,10 @@ public class JdbcBaseDAO {
 
     public void doStoreItemValue(Item item, State itemState, ItemVO vo) {
         ItemVO storedVO = storeItemValueProvider(item, itemState, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#tablePrimaryValue#" },
-                new String[] { storedVO.getTableName(), sqlTypes.get("tablePrimaryValue") });
+        String sql = getCachedSql("insert:" + storedVO.getTableName(),
+                () -> StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                        new String[] { "#tableName#", "#tablePrimaryValue#" },
+                        new String[] { storedVO.getTableName(), sqlTypes.get("tablePrimaryValue") }));
         Object[] params = { storedVO.getValue(), storedVO.getValue() };
         logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, storedVO.getValue());
         Yank.execute(sql, params);
@@ -332,19 +357,80 @@ public class JdbcBaseDAO {
 
     public void doStoreItemValue(Item item, State itemState, ItemVO vo, ZonedDateTime date) {
         ItemVO storedVO = storeItemValueProvider(item, itemState, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#tablePrimaryValue#" }, new String[] { storedVO.getTableName(), "?" });
+        String sql = getCachedSql("insertAt:" + storedVO.getTableName(),
+                () -> StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                        new String[] { "#tableName#", "#tablePrimaryValue#" },
+                        new String[] { storedVO.getTableName(), "?" }));
         java.sql.Timestamp timestamp = new java.sql.Timestamp(date.toInstant().toEpochMilli());
         Object[] params = { timestamp, storedVO.getValue(), storedVO.getValue() };
         logger.debug("JDBC::doStoreItemValue sql={} timestamp={} value='{}'", sql, timestamp, storedVO.getValue());
         Yank.execute(sql, params);
     }
 
+    /**
+     * Converts the state into its database representation without storing it, so that it can be written later on
+     * together with other values by {@link #doStoreItemValues(String, List)}.
+     */
+    public ItemVO doPrepareItemValue(Item item, State itemState, ItemVO vo, @Nullable ZonedDateTime date) {
+        ItemVO storedVO = storeItemValueProvider(item, itemState, vo);
+        if (date != null) {
+            storedVO.setTime(new java.sql.Timestamp(date.toInstant().toEpochMilli()));
+        }
+        return storedVO;
+    }
+
+    /**
+     * Returns the current time of the database, as it is used for values stored without a date.
+     */
+    public @Nullable ZonedDateTime doGetNow() {
+        String sql = getCachedSql("now", () -> StringUtilsExt.replaceArrayMerge(sqlGetNow,
+                new String[] { "#tablePrimaryValue#" }, new String[] { sqlTypes.get("tablePrimaryValue") }));
+        List<Object[]> m = Yank.queryObjectArrays(sql, null);
+        if (m == null || m.isEmpty() || m.get(0).length == 0 || m.get(0)[0] == null) {
+            return null;
+        }
+        return objectAsZonedDateTime(m.get(0)[0]);
+    }
+
+    /**
+     * Stores several prepared values of one item table using multi-row inserts.
+     *
+     * Other than the statements executed through Yank, failures are not only logged but thrown, so that the caller
+     * can keep the values.
+     *
+     * @throws SQLException if the values could not be stored
+     */
+    public void doStoreItemValues(String tableName, List<ItemVO> vol) throws SQLException {
+        for (int from = 0; from < vol.size(); from += maxRowsPerInsert) {
+            List<ItemVO> rows = vol.subList(from, Math.min(from + maxRowsPerInsert, vol.size()));
+            String dbType = rows.get(0).getDbType();
+            int rowCount = rows.size();
+            String sql = getCachedSql("insertRows:" + tableName + ":" + rowCount,
+                    () -> storeItemValuesProvider(tableName, dbType, rowCount));
+            Object[] params = new Object[rows.size() * 2];
+            for (int i = 0; i < rows.size(); i++) {
+                ItemVO vo = rows.get(i);
+                params[i * 2] = timestampAsObject(new java.sql.Timestamp(vo.getTime().getTime()));
+                params[i * 2 + 1] = vo.getValue();
+            }
+            logger.debug("JDBC::doStoreItemValues sql={} rows={}", sql, rows.size());
+            try (Connection connection = Yank.getDefaultConnectionPool().getConnection();
+                    PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    statement.setObject(i + 1, params[i]);
+                }
+                statement.executeUpdate();
+            }
+        }
+    }
+
     public List<HistoricItem> doGetHistItemFilterQuery(Item item, FilterCriteria filter, int numberDecimalcount,
             String table, String name, ZoneId timeZone) {
-        String sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, timeZone);
-        logger.debug("JDBC::doGetHistItemFilterQuery sql={}", sql);
-        List<Object[]> m = Yank.queryObjectArrays(sql, null);
+        String sql = getCachedSql("query:" + table + ":" + numberDecimalcount + ":" + filterShape(filter),
+                () -> histItemFilterQueryProvider(filter, numberDecimalcount, table, name, timeZone));
+        Object[] params = histItemFilterParams(filter, timeZone);
+        logger.debug("JDBC::doGetHistItemFilterQuery sql={} params={}", sql, params);
+        List<Object[]> m = Yank.queryObjectArrays(sql, params);
         if (m == null) {
             logger.debug("JDBC::doGetHistItemFilterQuery Query failed. Returning an empty list.");
             return List.of();
@@ -357,10 +443,80 @@ public class JdbcBaseDAO {
                 .collect(Collectors.<HistoricItem> toList());
     }
 
+    /**
+     * Queries the values of the filter in chunks of {@code fetchSize} rows, which are read and converted while
+     * iterating. Every chunk is read on its own connection, so no connection is held between the chunks.
+     *
+     * The chunks are paged by the primary key {@code time}: every chunk after the first one starts after the time of
+     * the last row read, which replaces the begin date of ascending and the end date of descending queries. The
+     * time is bound exactly as it was read, so no value is skipped or read twice, and values stored while iterating
+     * do not shift the following chunks.
+     */
+    public Iterable<HistoricItem> doGetHistItemFilterQueryStream(Item item, FilterCriteria filter,
+            int numberDecimalcount, String table, String name, ZoneId timeZone, int fetchSize) {
+        boolean ascending = filter.getOrdering() == Ordering.ASCENDING;
+        FilterCriteria firstFilter = new FilterCriteria().setItemName(filter.getItemName())
+                .setBeginDate(filter.getBeginDate()).setEndDate(filter.getEndDate()).setOrdering(filter.getOrdering())
+                .setPageSize(fetchSize);
+        // the date standing in for the time of the last row only shapes the statement
+        ZonedDateTime lastTime = ZonedDateTime.now(timeZone);
+        FilterCriteria nextFilter = new FilterCriteria().setItemName(filter.getItemName())
+                .setBeginDate(ascending ? lastTime : filter.getBeginDate())
+                .setEndDate(ascending ? filter.getEndDate() : lastTime).setOrdering(filter.getOrdering())
+                .setPageSize(fetchSize);
+        String firstSql = getCachedSql("query:" + table + ":" + numberDecimalcount + ":" + filterShape(firstFilter),
+                () -> histItemFilterQueryProvider(firstFilter, numberDecimalcount, table, name, timeZone));
+        String nextSql = getCachedSql("query:" + table + ":" + numberDecimalcount + ":" + filterShape(nextFilter),
+                () -> histItemFilterQueryProvider(nextFilter, numberDecimalcount, table, name, timeZone));
+        Object[] firstParams = histItemFilterParams(firstFilter, timeZone);
+        Object[] nextParams = histItemFilterParams(nextFilter, timeZone);
+        int lastTimeIndex = ascending ? 0 : nextParams.length - 1;
+        logger.debug("JDBC::doGetHistItemFilterQueryStream sql={} nextSql={} params={} fetchSize={}", firstSql,
+                nextSql, firstParams, fetchSize);
+        String itemName = item.getName();
+        Unit<? extends Quantity<?>> unit = item instanceof NumberItem ? ((NumberItem) item).getUnit() : null;
+        return new ResultSetIterable<HistoricItem>(Yank.getDefaultConnectionPool(), firstSql, firstParams, nextSql,
+                time -> {
+                    Object[] params = nextParams.clone();
+                    params[lastTimeIndex] = time;
+                    return params;
+                }, fetchSize,
+                o -> new JdbcHistoricItem(itemName, objectAsState(item, unit, o[1]), objectAsZonedDateTime(o[0])));
+    }
+
+    public boolean isAggregationSupported() {
+        return sqlTimeBucket != null;
+    }
+
+    /**
+     * Queries the values of the filter aggregated into time buckets, the database returns one row per bucket.
+     */
+    public List<HistoricItem> doGetAggregatedItemFilterQuery(Item item, FilterCriteria filter, int numberDecimalcount,
+            String table, long bucketSeconds, AggregationFunction aggregation, ZoneId timeZone) {
+        String sql = getCachedSql(
+                "aggregate:" + table + ":" + bucketSeconds + ":" + aggregation + ":" + filterShape(filter),
+                () -> aggregatedItemFilterQueryProvider(filter, table, bucketSeconds, aggregation, timeZone));
+        Object[] params = histItemFilterParams(filter, timeZone);
+        logger.debug("JDBC::doGetAggregatedItemFilterQuery sql={} params={}", sql, params);
+        List<Object[]> m = Yank.queryObjectArrays(sql, params);
+        if (m == null) {
+            logger.debug("JDBC::doGetAggregatedItemFilterQuery Query failed. Returning an empty list.");
+            return List.of();
+        }
+        String itemName = item.getName();
+        Unit<? extends Quantity<?>> unit = item instanceof NumberItem ? ((NumberItem) item).getUnit() : null;
+        return m.stream().filter(o -> o[0] != null && o[1] != null)
+                .map(o -> new JdbcHistoricItem(itemName, aggregateAsState(item, unit, o[1], numberDecimalcount),
+                        objectAsZonedDateTime(o[0])))
+                .collect(Collectors.<HistoricItem> toList());
+    }
+
     public void doDeleteItemValues(FilterCriteria filter, String table, ZoneId timeZone) {
-        String sql = histItemFilterDeleteProvider(filter, table, timeZone);
-        logger.debug("JDBC::doDeleteItemValues sql={}", sql);
-        Yank.execute(sql, null);
+        String sql = getCachedSql("delete:" + table + ":" + filterShape(filter),
+                () -> histItemFilterDeleteProvider(filter, table, timeZone));
+        Object[] params = histItemFilterParams(filter, timeZone);
+        logger.debug("JDBC::doDeleteItemValues sql={} params={}", sql, params);
+        Yank.execute(sql, params);
     }
 
     /*************
@@ -401,21 +557,91 @@ public class JdbcBaseDAO {
         return deleteString;
     }
 
+    /**
+     * Returns the time filter with placeholders, the values are provided by
+     * {@link #histItemFilterParams(FilterCriteria, ZoneId)}.
+     */
     protected String resolveTimeFilter(FilterCriteria filter, ZoneId timeZone) {
         String filterString = "";
         if (filter.getBeginDate() != null) {
             filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME>'" + JDBC_DATE_FORMAT.format(filter.getBeginDate().withZoneSameInstant(timeZone))
-                    + "'";
+            filterString += " TIME>" + sqlFilterDateParameter;
         }
         if (filter.getEndDate() != null) {
             filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME<'" + JDBC_DATE_FORMAT.format(filter.getEndDate().withZoneSameInstant(timeZone))
-                    + "'";
+            filterString += " TIME<" + sqlFilterDateParameter;
         }
         return filterString;
     }
 
+    protected Object[] histItemFilterParams(FilterCriteria filter, ZoneId timeZone) {
+        List<Object> params = new ArrayList<>(2);
+        ZonedDateTime beginDate = filter.getBeginDate();
+        if (beginDate != null) {
+            params.add(filterDateAsObject(beginDate, timeZone));
+        }
+        ZonedDateTime endDate = filter.getEndDate();
+        if (endDate != null) {
+            params.add(filterDateAsObject(endDate, timeZone));
+        }
+        return params.toArray();
+    }
+
+    /**
+     * Returns the key describing everything of the filter which influences the generated statement.
+     */
+    protected String filterShape(FilterCriteria filter) {
+        return (filter.getBeginDate() != null ? "B" : "") + (filter.getEndDate() != null ? "E" : "") + ":"
+                + filter.getOrdering() + ":" + filter.getPageNumber() + ":" + filter.getPageSize();
+    }
+
+    protected String getCachedSql(String key, Supplier<String> provider) {
+        String sql = sqlCache.get(key);
+        if (sql == null) {
+            if (sqlCache.size() >= SQL_CACHE_MAX_SIZE) {
+                sqlCache.clear();
+            }
+            sql = provider.get();
+            sqlCache.put(key, sql);
+        }
+        return sql;
+    }
+
+    public void clearSqlCache() {
+        sqlCache.clear();
+    }
+
+    protected String storeItemValuesProvider(String tableName, String dbType, int rowCount) {
+        String row = sqlInsertItemValuesRow.replace("#dbType#", dbType).replace("#tablePrimaryKey#",
+                Objects.requireNonNull(sqlTypes.get("tablePrimaryKey")));
+        String valueRows = String.join(",", Collections.nCopies(rowCount, row));
+        return StringUtilsExt.replaceArrayMerge(sqlInsertItemValues, new String[] { "#tableName#", "#valueRows#" },
+                new String[] { tableName, valueRows });
+    }
+
+    protected String aggregatedItemFilterQueryProvider(FilterCriteria filter, String table, long bucketSeconds,
+            AggregationFunction aggregation, ZoneId timeZone) {
+        logger.debug(
+                "JDBC::aggregatedItemFilterQueryProvider filter = {}, table = {}, bucketSeconds = {}, aggregation = {}",
+                filter, table, bucketSeconds, aggregation);
+
+        String timeBucket = Objects.requireNonNull(sqlTimeBucket).replace("#bucketSeconds#",
+                String.valueOf(bucketSeconds));
+        String filterString = resolveTimeFilter(filter, timeZone);
+        String order = (filter.getOrdering() == Ordering.ASCENDING) ? " ASC" : " DESC";
+        String queryString;
+        if (aggregation == AggregationFunction.LAST) {
+            queryString = "SELECT time, value FROM " + table + " WHERE time IN (SELECT MAX(time) FROM " + table
+                    + filterString + " GROUP BY " + timeBucket + ") ORDER BY time" + order;
+        } else {
+            // the first timestamp of each bucket represents the bucket
+            queryString = "SELECT MIN(time), " + aggregation.name() + "(value) FROM " + table + filterString
+                    + " GROUP BY " + timeBucket + " ORDER BY 1" + order;
+        }
+        logger.debug("JDBC::query queryString = {}", queryString);
+        return queryString;
+    }
+
     private String updateItemTableNamesProvider(List<ItemVO> namesList) {
         logger.debug("JDBC::updateItemTableNamesProvider namesList.size = {}", namesList.size());
         String queryString = "";
@@ -568,6 +794,38 @@ public class JdbcBaseDAO {
         }
     }
 
+    protected State aggregateAsState(Item item, @Nullable Unit<? extends Quantity<?>> unit, Object v,
+            int numberDecimalcount) {
+        // aggregates of integer or decimal columns may be returned as any numeric type
+        if (item instanceof NumberItem && v instanceof Number) {
+            BigDecimal value = v instanceof BigDecimal ? (BigDecimal) v
+                    : BigDecimal.valueOf(((Number) v).doubleValue());
+            // rounded in Java like the raw values are rounded by the query, so no statement per aggregation is needed
+            if (numberDecimalcount > -1) {
+                value = value.setScale(numberDecimalcount, RoundingMode.HALF_UP);
+            }
+            return unit == null ? new DecimalType(value) : new QuantityType<>(value, unit);
+        }
+        return objectAsState(item, unit, v);
+    }
+
+    /**
+     * Returns the representation of an explicit time column value as it is bound to a statement.
+     */
+    protected Object timestampAsObject(java.sql.Timestamp timestamp) {
+        return timestamp;
+    }
+
+    /**
+     * Returns the value a filter date is bound as. This is the same text as the literal that was embedded into the
+     * statement before, so the database interprets it in the time zone of the session like before. A
+     * {@link java.sql.Timestamp} would be converted by the driver, which shifts the time if the time zone of the
+     * connection differs from the time zone of the JVM.
+     */
+    protected Object filterDateAsObject(ZonedDateTime date, ZoneId timeZone) {
+        return JDBC_DATE_FORMAT.format(date.withZoneSameInstant(timeZone));
+    }
+
     protected ZonedDateTime objectAsZonedDateTime(Object v) {
         if (v instanceof Long) {
             return ZonedDateTime.ofInstant(Instant.ofEpochMilli(((Number) v).longValue()), ZoneId.systemDefault());
@@ -12,10 +12,14 @@
  */
 package org.openhab.persistence.jdbc.db;
 
+import java.time.ZoneId;
 import java.util.Properties;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.knowm.yank.Yank;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.persistence.jdbc.dto.AggregationFunction;
 import org.openhab.persistence.jdbc.dto.ItemVO;
 import org.openhab.persistence.jdbc.utils.StringUtilsExt;
 import org.slf4j.Logger;
@@ -52,4 +56,17 @@ public class JdbcTimescaledbDAO extends JdbcPostgresqlDAO {
         this.logger.debug("JDBC::doCreateItemTable sql={}", sql);
         Yank.queryScalar(sql, Boolean.class, null);
     }
+
+    @Override
+    protected String aggregatedItemFilterQueryProvider(FilterCriteria filter, String table, long bucketSeconds,
+            AggregationFunction aggregation, ZoneId timeZone) {
+        String filterString = resolveTimeFilter(filter, timeZone);
+        String order = (filter.getOrdering() == Ordering.ASCENDING) ? " ASC" : " DESC";
+        String function = aggregation == AggregationFunction.LAST ? "last(value, time)"
+                : aggregation.name() + "(value)";
+        String queryString = "SELECT time_bucket(INTERVAL '" + bucketSeconds + " seconds', time) AS bucket, "
+                + function + " FROM " + table + filterString + " GROUP BY bucket ORDER BY bucket" + order;
+        this.logger.debug("JDBC::query queryString = {}", queryString);
+        return queryString;
+    }
 }
@@ -24,6 +24,7 @@ import java.util.regex.Pattern;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.persistence.jdbc.db.JdbcBaseDAO;
+import org.openhab.persistence.jdbc.dto.AggregationFunction;
 import org.openhab.persistence.jdbc.utils.MovingAverage;
 import org.openhab.persistence.jdbc.utils.StringUtilsExt;
 import org.slf4j.Logger;
@@ -63,6 +64,19 @@ public class JdbcConfiguration {
 
     private int errReconnectThreshold = 0;
 
+    // write-behind batching, disabled by default (batchSize = 0)
+    private int batchSize = 0;
+    private int batchFlushInterval = 1000;
+    private int batchQueueCapacity = 10000;
+
+    // downsampling of queries, disabled by default (aggregationMaxPoints = 0)
+    private int aggregationMaxPoints = 0;
+    private int aggregationMinRange = 24;
+    private AggregationFunction aggregationFunction = AggregationFunction.AVG;
+
+    // streaming of unpaged query results, disabled by default (queryFetchSize = 0)
+    private int queryFetchSize = 0;
+
     public int timerCount = 0;
     public int time1000Statements = 0;
     public long timer1000 = 0;
@@ -175,6 +189,53 @@ public class JdbcConfiguration {
             logger.debug("JDBC::updateConfig: rebuildTableNames={}", rebuildTableNames);
         }
 
+        String bs = (String) configuration.get("batchSize");
+        if (bs != null && !bs.isBlank() && isNumericPattern.matcher(bs).matches()) {
+            batchSize = Integer.parseInt(bs);
+            logger.debug("JDBC::updateConfig: batchSize={}", batchSize);
+        }
+
+        String bf = (String) configuration.get("batchFlushInterval");
+        if (bf != null && !bf.isBlank() && isNumericPattern.matcher(bf).matches()) {
+            batchFlushInterval = Math.max(Integer.parseInt(bf), 1);
+            logger.debug("JDBC::updateConfig: batchFlushInterval={}", batchFlushInterval);
+        }
+
+        String bq = (String) configuration.get("batchQueueCapacity");
+        if (bq != null && !bq.isBlank() && isNumericPattern.matcher(bq).matches()) {
+            batchQueueCapacity = Math.max(Integer.parseInt(bq), 1);
+            logger.debug("JDBC::updateConfig: batchQueueCapacity={}", batchQueueCapacity);
+        }
+
+        String am = (String) configuration.get("aggregationMaxPoints");
+        if (am != null && !am.isBlank() && isNumericPattern.matcher(am).matches()) {
+            aggregationMaxPoints = Integer.parseInt(am);
+            logger.debug("JDBC::updateConfig: aggregationMaxPoints={}", aggregationMaxPoints);
+        }
+
+        String ar = (String) configuration.get("aggregationMinRange");
+        if (ar != null && !ar.isBlank() && isNumericPattern.matcher(ar).matches()) {
+            aggregationMinRange = Integer.parseInt(ar);
+            logger.debug("JDBC::updateConfig: aggregationMinRange={}", aggregationMinRange);
+        }
+
+        String af = (String) configuration.get("aggregationFunction");
+        if (af != null && !af.isBlank()) {
+            try {
+                aggregationFunction = AggregationFunction.valueOf(af.trim().toUpperCase());
+                logger.debug("JDBC::updateConfig: aggregationFunction={}", aggregationFunction);
+            } catch (IllegalArgumentException e) {
+                logger.warn("JDBC::updateConfig: unknown aggregationFunction '{}', using {}", af,
+                        aggregationFunction);
+            }
+        }
+
+        String qf = (String) configuration.get("queryFetchSize");
+        if (qf != null && !qf.isBlank() && isNumericPattern.matcher(qf).matches()) {
+            queryFetchSize = Integer.parseInt(qf);
+            logger.debug("JDBC::updateConfig: queryFetchSize={}", queryFetchSize);
+        }
+
         // undocumented
         String ac = (String) configuration.get("maximumPoolSize");
         if (ac != null && !ac.isBlank()) {
@@ -351,6 +412,38 @@ public class JdbcConfiguration {
         return errReconnectThreshold;
     }
 
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getBatchFlushInterval() {
+        return batchFlushInterval;
+    }
+
+    public int getBatchQueueCapacity() {
+        return batchQueueCapacity;
+    }
+
+    public boolean isBatchEnabled() {
+        return batchSize > 0;
+    }
+
+    public int getAggregationMaxPoints() {
+        return aggregationMaxPoints;
+    }
+
+    public int getAggregationMinRange() {
+        return aggregationMinRange;
+    }
+
+    public AggregationFunction getAggregationFunction() {
+        return aggregationFunction;
+    }
+
+    public int getQueryFetchSize() {
+        return queryFetchSize;
+    }
+
     public boolean getRebuildTableNames() {
         return rebuildTableNames;
     }
@@ -390,6 +483,8 @@ public class JdbcConfiguration {
         dBDAO.initAfterFirstDbConnection();
         // Running once again to prior external configured SqlTypes!
         setSqlTypes();
+        // Types may have changed, so statements have to be built again
+        dBDAO.clearSqlCache();
         this.dbConnected = dbConnected;
     }
 
@@ -12,6 +12,7 @@
  */
 package org.openhab.persistence.jdbc.internal;
 
+import java.sql.SQLException;
 import java.sql.SQLInvalidAuthorizationSpecException;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
@@ -30,6 +31,7 @@ import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.PersistenceItemInfo;
 import org.openhab.core.types.State;
+import org.openhab.persistence.jdbc.dto.AggregationFunction;
 import org.openhab.persistence.jdbc.dto.ItemVO;
 import org.openhab.persistence.jdbc.dto.ItemsVO;
 import org.openhab.persistence.jdbc.dto.JdbcPersistenceItemInfo;
@@ -50,8 +52,10 @@ public class JdbcMapper {
     private final TimeZoneProvider timeZoneProvider;
 
     // Error counter - used to reconnect to database on error
-    protected int errCnt;
-    protected boolean initialized = false;
+    protected volatile int errCnt;
+    protected volatile boolean initialized = false;
+    // set when queued values could not be written, until they can be written again
+    private volatile boolean storeItemValuesFailed;
     protected @NonNullByDefault({}) JdbcConfiguration conf;
     protected final Map<String, String> sqlTables = new HashMap<>();
     private long afterAccessMin = 10000;
@@ -172,6 +176,39 @@ public class JdbcMapper {
         return item;
     }
 
+    public ItemVO prepareItemValue(Item item, State itemState, @Nullable ZonedDateTime date) {
+        logger.debug("JDBC::prepareItemValue: item={} state={} date={}", item, itemState, date);
+        String tableName = getTable(item);
+        return conf.getDBDAO().doPrepareItemValue(item, itemState, new ItemVO(tableName, null), date);
+    }
+
+    public void storeItemValues(String tableName, List<ItemVO> vol) throws SQLException {
+        logger.debug("JDBC::storeItemValues: table={} rows={}", tableName, vol.size());
+        long timerStart = System.currentTimeMillis();
+        conf.getDBDAO().doStoreItemValues(tableName, vol);
+        logTime("storeItemValues", timerStart, System.currentTimeMillis());
+        errCnt = 0;
+        if (storeItemValuesFailed) {
+            storeItemValuesFailed = false;
+            initialized = true;
+        }
+    }
+
+    /**
+     * Counts a failed write of queued values. Until values can be written again, the connection is checked before
+     * values are stored.
+     */
+    public void storeItemValuesFailed() {
+        errCnt++;
+        storeItemValuesFailed = true;
+        initialized = false;
+    }
+
+    public @Nullable ZonedDateTime getDbNow() {
+        logger.debug("JDBC::getDbNow");
+        return conf.getDBDAO().doGetNow();
+    }
+
     public List<HistoricItem> getHistItemFilterQuery(FilterCriteria filter, int numberDecimalcount, String table,
             Item item) {
         logger.debug(
@@ -185,6 +222,28 @@ public class JdbcMapper {
         return result;
     }
 
+    public Iterable<HistoricItem> getHistItemFilterQueryStream(FilterCriteria filter, int numberDecimalcount,
+            String table, Item item, int fetchSize) {
+        logger.debug("JDBC::getHistItemFilterQueryStream table='{}' itemName='{}' fetchSize={}", table,
+                item.getName(), fetchSize);
+        Iterable<HistoricItem> result = conf.getDBDAO().doGetHistItemFilterQueryStream(item, filter,
+                numberDecimalcount, table, item.getName(), timeZoneProvider.getTimeZone(), fetchSize);
+        errCnt = 0;
+        return result;
+    }
+
+    public List<HistoricItem> getAggregatedItemFilterQuery(FilterCriteria filter, int numberDecimalcount, String table,
+            Item item, long bucketSeconds, AggregationFunction aggregation) {
+        logger.debug("JDBC::getAggregatedItemFilterQuery table='{}' itemName='{}' bucketSeconds={} aggregation={}",
+                table, item.getName(), bucketSeconds, aggregation);
+        long timerStart = System.currentTimeMillis();
+        List<HistoricItem> result = conf.getDBDAO().doGetAggregatedItemFilterQuery(item, filter, numberDecimalcount,
+                table, bucketSeconds, aggregation, timeZoneProvider.getTimeZone());
+        logTime("getAggregatedItemFilterQuery", timerStart, System.currentTimeMillis());
+        errCnt = 0;
+        return result;
+    }
+
     public boolean deleteItemValues(FilterCriteria filter, String table) {
         logger.debug("JDBC::deleteItemValues filter='{}' table='{}' itemName='{}'", true, table, filter.getItemName());
         long timerStart = System.currentTimeMillis();
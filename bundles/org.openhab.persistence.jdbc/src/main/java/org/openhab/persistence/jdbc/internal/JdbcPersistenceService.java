@@ -12,6 +12,7 @@
  */
 package org.openhab.persistence.jdbc.internal;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.Date;
 import java.util.List;
@@ -27,6 +28,7 @@ import org.openhab.core.items.GroupItem;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
 import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.library.items.NumberItem;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.ModifiablePersistenceService;
@@ -66,6 +68,8 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
 
     private final ItemRegistry itemRegistry;
 
+    private @Nullable JdbcWriteQueue writeQueue;
+
     @Activate
     public JdbcPersistenceService(final @Reference ItemRegistry itemRegistry,
             final @Reference TimeZoneProvider timeZoneProvider) {
@@ -110,6 +114,7 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
     public void deactivate(final int reason) {
         logger.debug("JDBC::deactivate:  persistence bundle stopping. Disconnecting from database. reason={}", reason);
         // closeConnection();
+        closeWriteQueue();
         initialized = false;
     }
 
@@ -153,6 +158,14 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
             return;
         }
         long timerStart = System.currentTimeMillis();
+        JdbcWriteQueue writeQueue = this.writeQueue;
+        if (writeQueue != null) {
+            // values without a date are stamped with the time of the database when they are written
+            writeQueue.add(prepareItemValue(item, state, date));
+            logger.debug("JDBC: Queued item '{}' as '{}' in {} ms.", item.getName(), state,
+                    System.currentTimeMillis() - timerStart);
+            return;
+        }
         storeItemValue(item, state, date);
         if (logger.isDebugEnabled()) {
             logger.debug("JDBC: Stored item '{}' as '{}' in SQL database at {} in {} ms.", item.getName(), state,
@@ -212,8 +225,19 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
             return List.of();
         }
 
+        flushWriteQueue();
         long timerStart = System.currentTimeMillis();
-        List<HistoricItem> items = getHistItemFilterQuery(filter, conf.getNumberDecimalcount(), table, item);
+        long bucketSeconds = getAggregationBucketSeconds(filter, item);
+        int fetchSize = conf.getQueryFetchSize();
+        if (bucketSeconds == 0 && fetchSize > 0 && filter.getPageSize() == Integer.MAX_VALUE) {
+            // unpaged queries may return huge results, they are read in chunks while iterating
+            logger.debug("JDBC: Query for item '{}' is read in chunks of {} rows", itemName, fetchSize);
+            return getHistItemFilterQueryStream(filter, conf.getNumberDecimalcount(), table, item, fetchSize);
+        }
+        List<HistoricItem> items = bucketSeconds > 0
+                ? getAggregatedItemFilterQuery(filter, conf.getNumberDecimalcount(), table, item, bucketSeconds,
+                        conf.getAggregationFunction())
+                : getHistItemFilterQuery(filter, conf.getNumberDecimalcount(), table, item);
         if (logger.isDebugEnabled()) {
             logger.debug("JDBC: Query for item '{}' returned {} rows in {} ms", itemName, items.size(),
                     System.currentTimeMillis() - timerStart);
@@ -224,14 +248,48 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
         return items;
     }
 
+    /**
+     * Returns the size of the time buckets the query should be aggregated into, or 0 if the raw values should be
+     * returned.
+     *
+     * Chart queries cannot be told apart from the queries of persistence extensions (e.g. sumSince or averageSince),
+     * both have a begin and end date and no page size. So aggregation is enabled explicitly by 'aggregationMaxPoints',
+     * and only applies to unpaged queries of number items spanning at least 'aggregationMinRange' hours, which hold
+     * more than 'aggregationMaxPoints' seconds. Shorter ranges, e.g. of persistence extensions looking back a few
+     * hours, and paged queries get the raw values. The result then contains at most 'aggregationMaxPoints' values
+     * covering the whole time range.
+     */
+    long getAggregationBucketSeconds(FilterCriteria filter, Item item) {
+        int maxPoints = conf.getAggregationMaxPoints();
+        ZonedDateTime beginDate = filter.getBeginDate();
+        ZonedDateTime endDate = filter.getEndDate();
+        if (maxPoints <= 0 || !(item instanceof NumberItem) || filter.getPageSize() != Integer.MAX_VALUE
+                || filter.getPageNumber() != 0 || beginDate == null || endDate == null
+                || !conf.getDBDAO().isAggregationSupported()) {
+            return 0;
+        }
+        long seconds = Duration.between(beginDate, endDate).getSeconds();
+        if (seconds < Duration.ofHours(conf.getAggregationMinRange()).getSeconds() || seconds <= maxPoints) {
+            return 0;
+        }
+        return (seconds + maxPoints - 1) / maxPoints;
+    }
+
     public void updateConfig(Map<Object, Object> configuration) {
         logger.debug("JDBC::updateConfig");
 
+        closeWriteQueue();
         conf = new JdbcConfiguration(configuration);
         if (conf.valid && checkDBAccessability()) {
             checkDBSchema();
             // connection has been established ... initialization completed!
             initialized = true;
+            if (conf.isBatchEnabled()) {
+                logger.debug("JDBC::updateConfig: batching enabled, batchSize={} batchFlushInterval={} ms",
+                        conf.getBatchSize(), conf.getBatchFlushInterval());
+                writeQueue = new JdbcWriteQueue(this, conf.getBatchSize(), conf.getBatchFlushInterval(),
+                        conf.getBatchQueueCapacity());
+            }
         } else {
             initialized = false;
         }
@@ -239,6 +297,21 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
         logger.debug("JDBC::updateConfig: configuration complete for service={}.", getId());
     }
 
+    private void flushWriteQueue() {
+        JdbcWriteQueue writeQueue = this.writeQueue;
+        if (writeQueue != null) {
+            writeQueue.flush();
+        }
+    }
+
+    private void closeWriteQueue() {
+        JdbcWriteQueue writeQueue = this.writeQueue;
+        if (writeQueue != null) {
+            this.writeQueue = null;
+            writeQueue.close();
+        }
+    }
+
     @Override
     public List<PersistenceStrategy> getDefaultStrategies() {
         return List.of(PersistenceStrategy.Globals.CHANGE);
@@ -265,6 +338,7 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
             return false;
         }
 
+        flushWriteQueue();
         long timerStart = System.currentTimeMillis();
         boolean result = deleteItemValues(filter, table);
         if (logger.isDebugEnabled()) {
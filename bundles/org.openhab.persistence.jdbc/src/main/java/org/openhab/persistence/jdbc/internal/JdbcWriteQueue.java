@@ -0,0 +1,271 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.NamedThreadFactory;
+import org.openhab.persistence.jdbc.dto.ItemVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-behind queue collecting prepared item values and writing them grouped per item table.
+ *
+ * The queue is bounded. If it is full, the storing thread flushes the queue itself, which slows down producers
+ * instead of dropping values. The queue is flushed when it reaches the configured batch size, periodically after
+ * the configured flush interval and when it is closed.
+ *
+ * Values without a time are stamped with the time of the database when they are written, moved back by the time
+ * they spent in the queue.
+ *
+ * If a multi-row insert is rejected, the values of the table are stored one by one, so a single rejected value (e.g.
+ * a duplicate) does not discard the others. Rejected values are dropped like values which are stored directly. If the
+ * database cannot be reached, the values are kept and written first by the next flush, up to the capacity of the
+ * queue, and the connection is checked before further values are stored.
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcWriteQueue {
+    private final Logger logger = LoggerFactory.getLogger(JdbcWriteQueue.class);
+
+    private final JdbcMapper mapper;
+    private final int batchSize;
+    private final int capacity;
+    private final BlockingQueue<QueuedValue> queue;
+    // values which could not be written because of connection problems, guarded by flushLock
+    private final Deque<QueuedValue> retained = new ArrayDeque<>();
+    private final ScheduledExecutorService scheduler = Executors
+            .newSingleThreadScheduledExecutor(new NamedThreadFactory("JDBC-writer"));
+    private final AtomicBoolean flushPending = new AtomicBoolean();
+    private final Object flushLock = new Object();
+
+    private static class QueuedValue {
+        private final ItemVO vo;
+        private final long queuedMillis;
+
+        private QueuedValue(ItemVO vo, long queuedMillis) {
+            this.vo = vo;
+            this.queuedMillis = queuedMillis;
+        }
+    }
+
+    public JdbcWriteQueue(JdbcMapper mapper, int batchSize, int flushInterval, int capacity) {
+        this.mapper = mapper;
+        this.batchSize = batchSize;
+        this.capacity = Math.max(capacity, batchSize);
+        this.queue = new ArrayBlockingQueue<>(this.capacity);
+        scheduler.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Adds a prepared value to the queue. Values without a time are stamped when they are written.
+     *
+     * @param vo the prepared value
+     */
+    public void add(ItemVO vo) {
+        QueuedValue value = new QueuedValue(vo, System.currentTimeMillis());
+        while (!queue.offer(value)) {
+            logger.debug("JDBC::JdbcWriteQueue: queue is full, flushing on the calling thread");
+            flush();
+        }
+        if (queue.size() >= batchSize && !scheduler.isShutdown() && flushPending.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                flushPending.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Writes all queued values to the database and returns when they have been written.
+     *
+     * @return true if all values were written, false if values were dropped or kept for the next flush
+     */
+    public boolean flush() {
+        synchronized (flushLock) {
+            List<QueuedValue> pending = new ArrayList<>(retained.size() + queue.size());
+            pending.addAll(retained);
+            retained.clear();
+            queue.drainTo(pending);
+            if (pending.isEmpty()) {
+                return true;
+            }
+            stampTimes(pending);
+
+            // group per table, keep insertion order and only the last value per timestamp
+            Map<String, Map<Long, QueuedValue>> tables = new LinkedHashMap<>();
+            for (QueuedValue value : pending) {
+                tables.computeIfAbsent(value.vo.getTableName(), k -> new LinkedHashMap<>())
+                        .put(value.vo.getTime().getTime(), value);
+            }
+
+            List<QueuedValue> unwritten = new ArrayList<>();
+            int dropped = 0;
+            @Nullable
+            Exception lastError = null;
+            for (Map.Entry<String, Map<Long, QueuedValue>> entry : tables.entrySet()) {
+                List<QueuedValue> values = new ArrayList<>(entry.getValue().values());
+                if (!unwritten.isEmpty()) {
+                    // the database is not reachable, don't wait for a connection once per table
+                    unwritten.addAll(values);
+                    continue;
+                }
+                try {
+                    mapper.storeItemValues(entry.getKey(), toItemVOs(values));
+                    continue;
+                } catch (SQLException | RuntimeException e) {
+                    lastError = e;
+                    if (isConnectionError(e)) {
+                        unwritten.addAll(values);
+                        continue;
+                    }
+                }
+                if (values.size() == 1) {
+                    dropped++;
+                    continue;
+                }
+                logger.debug("JDBC::JdbcWriteQueue: storing {} values in table '{}' failed, storing them one by one",
+                        values.size(), entry.getKey());
+                for (int i = 0; i < values.size(); i++) {
+                    QueuedValue value = values.get(i);
+                    try {
+                        mapper.storeItemValues(entry.getKey(), List.of(value.vo));
+                    } catch (SQLException | RuntimeException e) {
+                        lastError = e;
+                        if (isConnectionError(e)) {
+                            unwritten.addAll(values.subList(i, values.size()));
+                            break;
+                        }
+                        logger.debug("JDBC::JdbcWriteQueue: value {} was rejected: {}", value.vo, e.getMessage());
+                        dropped++;
+                    }
+                }
+            }
+
+            String error = lastError != null ? lastError.getMessage() : "";
+            if (dropped > 0) {
+                logger.warn("JDBC::JdbcWriteQueue: dropped {} of {} values which were rejected by the database: {}",
+                        dropped, pending.size(), error);
+            }
+            if (!unwritten.isEmpty()) {
+                mapper.storeItemValuesFailed();
+                retain(unwritten);
+                logger.warn("JDBC::JdbcWriteQueue: failed to store {} values, keeping them for the next attempt: {}",
+                        unwritten.size(), error);
+            }
+            logger.debug("JDBC::JdbcWriteQueue: flushed {} values of {} tables", pending.size(), tables.size());
+            return dropped == 0 && unwritten.isEmpty();
+        }
+    }
+
+    /**
+     * @return the number of values waiting to be written
+     */
+    public int size() {
+        synchronized (flushLock) {
+            return retained.size() + queue.size();
+        }
+    }
+
+    /**
+     * Stops the periodic flushing and writes all remaining values.
+     */
+    public void close() {
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("JDBC::JdbcWriteQueue: writer did not terminate in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!flush()) {
+            int remaining = size();
+            if (remaining > 0) {
+                logger.warn("JDBC::JdbcWriteQueue: {} values could not be stored before closing", remaining);
+            }
+        }
+    }
+
+    private void stampTimes(List<QueuedValue> values) {
+        if (values.stream().allMatch(value -> value.vo.getTime() != null)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long dbNow;
+        try {
+            ZonedDateTime dbTime = mapper.getDbNow();
+            dbNow = dbTime != null ? dbTime.toInstant().toEpochMilli() : now;
+        } catch (RuntimeException e) {
+            logger.debug("JDBC::JdbcWriteQueue: failed to get the time of the database: {}", e.getMessage());
+            dbNow = now;
+        }
+        for (QueuedValue value : values) {
+            if (value.vo.getTime() == null) {
+                value.vo.setTime(new java.sql.Timestamp(dbNow - (now - value.queuedMillis)));
+            }
+        }
+    }
+
+    private void retain(List<QueuedValue> values) {
+        retained.addAll(values);
+        int dropped = 0;
+        while (retained.size() > capacity) {
+            retained.removeFirst();
+            dropped++;
+        }
+        if (dropped > 0) {
+            logger.warn("JDBC::JdbcWriteQueue: dropped the {} oldest values, more than {} values are waiting", dropped,
+                    capacity);
+        }
+    }
+
+    private static List<ItemVO> toItemVOs(List<QueuedValue> values) {
+        return values.stream().map(value -> value.vo).collect(Collectors.toList());
+    }
+
+    /**
+     * Tests if the values could not be written because the database is not reachable, as opposed to values rejected
+     * by the database. Unexpected exceptions are treated like connection errors, so the values are not lost.
+     */
+    private static boolean isConnectionError(Exception e) {
+        if (!(e instanceof SQLException) || e instanceof SQLTransientConnectionException
+                || e instanceof SQLNonTransientConnectionException || e instanceof SQLRecoverableException) {
+            return true;
+        }
+        String sqlState = ((SQLException) e).getSQLState();
+        // SQL state class 08: connection exception
+        return sqlState != null && sqlState.startsWith("08");
+    }
+}
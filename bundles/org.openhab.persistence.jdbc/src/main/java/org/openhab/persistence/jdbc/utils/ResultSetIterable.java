@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.utils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+import javax.sql.DataSource;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Iterable reading the rows of a query in chunks while iterating.
+ *
+ * Every chunk is read by its own statement returning at most {@code chunkSize} rows, on a connection which is given
+ * back to the pool as soon as the chunk has been read. So only one chunk is held in memory and no connection is held
+ * between two calls of the iterator, iterators may be abandoned at any time.
+ *
+ * The chunks are paged by key: the first column of the rows is a unique key the query is ordered by, and every chunk
+ * after the first one starts after the key of the last row read. So the database seeks to the start of every chunk
+ * through the index of the key instead of skipping all rows read before, like an offset would.
+ *
+ * If reading a chunk fails, the iterator throws an {@link IllegalStateException} instead of ending silently.
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class ResultSetIterable<T> implements Iterable<T> {
+    private final Logger logger = LoggerFactory.getLogger(ResultSetIterable.class);
+
+    private final DataSource dataSource;
+    private final String firstSql;
+    private final Object[] firstParams;
+    private final String nextSql;
+    private final Function<Object, Object[]> nextParams;
+    private final int chunkSize;
+    private final Function<Object[], T> rowMapper;
+
+    /**
+     * @param dataSource the pool providing a connection for every chunk
+     * @param firstSql the statement reading the first chunk
+     * @param firstParams the parameters of the first statement
+     * @param nextSql the statement reading the chunk following the key of the last row read
+     * @param nextParams provides the parameters of the next statement for the key of the last row read
+     * @param chunkSize the maximum number of rows returned by a statement
+     * @param rowMapper converts the columns of a row
+     */
+    public ResultSetIterable(DataSource dataSource, String firstSql, Object[] firstParams, String nextSql,
+            Function<Object, Object[]> nextParams, int chunkSize, Function<Object[], T> rowMapper) {
+        this.dataSource = dataSource;
+        this.firstSql = firstSql;
+        this.firstParams = firstParams;
+        this.nextSql = nextSql;
+        this.nextParams = nextParams;
+        this.chunkSize = chunkSize;
+        this.rowMapper = rowMapper;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new ChunkIterator();
+    }
+
+    private class ChunkIterator implements Iterator<T> {
+        private final Deque<T> chunk = new ArrayDeque<>();
+        private @Nullable Object lastKey;
+        private boolean lastChunk;
+
+        @Override
+        public boolean hasNext() {
+            if (chunk.isEmpty() && !lastChunk) {
+                readChunk();
+            }
+            return !chunk.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return chunk.removeFirst();
+        }
+
+        private void readChunk() {
+            Object key = lastKey;
+            String sql = key == null ? firstSql : nextSql;
+            Object[] params = key == null ? firstParams : nextParams.apply(key);
+            int rows = 0;
+            try (Connection connection = dataSource.getConnection();
+                    PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    statement.setObject(i + 1, params[i]);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        Object[] columns = new Object[] { resultSet.getObject(1), resultSet.getObject(2) };
+                        chunk.add(rowMapper.apply(columns));
+                        lastKey = columns[0];
+                        rows++;
+                    }
+                }
+            } catch (SQLException e) {
+                lastChunk = true;
+                chunk.clear();
+                throw new IllegalStateException("JDBC::ResultSetIterable: reading results of query '" + sql
+                        + "' failed: " + e.getMessage(), e);
+            }
+            lastChunk = rows < chunkSize;
+            logger.trace("JDBC::ResultSetIterable: read {} rows following key {}", rows, key);
+        }
+    }
+}
@@ -55,6 +55,7 @@ import org.openhab.core.library.unit.SIUnits;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.core.types.State;
+import org.openhab.persistence.jdbc.dto.AggregationFunction;
 
 /**
  * Tests the {@link JdbcBaseDAO}.
@@ -205,9 +206,18 @@ public class JdbcBaseDAOTest {
         filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
 
         String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID);
-        assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME + " WHERE TIME>'" //
-                + JdbcBaseDAO.JDBC_DATE_FORMAT.format(filter.getBeginDate()) + "'" //
-                + " AND TIME<'" + JdbcBaseDAO.JDBC_DATE_FORMAT.format(filter.getEndDate()) + "' ORDER BY time DESC"));
+        assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME + " WHERE TIME>? AND TIME<? ORDER BY time DESC"));
+    }
+
+    @Test
+    public void testHistItemFilterQueryProviderReturnsSameQueryForDifferentDates() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID);
+        String shape = jdbcBaseDAO.filterShape(filter);
+
+        filter.setBeginDate(parseDateTimeString("2022-02-11T16:02:45"));
+        assertThat(jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID), is(sql));
+        assertThat(jdbcBaseDAO.filterShape(filter), is(shape));
     }
 
     @Test
@@ -230,9 +240,72 @@ public class JdbcBaseDAOTest {
         filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
 
         String sql = jdbcBaseDAO.histItemFilterDeleteProvider(filter, DB_TABLE_NAME, UTC_ZONE_ID);
-        assertThat(sql, is("DELETE FROM " + DB_TABLE_NAME + " WHERE TIME>'" //
-                + JdbcBaseDAO.JDBC_DATE_FORMAT.format(filter.getBeginDate()) + "'" //
-                + " AND TIME<'" + JdbcBaseDAO.JDBC_DATE_FORMAT.format(filter.getEndDate()) + "'"));
+        assertThat(sql, is("DELETE FROM " + DB_TABLE_NAME + " WHERE TIME>? AND TIME<?"));
+    }
+
+    @Test
+    public void testStoreItemValuesProviderReturnsMultiRowInsert() {
+        String sql = jdbcBaseDAO.storeItemValuesProvider(DB_TABLE_NAME, "DOUBLE", 3);
+        assertThat(sql, is("INSERT INTO " + DB_TABLE_NAME + " (TIME, VALUE) VALUES ( ?, ? ),( ?, ? ),( ?, ? )"
+                + " ON DUPLICATE KEY UPDATE VALUE=VALUES(VALUE)"));
+    }
+
+    @Test
+    public void testStoreItemValuesProviderUsesDialectSpecificRows() {
+        String sql = new JdbcPostgresqlDAO().storeItemValuesProvider(DB_TABLE_NAME, "DOUBLE PRECISION", 2);
+        assertThat(sql, is("INSERT INTO " + DB_TABLE_NAME
+                + " (TIME, VALUE) VALUES ( ?, CAST( ? as DOUBLE PRECISION) ),( ?, CAST( ? as DOUBLE PRECISION) )"));
+    }
+
+    @Test
+    public void testAggregatedItemFilterQueryProviderReturnsGroupedQuery() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+        filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
+        filter.setOrdering(Ordering.ASCENDING);
+
+        String sql = jdbcBaseDAO.aggregatedItemFilterQueryProvider(filter, DB_TABLE_NAME, 3600, AggregationFunction.AVG,
+                UTC_ZONE_ID);
+        assertThat(sql, is("SELECT MIN(time), AVG(value) FROM " + DB_TABLE_NAME
+                + " WHERE TIME>? AND TIME<? GROUP BY FLOOR(UNIX_TIMESTAMP(time) / 3600) ORDER BY 1 ASC"));
+    }
+
+    @Test
+    public void testAggregatedItemFilterQueryProviderReturnsLastValuePerBucket() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+
+        String sql = jdbcBaseDAO.aggregatedItemFilterQueryProvider(filter, DB_TABLE_NAME, 60, AggregationFunction.LAST,
+                UTC_ZONE_ID);
+        assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME + " WHERE time IN (SELECT MAX(time) FROM "
+                + DB_TABLE_NAME + " WHERE TIME>? GROUP BY FLOOR(UNIX_TIMESTAMP(time) / 60)) ORDER BY time DESC"));
+    }
+
+    @Test
+    public void testAggregatedItemFilterQueryProviderUsesTimeBucketForTimescaleDB() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+        filter.setOrdering(Ordering.ASCENDING);
+
+        String sql = new JdbcTimescaledbDAO().aggregatedItemFilterQueryProvider(filter, DB_TABLE_NAME, 900,
+                AggregationFunction.MAX, UTC_ZONE_ID);
+        assertThat(sql, is("SELECT time_bucket(INTERVAL '900 seconds', time) AS bucket, MAX(value) FROM "
+                + DB_TABLE_NAME + " WHERE TIME>? GROUP BY bucket ORDER BY bucket ASC"));
+    }
+
+    @Test
+    public void testAggregateAsStateConvertsNumericAggregates() {
+        State state = jdbcBaseDAO.aggregateAsState(new NumberItem("testNumberItem"), null,
+                new java.math.BigDecimal("7.25"), -1);
+        assertEquals(new DecimalType(7.25), state);
+        state = jdbcBaseDAO.aggregateAsState(new NumberItem("testNumberItem"), SIUnits.CELSIUS, 7, -1);
+        assertEquals(QuantityType.valueOf(7, SIUnits.CELSIUS), state);
+    }
+
+    @Test
+    public void testAggregateAsStateRoundsToDecimalCount() {
+        State state = jdbcBaseDAO.aggregateAsState(new NumberItem("testNumberItem"), null, 7.123456, 3);
+        assertEquals(new DecimalType(new java.math.BigDecimal("7.123")), state);
+        state = jdbcBaseDAO.aggregateAsState(new NumberItem("testNumberItem"), SIUnits.CELSIUS,
+                new java.math.BigDecimal("21.2555"), 2);
+        assertEquals(new QuantityType<>(new java.math.BigDecimal("21.26"), SIUnits.CELSIUS), state);
     }
 
     @Test
@@ -246,7 +319,7 @@ public class JdbcBaseDAOTest {
         filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
 
         String sql = jdbcBaseDAO.resolveTimeFilter(filter, UTC_ZONE_ID);
-        assertThat(sql, is(" WHERE TIME>'" + JdbcBaseDAO.JDBC_DATE_FORMAT.format(filter.getBeginDate()) + "'"));
+        assertThat(sql, is(" WHERE TIME>?"));
     }
 
     @Test
@@ -254,7 +327,7 @@ public class JdbcBaseDAOTest {
         filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
 
         String sql = jdbcBaseDAO.resolveTimeFilter(filter, UTC_ZONE_ID);
-        assertThat(sql, is(" WHERE TIME<'" + JdbcBaseDAO.JDBC_DATE_FORMAT.format(filter.getEndDate()) + "'"));
+        assertThat(sql, is(" WHERE TIME<?"));
     }
 
     @Test
@@ -263,8 +336,27 @@ public class JdbcBaseDAOTest {
         filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
 
         String sql = jdbcBaseDAO.resolveTimeFilter(filter, UTC_ZONE_ID);
-        assertThat(sql, is(" WHERE TIME>'" + JdbcBaseDAO.JDBC_DATE_FORMAT.format(filter.getBeginDate()) + "'" //
-                + " AND TIME<'" + JdbcBaseDAO.JDBC_DATE_FORMAT.format(filter.getEndDate()) + "'"));
+        assertThat(sql, is(" WHERE TIME>? AND TIME<?"));
+    }
+
+    @Test
+    public void testHistItemFilterParamsReturnsDatesInTimeZone() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+        filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
+
+        Object[] params = jdbcBaseDAO.histItemFilterParams(filter, ZoneId.of("Europe/Berlin"));
+        assertThat(params.length, is(2));
+        assertEquals("2022-01-10 16:01:44", params[0]);
+        assertEquals("2022-01-15 16:01:44", params[1]);
+    }
+
+    @Test
+    public void testResolveTimeFilterCastsParametersForPostgresql() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+        filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
+
+        String sql = new JdbcPostgresqlDAO().resolveTimeFilter(filter, UTC_ZONE_ID);
+        assertThat(sql, is(" WHERE TIME>CAST(? AS TIMESTAMP) AND TIME<CAST(? AS TIMESTAMP)"));
     }
 
     private ZonedDateTime parseDateTimeString(String dts) {
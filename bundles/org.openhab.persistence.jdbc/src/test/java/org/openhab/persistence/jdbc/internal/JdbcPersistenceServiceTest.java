@@ -12,20 +12,28 @@
  */
 package org.openhab.persistence.jdbc.internal;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.ZonedDateTime;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.openhab.core.i18n.TimeZoneProvider;
 import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.items.StringItem;
 import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.persistence.jdbc.db.JdbcBaseDAO;
 
 /**
  * Tests the {@link JdbcPersistenceService}.
  *
  * @author Christoph Weitkamp - Initial contribution
+ * @author Agent - Test which queries are aggregated
  */
 @NonNullByDefault
 public class JdbcPersistenceServiceTest {
@@ -48,4 +56,62 @@ public class JdbcPersistenceServiceTest {
     void removeThrowsIllegalArgumentExceptionIfItemNameOfFilterIsNull() {
         assertThrows(IllegalArgumentException.class, () -> jdbcPersistenceService.remove(filter));
     }
+
+    @Test
+    void onlyUnpagedQueriesOfLongRangesAreAggregated() {
+        JdbcConfiguration conf = mock(JdbcConfiguration.class);
+        JdbcBaseDAO dao = mock(JdbcBaseDAO.class);
+        when(conf.getAggregationMaxPoints()).thenReturn(100);
+        when(conf.getAggregationMinRange()).thenReturn(24);
+        when(conf.getDBDAO()).thenReturn(dao);
+        when(dao.isAggregationSupported()).thenReturn(true);
+        jdbcPersistenceService.conf = conf;
+        NumberItem item = new NumberItem("item");
+        ZonedDateTime end = ZonedDateTime.now();
+        filter.setItemName("item");
+        filter.setBeginDate(end.minusDays(1));
+        filter.setEndDate(end);
+
+        // charts query without a page size
+        assertEquals(864, jdbcPersistenceService.getAggregationBucketSeconds(filter, item));
+        assertEquals(0, jdbcPersistenceService.getAggregationBucketSeconds(filter, new StringItem("item")));
+
+        // persistence extensions like sumSince looking back a few hours need the raw values
+        filter.setBeginDate(end.minusHours(1));
+        assertEquals(0, jdbcPersistenceService.getAggregationBucketSeconds(filter, item));
+
+        // paged queries, e.g. of the REST API, get the raw values
+        filter.setBeginDate(end.minusDays(1));
+        filter.setPageSize(100);
+        assertEquals(0, jdbcPersistenceService.getAggregationBucketSeconds(filter, item));
+
+        filter.setPageSize(Integer.MAX_VALUE);
+        filter.setPageNumber(1);
+        assertEquals(0, jdbcPersistenceService.getAggregationBucketSeconds(filter, item));
+    }
+
+    @Test
+    void onlyQueriesOfBucketsLongerThanOneSecondAreAggregated() {
+        JdbcConfiguration conf = mock(JdbcConfiguration.class);
+        JdbcBaseDAO dao = mock(JdbcBaseDAO.class);
+        when(conf.getAggregationMaxPoints()).thenReturn(100);
+        when(conf.getAggregationMinRange()).thenReturn(0);
+        when(conf.getDBDAO()).thenReturn(dao);
+        when(dao.isAggregationSupported()).thenReturn(true);
+        jdbcPersistenceService.conf = conf;
+        NumberItem item = new NumberItem("item");
+        ZonedDateTime end = ZonedDateTime.now();
+        filter.setItemName("item");
+        filter.setEndDate(end);
+
+        // buckets of a single second hold the raw values anyway
+        filter.setBeginDate(end.minusSeconds(100));
+        assertEquals(0, jdbcPersistenceService.getAggregationBucketSeconds(filter, item));
+
+        filter.setBeginDate(end.minusSeconds(101));
+        assertEquals(2, jdbcPersistenceService.getAggregationBucketSeconds(filter, item));
+
+        when(dao.isAggregationSupported()).thenReturn(false);
+        assertEquals(0, jdbcPersistenceService.getAggregationBucketSeconds(filter, item));
+    }
 }
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.persistence.jdbc.dto.ItemVO;
+
+/**
+ * Tests the {@link JdbcWriteQueue}.
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcWriteQueueTest {
+
+    private @NonNullByDefault({}) JdbcMapper mapper;
+    private @NonNullByDefault({}) JdbcWriteQueue queue;
+    private final List<String> stored = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        mapper = mock(JdbcMapper.class);
+        doAnswer(invocation -> {
+            List<ItemVO> values = invocation.getArgument(1);
+            values.forEach(vo -> stored.add(vo.getTableName() + "=" + vo.getValue()));
+            return null;
+        }).when(mapper).storeItemValues(anyString(), anyList());
+        // large batch size and interval, so values are only written by explicit flushes
+        queue = new JdbcWriteQueue(mapper, 1000, 3600000, 1000);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        queue.close();
+    }
+
+    @Test
+    public void testValuesAreWrittenPerTable() throws SQLException {
+        queue.add(value("item1", 1, 1000L));
+        queue.add(value("item2", 2, 1000L));
+        queue.add(value("item1", 3, 2000L));
+
+        assertTrue(queue.flush());
+        verify(mapper, times(2)).storeItemValues(anyString(), anyList());
+        assertEquals(List.of("item1=1", "item1=3", "item2=2"), stored);
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testValuesWithoutTimeAreStampedWithDatabaseTime() {
+        ZonedDateTime dbNow = ZonedDateTime.now(ZoneId.systemDefault()).minusHours(1);
+        when(mapper.getDbNow()).thenReturn(dbNow);
+        ItemVO vo = value("item1", 1, null);
+        queue.add(vo);
+
+        assertTrue(queue.flush());
+        long stamped = vo.getTime().getTime();
+        assertTrue(stamped <= dbNow.toInstant().toEpochMilli());
+        assertTrue(stamped > dbNow.toInstant().toEpochMilli() - 10000);
+    }
+
+    @Test
+    public void testValuesAreKeptWhileDatabaseIsNotReachable() throws SQLException {
+        doThrow(new SQLTransientConnectionException("timeout")).when(mapper).storeItemValues(anyString(), anyList());
+        queue.add(value("item1", 1, 1000L));
+        queue.add(value("item2", 2, 1000L));
+
+        assertFalse(queue.flush());
+        // the second table is not tried once the database turned out to be unreachable
+        verify(mapper, times(1)).storeItemValues(anyString(), anyList());
+        verify(mapper).storeItemValuesFailed();
+        assertEquals(2, queue.size());
+
+        reset(mapper);
+        doAnswer(invocation -> {
+            List<ItemVO> values = invocation.getArgument(1);
+            values.forEach(vo -> stored.add(vo.getTableName() + "=" + vo.getValue()));
+            return null;
+        }).when(mapper).storeItemValues(anyString(), anyList());
+        queue.add(value("item1", 3, 2000L));
+
+        assertTrue(queue.flush());
+        assertEquals(List.of("item1=1", "item1=3", "item2=2"), stored);
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testRejectedValueDoesNotDiscardOthers() throws SQLException {
+        doAnswer(invocation -> {
+            List<ItemVO> values = invocation.getArgument(1);
+            if (values.stream().anyMatch(vo -> Integer.valueOf(2).equals(vo.getValue()))) {
+                throw new SQLIntegrityConstraintViolationException("duplicate", "23505");
+            }
+            values.forEach(vo -> stored.add(vo.getTableName() + "=" + vo.getValue()));
+            return null;
+        }).when(mapper).storeItemValues(anyString(), anyList());
+        queue.add(value("item1", 1, 1000L));
+        queue.add(value("item1", 2, 2000L));
+        queue.add(value("item1", 3, 3000L));
+
+        assertFalse(queue.flush());
+        assertEquals(List.of("item1=1", "item1=3"), stored);
+        verify(mapper, never()).storeItemValuesFailed();
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testRetainedValuesAreBoundedByCapacity() throws SQLException {
+        queue.close();
+        queue = new JdbcWriteQueue(mapper, 3, 3600000, 3);
+        doThrow(new SQLTransientConnectionException("timeout")).when(mapper).storeItemValues(anyString(), anyList());
+        for (int i = 0; i < 5; i++) {
+            queue.add(value("item" + i, i, 1000L));
+            queue.flush();
+        }
+        assertEquals(3, queue.size());
+
+        reset(mapper);
+        doAnswer(invocation -> {
+            List<ItemVO> values = invocation.getArgument(1);
+            values.forEach(vo -> stored.add(vo.getTableName() + "=" + vo.getValue()));
+            return null;
+        }).when(mapper).storeItemValues(anyString(), anyList());
+        assertTrue(queue.flush());
+        // the oldest values were dropped
+        assertEquals(List.of("item2=2", "item3=3", "item4=4"),
+                stored.stream().sorted().collect(Collectors.toList()));
+    }
+
+    private ItemVO value(String table, int value, @Nullable Long time) {
+        ItemVO vo = new ItemVO(table, null);
+        vo.setValue(value);
+        if (time != null) {
+            vo.setTime(Timestamp.from(Instant.ofEpochMilli(time)));
+        }
+        return vo;
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link ResultSetIterable}.
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class ResultSetIterableTest {
+
+    private static final int CHUNK_SIZE = 3;
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final List<Connection> connections = new ArrayList<>();
+    private final AtomicInteger closedConnections = new AtomicInteger();
+    private final List<String> statements = new ArrayList<>();
+    private final List<List<Object>> statementParams = new ArrayList<>();
+    private int rowCount;
+    private int failingStatement = -1;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        when(dataSource.getConnection()).thenAnswer(invocation -> createConnection());
+    }
+
+    @Test
+    public void testRowsAreReadInChunks() {
+        rowCount = 7;
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6), readAll(createIterable()));
+        assertEquals(List.of("first", "next", "next"), statements);
+        assertEquals(3, closedConnections.get());
+    }
+
+    @Test
+    public void testChunksStartAfterKeyOfLastRow() {
+        rowCount = 7;
+
+        readAll(createIterable());
+        assertEquals(List.of(List.of("param"), List.of("param", 2), List.of("param", 5)), statementParams);
+    }
+
+    @Test
+    public void testEmptyChunkEndsIterationIfRowsAreMultipleOfChunkSize() {
+        rowCount = 6;
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), readAll(createIterable()));
+        assertEquals(List.of("first", "next", "next"), statements);
+        assertEquals(3, closedConnections.get());
+    }
+
+    @Test
+    public void testPartialIterationHoldsNoConnection() {
+        rowCount = 100;
+        Iterator<Integer> iterator = createIterable().iterator();
+
+        assertEquals(0, iterator.next());
+        assertEquals(1, iterator.next());
+        // the iterator is abandoned here, the connection of the chunk has already been given back
+        assertEquals(1, connections.size());
+        assertEquals(1, closedConnections.get());
+    }
+
+    @Test
+    public void testIteratorsAreIndependent() {
+        rowCount = 4;
+        ResultSetIterable<Integer> iterable = createIterable();
+        Iterator<Integer> first = iterable.iterator();
+        assertEquals(0, first.next());
+
+        assertEquals(List.of(0, 1, 2, 3), readAll(iterable));
+        assertEquals(1, first.next());
+        assertEquals(connections.size(), closedConnections.get());
+    }
+
+    @Test
+    public void testFailingChunkIsReported() {
+        rowCount = 100;
+        failingStatement = 1;
+        Iterator<Integer> iterator = createIterable().iterator();
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            assertEquals(i, iterator.next());
+        }
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, iterator::hasNext);
+        assertInstanceOf(SQLException.class, e.getCause());
+        assertFalse(iterator.hasNext());
+        assertEquals(2, closedConnections.get());
+    }
+
+    private ResultSetIterable<Integer> createIterable() {
+        return new ResultSetIterable<>(dataSource, "first", new Object[] { "param" }, "next",
+                key -> new Object[] { "param", key }, CHUNK_SIZE, row -> (Integer) row[1]);
+    }
+
+    private List<Integer> readAll(Iterable<Integer> iterable) {
+        List<Integer> values = new ArrayList<>();
+        iterable.forEach(values::add);
+        return values;
+    }
+
+    private Connection createConnection() throws SQLException {
+        Connection connection = mock(Connection.class);
+        connections.add(connection);
+        doAnswer(invocation -> closedConnections.incrementAndGet()).when(connection).close();
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> {
+            statements.add(invocation.getArgument(0));
+            return createStatement();
+        });
+        return connection;
+    }
+
+    private PreparedStatement createStatement() throws SQLException {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        List<Object> params = new ArrayList<>();
+        statementParams.add(params);
+        doAnswer(invocation -> params.add(invocation.getArgument(1))).when(statement).setObject(anyInt(), any());
+        if (statementParams.size() - 1 == failingStatement) {
+            when(statement.executeQuery()).thenThrow(new SQLException("connection lost", "08006"));
+            return statement;
+        }
+        // the rows have the keys 0 to rowCount - 1, the next statements start after the bound key
+        when(statement.executeQuery()).thenAnswer(invocation -> {
+            int first = params.size() > 1 ? (Integer) params.get(1) + 1 : 0;
+            int last = Math.min(first + CHUNK_SIZE, rowCount);
+            AtomicInteger row = new AtomicInteger(first - 1);
+            ResultSet resultSet = mock(ResultSet.class);
+            when(resultSet.next()).thenAnswer(next -> row.incrementAndGet() < last);
+            when(resultSet.getObject(anyInt())).thenAnswer(column -> row.get());
+            return resultSet;
+        });
+        return statement;
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.openhab.core.library.types.DateTimeType;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.library.types.UpDownType;
+import org.openhab.core.library.unit.SIUnits;
+import org.openhab.core.types.State;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+import org.openhab.persistence.mapdb.internal.MapDbItemCodec;
+
+/**
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbItemCodecTest {
+
+    @ParameterizedTest
+    @MethodSource
+    public void encodeDecodeRoundtripShouldRecreateTheItem(State state) {
+        MapDbItem item = new MapDbItem();
+        item.setName("item");
+        item.setState(state);
+        item.setTimestamp(new Date(1558302027124L));
+
+        MapDbItem actual = Objects.requireNonNull(MapDbItemCodec.decode("item", MapDbItemCodec.encode(item)));
+        assertThat(actual.getName(), is("item"));
+        assertThat(actual.getState(), is(equalTo(state)));
+        assertThat(actual.getState().getClass(), is(equalTo(state.getClass())));
+        assertThat(actual.getTimestamp(), is(equalTo(item.getTimestamp())));
+    }
+
+    public static Stream<State> encodeDecodeRoundtripShouldRecreateTheItem() {
+        return Stream.of(DecimalType.ZERO, new DecimalType(1.123), new DecimalType(new BigDecimal("-1E+400")),
+                PercentType.valueOf("99.999"), HSBType.fromRGB(11, 22, 33),
+                new QuantityType<>(new BigDecimal("21.23"), SIUnits.CELSIUS), OnOffType.ON, OnOffType.OFF,
+                OpenClosedType.OPEN, OpenClosedType.CLOSED, StringType.valueOf("@@@###   @@@"), StringType.valueOf(""),
+                new DateTimeType(ZonedDateTime.of(2022, 10, 1, 12, 30, 15, 123456789, ZoneId.of("Europe/Berlin"))),
+                UpDownType.DOWN);
+    }
+
+    @Test
+    public void encodedDecimalIsCompact() {
+        MapDbItem item = new MapDbItem();
+        item.setName("item");
+        item.setState(new DecimalType(21.5));
+
+        // version, timestamp, tag, scale, length and two bytes unscaled value
+        assertThat(MapDbItemCodec.encode(item).length, is(1 + 8 + 1 + 4 + 2 + 2));
+    }
+
+    @Test
+    public void invalidDataIsNotDecoded() {
+        assertThat(MapDbItemCodec.decode("item", new byte[] { 1, 2, 3 }), is(nullValue()));
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.library.items.StringItem;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.core.persistence.PersistenceItemInfo;
+import org.openhab.core.types.State;
+import org.openhab.persistence.mapdb.internal.MapDbPersistenceService;
+
+/**
+ * Tests the in-memory index of the {@link MapDbPersistenceService}.
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbPersistenceServiceTest {
+
+    private static @Nullable Path userDataFolder;
+
+    private @NonNullByDefault({}) MapDbPersistenceService service;
+
+    @BeforeAll
+    public static void setUpUserDataFolder() throws IOException {
+        // the database location is resolved once, when the service class is initialized
+        Path folder = Files.createTempDirectory("mapdb-test");
+        folder.toFile().deleteOnExit();
+        System.setProperty("openhab.userdata", folder.toString());
+        userDataFolder = folder;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        service = activate();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        service.deactivate();
+        Path folder = userDataFolder;
+        if (folder != null) {
+            try (Stream<Path> files = Files.walk(folder.resolve("persistence"))) {
+                files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @Test
+    public void storedStateIsQueriedFromIndex() {
+        store(service, "item1", "value1");
+        store(service, "item1", "value2");
+        store(service, "item2", "value3");
+
+        assertThat(query(service, "item1"), is(new StringType("value2")));
+        assertThat(query(service, "item2"), is(new StringType("value3")));
+        assertThat(query(service, "unknown"), is(nullValue()));
+        assertThat(service.getItemInfo().stream().map(PersistenceItemInfo::getName).collect(Collectors.toSet()),
+                is(Set.of("item1", "item2")));
+    }
+
+    @Test
+    public void indexIsRebuiltFromDatabaseOnActivation() {
+        store(service, "item1", "value1");
+        service.deactivate();
+
+        service = activate();
+
+        assertThat(query(service, "item1"), is(new StringType("value1")));
+    }
+
+    @Test
+    public void concurrentStoresKeepIndexAndDatabaseConsistent() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                int offset = thread * 1000;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        store(service, "item", "value" + (offset + i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        State indexed = query(service, "item");
+        service.deactivate();
+
+        service = activate();
+
+        // the last state of the index is the one stored in the database
+        assertThat(query(service, "item"), is(indexed));
+    }
+
+    private static MapDbPersistenceService activate() {
+        MapDbPersistenceService service = new MapDbPersistenceService();
+        service.activate(Map.of());
+        return service;
+    }
+
+    private static void store(MapDbPersistenceService service, String name, String value) {
+        StringItem item = new StringItem(name);
+        item.setState(new StringType(value));
+        service.store(item);
+    }
+
+    private static @Nullable State query(MapDbPersistenceService service, String name) {
+        FilterCriteria filter = new FilterCriteria().setItemName(name);
+        return StreamSupport.stream(service.query(filter).spliterator(), false).map(HistoricItem::getState)
+                .findFirst().orElse(null);
+    }
+}
@@ -20,7 +20,6 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
@@ -91,6 +90,7 @@ import org.slf4j.LoggerFactory;
  * @author Kai Kreuzer - Initial contribution
  * @author Jan N. Klug - some improvements
  * @author Karel Goderis - remove TimerThread dependency
+ * @author Agent - Lock databases individually
  */
 @NonNullByDefault
 @Component(service = { PersistenceService.class,
@@ -115,11 +115,18 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
     private static final RrdDbPool DATABASE_POOL = new RrdDbPool();
 
+    // number of locks the databases are distributed on, updates of databases with different locks run concurrently
+    private static final int LOCK_STRIPES = 64;
+
     private final Logger logger = LoggerFactory.getLogger(RRD4jPersistenceService.class);
 
-    private final Map<String, ScheduledFuture<?>> scheduledJobs = new HashMap<>();
+    // pending jobs storing an item again, at most one per database
+    final Map<String, ScheduledFuture<?>> scheduledJobs = new ConcurrentHashMap<>();
+
+    private final Object[] databaseLocks = new Object[LOCK_STRIPES];
 
     private final ItemRegistry itemRegistry;
+    private final Path databaseFolder;
 
     public static Path getDatabasePath(String name) {
         return DB_FOLDER.resolve(name + ".rrd");
@@ -131,7 +138,15 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
     @Activate
     public RRD4jPersistenceService(final @Reference ItemRegistry itemRegistry) {
+        this(itemRegistry, DB_FOLDER);
+    }
+
+    RRD4jPersistenceService(ItemRegistry itemRegistry, Path databaseFolder) {
         this.itemRegistry = itemRegistry;
+        this.databaseFolder = databaseFolder;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            databaseLocks[i] = new Object();
+        }
     }
 
     @Override
@@ -145,14 +160,20 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     }
 
     @Override
-    public synchronized void store(final Item item, @Nullable final String alias) {
+    public void store(final Item item, @Nullable final String alias) {
         if (!isSupportedItemType(item)) {
             logger.trace("Ignoring item '{}' since its type {} is not supported", item.getName(), item.getType());
             return;
         }
         final String name = alias == null ? item.getName() : alias;
 
-        RrdDb db = getDB(name);
+        // the last update time is checked before the samples are written, so updates of one database must not overlap
+        synchronized (getDatabaseLock(name)) {
+            store(item, name, getDB(name));
+        }
+    }
+
+    private void store(final Item item, final String name, @Nullable RrdDb db) {
         if (db == null) {
             return;
         }
@@ -219,14 +240,11 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         } catch (IllegalArgumentException e) {
             String message = e.getMessage();
             if (message != null && message.contains("at least one second step is required")) {
-                // we try to store the value one second later
-                ScheduledFuture<?> job = scheduledJobs.get(name);
-                if (job != null) {
-                    job.cancel(true);
-                    scheduledJobs.remove(name);
-                }
-                job = scheduler.schedule(() -> store(item, name), 1, TimeUnit.SECONDS);
-                scheduledJobs.put(name, job);
+                // we try to store the value one second later, a pending job already stores the then current state
+                scheduledJobs.computeIfAbsent(name, key -> scheduler.schedule(() -> {
+                    scheduledJobs.remove(key);
+                    store(item, key);
+                }, 1, TimeUnit.SECONDS));
             } else {
                 logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
             }
@@ -336,9 +354,20 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         return Set.of();
     }
 
-    protected synchronized @Nullable RrdDb getDB(String alias) {
+    protected @Nullable RrdDb getDB(String alias) {
+        // the database file must only be created once
+        synchronized (getDatabaseLock(alias)) {
+            return openDB(alias);
+        }
+    }
+
+    private Object getDatabaseLock(String name) {
+        return databaseLocks[Math.floorMod(name.hashCode(), LOCK_STRIPES)];
+    }
+
+    private @Nullable RrdDb openDB(String alias) {
         RrdDb db = null;
-        Path path = getDatabasePath(alias);
+        Path path = databaseFolder.resolve(alias + ".rrd");
         try {
             Builder builder = RrdDb.getBuilder();
             builder.setPool(DATABASE_POOL);
@@ -348,8 +377,8 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
                 builder.setPath(path.toString());
                 db = builder.build();
             } else {
-                if (!Files.exists(DB_FOLDER)) {
-                    Files.createDirectories(DB_FOLDER);
+                if (!Files.exists(databaseFolder)) {
+                    Files.createDirectories(databaseFolder);
                 }
                 RrdDef rrdDef = getRrdDef(alias, path);
                 if (rrdDef != null) {
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal.charts;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Size bounded LRU cache of encoded charts.
+ *
+ * A chart is valid as long as none of the displayed databases was updated and it is not older than its maximum age,
+ * which is chosen by the caller so the time axis of the chart doesn't drift visibly.
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class RRD4jChartCache {
+
+    private final Map<String, Chart> charts;
+
+    public RRD4jChartCache(int maxSize) {
+        charts = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<String, Chart> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached chart if it is still valid
+     *
+     * @param key Key of the chart
+     * @param lastUpdates Last update times of the displayed databases
+     * @param now Current time in milliseconds
+     * @return the chart or null if there is no valid chart
+     */
+    public synchronized @Nullable Chart get(String key, long[] lastUpdates, long now) {
+        Chart chart = charts.get(key);
+        if (chart == null) {
+            return null;
+        }
+        if (now >= chart.expires || !Arrays.equals(chart.lastUpdates, lastUpdates)) {
+            charts.remove(key);
+            return null;
+        }
+        return chart;
+    }
+
+    public synchronized void put(String key, Chart chart) {
+        charts.put(key, chart);
+    }
+
+    public synchronized void clear() {
+        charts.clear();
+    }
+
+    /**
+     * An encoded chart and the state of the databases it was rendered from
+     */
+    public static class Chart {
+        private final byte[] image;
+        private final long[] lastUpdates;
+        private final long created;
+        private final long expires;
+        private final String eTag;
+
+        public Chart(byte[] image, long[] lastUpdates, long created, long maxAge) {
+            this.image = image;
+            this.lastUpdates = lastUpdates;
+            // HTTP dates have a resolution of seconds
+            this.created = created / 1000 * 1000;
+            this.expires = created + maxAge;
+            this.eTag = "\"" + Integer.toHexString(Arrays.hashCode(image)) + "-" + Long.toHexString(created) + "\"";
+        }
+
+        public byte[] getImage() {
+            return image;
+        }
+
+        public long getCreated() {
+            return created;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+    }
+}
@@ -17,11 +17,17 @@ import static java.util.Map.entry;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Hashtable;
+import java.util.List;
 import java.util.Map;
 
 import javax.imageio.ImageIO;
@@ -30,6 +36,8 @@ import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -41,6 +49,7 @@ import org.openhab.core.library.items.NumberItem;
 import org.openhab.core.ui.chart.ChartProvider;
 import org.openhab.core.ui.items.ItemUIRegistry;
 import org.openhab.persistence.rrd4j.internal.RRD4jPersistenceService;
+import org.openhab.persistence.rrd4j.internal.charts.RRD4jChartCache.Chart;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
@@ -66,6 +75,8 @@ import org.slf4j.LoggerFactory;
  * <li>items: A comma separated list of item names to display
  * <li>groups: A comma separated list of group names, whose members should be displayed
  * </ul>
+ * Rendered charts are cached until one of the displayed databases is updated or the time axis has moved by one pixel.
+ * Requests with an If-None-Match or If-Modified-Since header for a chart which is still valid are answered with 304.
  *
  * @author Kai Kreuzer - Initial contribution
  * @author Chris Jackson - a few improvements
@@ -80,6 +91,7 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
 
     private static final int DEFAULT_HEIGHT = 240;
     private static final int DEFAULT_WIDTH = 480;
+    private static final int MAX_CACHED_CHARTS = 50;
 
     /** the URI of this servlet */
     public static final String SERVLET_NAME = "/rrdchart.png";
@@ -106,6 +118,7 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
     private final HttpService httpService;
     private final ItemUIRegistry itemUIRegistry;
     private final TimeZoneProvider timeZoneProvider;
+    private final RRD4jChartCache chartCache = new RRD4jChartCache(MAX_CACHED_CHARTS);
 
     @Activate
     public RRD4jChartServlet(final @Reference HttpService httpService, final @Reference ItemUIRegistry itemUIRegistry,
@@ -128,6 +141,7 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
     @Deactivate
     protected void deactivate() {
         httpService.unregister(SERVLET_NAME);
+        chartCache.clear();
     }
 
     @Override
@@ -138,17 +152,44 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
         int height = parseInt(req.getParameter("h"), DEFAULT_HEIGHT);
         String periodParam = req.getParameter("period");
         Duration period = periodParam == null ? DEFAULT_PERIOD : PERIODS.getOrDefault(periodParam, DEFAULT_PERIOD);
-
-        // Create the start and stop time
-        ZonedDateTime timeEnd = ZonedDateTime.now(timeZoneProvider.getTimeZone());
-        ZonedDateTime timeBegin = timeEnd.minus(period);
+        String items = req.getParameter("items");
+        String groups = req.getParameter("groups");
 
         try {
-            BufferedImage chart = createChart(null, null, timeBegin, timeEnd, height, width, req.getParameter("items"),
-                    req.getParameter("groups"), null, null);
+            List<Item> chartItems = getItems(items, groups);
+            long[] lastUpdates = getLastUpdateTimes(chartItems);
+            long now = System.currentTimeMillis();
+            String key = width + "x" + height + ":" + period + ":" + items + ":" + groups;
+
+            Chart chart = chartCache.get(key, lastUpdates, now);
+            if (chart == null) {
+                // Create the start and stop time
+                ZonedDateTime timeEnd = Instant.ofEpochMilli(now).atZone(timeZoneProvider.getTimeZone());
+                ZonedDateTime timeBegin = timeEnd.minus(period);
+
+                BufferedImage image = renderChart(chartItems, timeBegin, timeEnd, height, width);
+                ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+                ImageIO.write(image, getChartType().toString(), encoded);
+                // the chart can be reused until its time axis has moved by one pixel
+                chart = new Chart(encoded.toByteArray(), lastUpdates, now, period.toMillis() / Math.max(width, 1));
+                chartCache.put(key, chart);
+            } else if (res instanceof HttpServletResponse && isNotModified(req, chart)) {
+                logger.debug("RRD4J chart '{}' is not modified", key);
+                ((HttpServletResponse) res).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+
+            if (res instanceof HttpServletResponse) {
+                HttpServletResponse httpResponse = (HttpServletResponse) res;
+                // clients have to revalidate the chart, which is cheap as long as it is cached
+                httpResponse.setHeader("Cache-Control", "no-cache");
+                httpResponse.setHeader("ETag", chart.getETag());
+                httpResponse.setDateHeader("Last-Modified", chart.getCreated());
+            }
             // Set the content type to that provided by the chart provider
             res.setContentType("image/" + getChartType());
-            ImageIO.write(chart, getChartType().toString(), res.getOutputStream());
+            res.setContentLength(chart.getImage().length);
+            res.getOutputStream().write(chart.getImage());
         } catch (ItemNotFoundException e) {
             logger.debug("Item not found error while generating chart", e);
             throw new ServletException("Item not found error while generating chart: " + e.getMessage());
@@ -158,6 +199,52 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
         }
     }
 
+    private boolean isNotModified(ServletRequest req, Chart chart) {
+        if (!(req instanceof HttpServletRequest)) {
+            return false;
+        }
+        HttpServletRequest httpRequest = (HttpServletRequest) req;
+        String ifNoneMatch = httpRequest.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return ifNoneMatch.contains(chart.getETag());
+        }
+        try {
+            long ifModifiedSince = httpRequest.getDateHeader("If-Modified-Since");
+            return ifModifiedSince >= chart.getCreated();
+        } catch (IllegalArgumentException e) {
+            logger.debug("Ignoring invalid If-Modified-Since header: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Determines the last update times of the databases of the given items, which tell whether a chart has changed.
+     *
+     * @param items the items displayed in the chart
+     * @return the last update times in seconds, -1 for items without database
+     */
+    private long[] getLastUpdateTimes(List<Item> items) {
+        long[] lastUpdates = new long[items.size()];
+        for (int i = 0; i < lastUpdates.length; i++) {
+            Path path = RRD4jPersistenceService.getDatabasePath(items.get(i).getName());
+            lastUpdates[i] = -1;
+            if (Files.exists(path)) {
+                try {
+                    Builder builder = RrdDb.getBuilder();
+                    builder.setPool(RRD4jPersistenceService.getDatabasePool());
+                    builder.setPath(path.toString());
+
+                    try (RrdDb db = builder.build()) {
+                        lastUpdates[i] = db.getLastUpdateTime();
+                    }
+                } catch (IOException e) {
+                    logger.debug("Could not read last update time of '{}': {}", path, e.getMessage());
+                }
+            }
+        }
+        return lastUpdates;
+    }
+
     private int parseInt(@Nullable String s, int defaultValue) {
         if (s == null) {
             return defaultValue;
@@ -192,9 +279,9 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
             builder.setPool(RRD4jPersistenceService.getDatabasePool());
             builder.setPath(rrdName);
 
-            RrdDb db = builder.build();
-            consolFun = db.getRrdDef().getArcDefs()[0].getConsolFun();
-            db.close();
+            try (RrdDb db = builder.build()) {
+                consolFun = db.getRrdDef().getArcDefs()[0].getConsolFun();
+            }
         } catch (IOException e) {
             consolFun = ConsolFun.MAX;
         }
@@ -242,6 +329,11 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
     public BufferedImage createChart(@Nullable String service, @Nullable String theme, ZonedDateTime startTime,
             ZonedDateTime endTime, int height, int width, @Nullable String items, @Nullable String groups,
             @Nullable Integer dpi, @Nullable Boolean legend) throws ItemNotFoundException {
+        return renderChart(getItems(items, groups), startTime, endTime, height, width);
+    }
+
+    private BufferedImage renderChart(List<Item> items, ZonedDateTime startTime, ZonedDateTime endTime, int height,
+            int width) {
         RrdGraphDef graphDef = new RrdGraphDef(startTime.toEpochSecond(), endTime.toEpochSecond());
         graphDef.setWidth(width);
         graphDef.setHeight(height);
@@ -252,13 +344,38 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
         graphDef.setFont(FontTag.DEFAULT, new Font("SansSerif", Font.PLAIN, 11));
 
         int seriesCounter = 0;
+        for (Item item : items) {
+            addLine(graphDef, item, seriesCounter++);
+        }
+
+        // Write the chart as a PNG image
+        try {
+            RrdGraph graph = new RrdGraph(graphDef);
+            BufferedImage bi = new BufferedImage(graph.getRrdGraphInfo().getWidth(),
+                    graph.getRrdGraphInfo().getHeight(), BufferedImage.TYPE_INT_RGB);
+            graph.render(bi.getGraphics());
+            return bi;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error generating RrdGraph", e);
+        }
+    }
+
+    /**
+     * Resolves the items to display in the order of their lines.
+     *
+     * @param items comma separated list of item names
+     * @param groups comma separated list of group names, whose members should be displayed
+     * @return the items
+     * @throws ItemNotFoundException if an item or group doesn't exist or a group is not a group
+     */
+    private List<Item> getItems(@Nullable String items, @Nullable String groups) throws ItemNotFoundException {
+        List<Item> result = new ArrayList<>();
 
         // Loop through all the items
         if (items != null) {
             String[] itemNames = items.split(",");
             for (String itemName : itemNames) {
-                Item item = itemUIRegistry.getItem(itemName);
-                addLine(graphDef, item, seriesCounter++);
+                result.add(itemUIRegistry.getItem(itemName));
             }
         }
 
@@ -268,26 +385,13 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
             for (String groupName : groupNames) {
                 Item item = itemUIRegistry.getItem(groupName);
                 if (item instanceof GroupItem) {
-                    GroupItem groupItem = (GroupItem) item;
-                    for (Item member : groupItem.getMembers()) {
-                        addLine(graphDef, member, seriesCounter++);
-                    }
+                    result.addAll(((GroupItem) item).getMembers());
                 } else {
                     throw new ItemNotFoundException("Item '" + item.getName() + "' defined in groups is not a group.");
                 }
             }
         }
-
-        // Write the chart as a PNG image
-        try {
-            RrdGraph graph = new RrdGraph(graphDef);
-            BufferedImage bi = new BufferedImage(graph.getRrdGraphInfo().getWidth(),
-                    graph.getRrdGraphInfo().getHeight(), BufferedImage.TYPE_INT_RGB);
-            graph.render(bi.getGraphics());
-            return bi;
-        } catch (IOException e) {
-            throw new UncheckedIOException("Error generating RrdGraph", e);
-        }
+        return result;
     }
 
     @Override
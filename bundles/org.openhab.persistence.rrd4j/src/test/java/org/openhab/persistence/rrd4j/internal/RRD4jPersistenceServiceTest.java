@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openhab.core.items.ItemNotFoundException;
+import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.core.persistence.HistoricItem;
+
+/**
+ * Tests concurrent stores and queries of the {@link RRD4jPersistenceService}.
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class RRD4jPersistenceServiceTest {
+
+    // more items than lock stripes, so some items share a lock
+    private static final int ITEM_COUNT = 100;
+    private static final int THREAD_COUNT = 8;
+    private static final int ROUNDS = 5;
+
+    private @TempDir @NonNullByDefault({}) Path databaseFolder;
+
+    private final ItemRegistry itemRegistry = mock(ItemRegistry.class);
+    private final List<NumberItem> items = IntStream.range(0, ITEM_COUNT).mapToObj(i -> new NumberItem("item" + i))
+            .collect(Collectors.toList());
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+
+    private @NonNullByDefault({}) RRD4jPersistenceService service;
+
+    @BeforeEach
+    public void setUp() throws ItemNotFoundException {
+        for (NumberItem item : items) {
+            item.setState(new DecimalType(0));
+            when(itemRegistry.getItem(item.getName())).thenReturn(item);
+        }
+        service = new RRD4jPersistenceService(itemRegistry, databaseFolder);
+        // small databases with a step of one second, which store the last value again on every update
+        Map<String, Object> config = new HashMap<>();
+        config.put("test.def", "GAUGE,600,U,U,1");
+        config.put("test.archives", "LAST,0.5,1,120");
+        config.put("test.items", items.stream().map(NumberItem::getName).collect(Collectors.joining(",")));
+        service.activate(config);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void concurrentStoresAndQueriesLoseNoUpdates() throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < THREAD_COUNT; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int round = 0; round < ROUNDS; round++) {
+                    for (int i = 0; i < ITEM_COUNT; i++) {
+                        // every thread starts at another item, so the same databases are used concurrently
+                        NumberItem item = items.get((i + thread * ITEM_COUNT / THREAD_COUNT) % ITEM_COUNT);
+                        service.store(item);
+                        service.query(lastValueFilter(item.getName()));
+                        ZonedDateTime now = ZonedDateTime.now();
+                        service.query(new FilterCriteria().setItemName(item.getName())
+                                .setBeginDate(now.minusMinutes(1)).setEndDate(now));
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        // an IllegalStateException of the database pool fails the test here
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            items.get(i).setState(new DecimalType(1000 + i));
+        }
+        futures.clear();
+        for (int t = 0; t < THREAD_COUNT; t++) {
+            futures.add(executor.submit(() -> items.forEach(service::store)));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+
+        // updates within the same second as the last one are stored again by the pending jobs
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            String name = items.get(i).getName();
+            assertTrue(Files.exists(databaseFolder.resolve(name + ".rrd")));
+            assertLastValue(new DecimalType(1000 + i), name);
+        }
+    }
+
+    @Test
+    public void updatesWithinOneSecondAreStoredAgainByOneJob() throws Exception {
+        NumberItem item = items.get(0);
+        service.store(item);
+        item.setState(new DecimalType(42));
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREAD_COUNT; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10; i++) {
+                    service.store(item);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+
+        assertTrue(service.scheduledJobs.size() <= 1);
+        assertLastValue(new DecimalType(42), item.getName());
+    }
+
+    private void assertLastValue(DecimalType expected, String name) throws InterruptedException {
+        // a pending job stores the value at most a few seconds later
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!expected.equals(getLastValue(name)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertEquals(expected, getLastValue(name), name);
+    }
+
+    private @Nullable Object getLastValue(String name) {
+        List<HistoricItem> result = new ArrayList<>();
+        service.query(lastValueFilter(name)).forEach(result::add);
+        return result.isEmpty() ? null : result.get(0).getState();
+    }
+
+    private FilterCriteria lastValueFilter(String name) {
+        return new FilterCriteria().setItemName(name).setOrdering(Ordering.DESCENDING).setPageSize(1);
+    }
+}
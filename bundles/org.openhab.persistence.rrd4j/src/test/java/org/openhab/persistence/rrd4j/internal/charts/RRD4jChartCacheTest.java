@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal.charts;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.persistence.rrd4j.internal.charts.RRD4jChartCache.Chart;
+
+/**
+ * Tests the {@link RRD4jChartCache}.
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class RRD4jChartCacheTest {
+
+    private static final long NOW = 1_600_000_000_000L;
+    private static final long MAX_AGE = 60_000L;
+
+    private final RRD4jChartCache cache = new RRD4jChartCache(2);
+
+    @Test
+    public void testValidChartIsReturned() {
+        Chart chart = createChart(1, NOW, 100, 200);
+        cache.put("a", chart);
+
+        assertSame(chart, cache.get("a", new long[] { 100, 200 }, NOW + MAX_AGE - 1));
+        assertNull(cache.get("b", new long[] { 100, 200 }, NOW));
+    }
+
+    @Test
+    public void testChartIsInvalidatedByDatabaseUpdate() {
+        cache.put("a", createChart(1, NOW, 100, 200));
+
+        assertNull(cache.get("a", new long[] { 100, 201 }, NOW));
+        // the invalid chart has been removed
+        assertNull(cache.get("a", new long[] { 100, 200 }, NOW));
+    }
+
+    @Test
+    public void testChartIsInvalidatedByChangedItems() {
+        cache.put("a", createChart(1, NOW, 100, 200));
+
+        assertNull(cache.get("a", new long[] { 100 }, NOW));
+    }
+
+    @Test
+    public void testChartExpiresWhenTimeAxisHasMoved() {
+        cache.put("a", createChart(1, NOW, 100));
+
+        assertNull(cache.get("a", new long[] { 100 }, NOW + MAX_AGE));
+        assertNull(cache.get("a", new long[] { 100 }, NOW));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedChartIsEvicted() {
+        Chart chartA = createChart(1, NOW, 100);
+        Chart chartB = createChart(2, NOW, 100);
+        Chart chartC = createChart(3, NOW, 100);
+        cache.put("a", chartA);
+        cache.put("b", chartB);
+        // accessing a makes b the least recently used chart
+        assertSame(chartA, cache.get("a", new long[] { 100 }, NOW));
+
+        cache.put("c", chartC);
+
+        assertNull(cache.get("b", new long[] { 100 }, NOW));
+        assertSame(chartA, cache.get("a", new long[] { 100 }, NOW));
+        assertSame(chartC, cache.get("c", new long[] { 100 }, NOW));
+    }
+
+    @Test
+    public void testClearRemovesAllCharts() {
+        cache.put("a", createChart(1, NOW, 100));
+
+        cache.clear();
+
+        assertNull(cache.get("a", new long[] { 100 }, NOW));
+    }
+
+    @Test
+    public void testETagIdentifiesImageAndCreationTime() {
+        Chart chart = createChart(1, NOW + 999, 100);
+
+        assertEquals(NOW, chart.getCreated());
+        assertEquals(chart.getETag(), createChart(1, NOW + 999, 100).getETag());
+        assertNotEquals(chart.getETag(), createChart(2, NOW + 999, 100).getETag());
+        assertNotEquals(chart.getETag(), createChart(1, NOW + 1000, 100).getETag());
+    }
+
+    private Chart createChart(int content, long created, long... lastUpdates) {
+        return new Chart(new byte[] { (byte) content }, lastUpdates, created, MAX_AGE);
+    }
+}
@@ -17,11 +17,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
-import java.util.Base64;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -32,87 +28,104 @@ import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
-import org.openhab.core.cache.ExpiringCacheMap;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.transform.TransformationException;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Simple cache for compiled JavaScript files.
  *
+ * Every script is compiled into a {@link JavaScriptEnginePool}, so the same script can be evaluated by several threads
+ * in parallel. Pools are looked up without locking.
+ *
  * @author Thomas Kordelle - Initial contribution
  * @author Thomas Kordelle - pre compiled scripts
  */
 @NonNullByDefault
-@Component(service = JavaScriptEngineManager.class)
+@Component(service = JavaScriptEngineManager.class, configurationPid = "org.openhab.transform.javascript")
 public class JavaScriptEngineManager {
 
+    private static final String CONFIG_ENGINE_POOL_SIZE = "enginePoolSize";
+    private static final int DEFAULT_ENGINE_POOL_SIZE = 2;
+    private static final Duration INLINE_SCRIPT_EXPIRY = Duration.ofDays(1);
+
     private final Logger logger = LoggerFactory.getLogger(JavaScriptEngineManager.class);
     private final ScriptEngineManager manager = new ScriptEngineManager();
-    /* keep memory foot print low. max 2 concurrent threads are estimated */
-    private final Map<String, CompiledScript> compiledScriptMap = new ConcurrentHashMap<>(4, 0.5f, 2);
-    private final ExpiringCacheMap<String, CompiledScript> cacheForInlineScripts = new ExpiringCacheMap<>(
-            Duration.ofDays(1));
+    private final Map<String, JavaScriptEnginePool> compiledScriptMap = new ConcurrentHashMap<>();
+    private final Map<String, JavaScriptEnginePool> cacheForInlineScripts = new ConcurrentHashMap<>();
+
+    private int enginePoolSize = DEFAULT_ENGINE_POOL_SIZE;
+
+    @Activate
+    protected void activate(@Nullable Map<String, Object> config) {
+        modified(config);
+    }
+
+    @Modified
+    protected void modified(@Nullable Map<String, Object> config) {
+        int poolSize = DEFAULT_ENGINE_POOL_SIZE;
+        Object value = config == null ? null : config.get(CONFIG_ENGINE_POOL_SIZE);
+        if (value != null) {
+            try {
+                poolSize = Math.max(1, Integer.parseInt(value.toString()));
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid engine pool size '{}', using {}", value, DEFAULT_ENGINE_POOL_SIZE);
+            }
+        }
+        if (poolSize != enginePoolSize) {
+            enginePoolSize = poolSize;
+            // pools are created again with the new size
+            compiledScriptMap.clear();
+            cacheForInlineScripts.clear();
+        }
+    }
 
     /**
-     * Get a pre compiled script {@link CompiledScript} from cache. If it is not in the cache, then load it from
-     * storage and put a pre compiled version into the cache.
+     * Get a pool of pre compiled scripts from cache. If it is not in the cache, then load it from
+     * storage and put a pool with a pre compiled version into the cache.
      *
      * @param filename name of the JavaScript file to load
-     * @return a pre compiled script {@link CompiledScript}
+     * @return a pool of pre compiled scripts
      * @throws TransformationException if compile of JavaScript failed
      */
-    protected CompiledScript getCompiledScriptByFilename(final String filename) throws TransformationException {
-        synchronized (compiledScriptMap) {
-            CompiledScript compiledScript = compiledScriptMap.get(filename);
-            if (compiledScript != null) {
-                logger.debug("Loading JavaScript {} from cache.", filename);
-                return compiledScript;
-            } else {
-                final String path = TransformationScriptWatcher.TRANSFORM_FOLDER + File.separator + filename;
-                logger.debug("Loading script {} from storage ", path);
-                try (final Reader reader = new InputStreamReader(new FileInputStream(path))) {
-                    final ScriptEngine engine = manager.getEngineByName("javascript");
-                    final CompiledScript cScript = ((Compilable) engine).compile(reader);
-                    logger.debug("Putting compiled JavaScript {} to cache.", cScript);
-                    compiledScriptMap.put(filename, cScript);
-                    return cScript;
-                } catch (IOException | ScriptException e) {
-                    throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(),
-                            e);
-                }
-            }
+    protected JavaScriptEnginePool getCompiledScriptByFilename(final String filename) throws TransformationException {
+        JavaScriptEnginePool pool = compiledScriptMap.get(filename);
+        if (pool != null) {
+            logger.debug("Loading JavaScript {} from cache.", filename);
+            return pool;
         }
+        final String path = TransformationScriptWatcher.TRANSFORM_FOLDER + File.separator + filename;
+        logger.debug("Loading script {} from storage ", path);
+        pool = new JavaScriptEnginePool(() -> compileFile(path), enginePoolSize);
+        JavaScriptEnginePool existing = compiledScriptMap.putIfAbsent(filename, pool);
+        return existing != null ? existing : pool;
     }
 
     /**
-     * Get a pre compiled script {@link CompiledScript} from cache. If it is not in the cache, then compile
-     * it and put a pre compiled version into the cache.
+     * Get a pool of pre compiled scripts from cache. If it is not in the cache, then compile
+     * it and put a pool with a pre compiled version into the cache.
      *
      * @param script JavaScript which should be returned as a pre compiled
-     * @return a pre compiled script {@link CompiledScript}
+     * @return a pool of pre compiled scripts
      * @throws TransformationException if compile of JavaScript failed
      */
-    protected CompiledScript getCompiledScriptByInlineScript(final String script) throws TransformationException {
-        synchronized (cacheForInlineScripts) {
-            try {
-                final String hash = calcHash(script);
-                final CompiledScript compiledScript = cacheForInlineScripts.get(hash);
-                if (compiledScript != null) {
-                    logger.debug("Loading JavaScript from cache.");
-                    return compiledScript;
-                } else {
-                    logger.debug("Compiling script {}", script);
-                    final ScriptEngine engine = manager.getEngineByName("javascript");
-                    final CompiledScript cScript = ((Compilable) engine).compile(script);
-                    cacheForInlineScripts.put(hash, () -> cScript);
-                    return cScript;
-                }
-            } catch (ScriptException | NoSuchAlgorithmException e) {
-                throw new TransformationException("An error occurred while compiling JavaScript. " + e.getMessage(), e);
-            }
+    protected JavaScriptEnginePool getCompiledScriptByInlineScript(final String script)
+            throws TransformationException {
+        JavaScriptEnginePool pool = cacheForInlineScripts.get(script);
+        if (pool != null) {
+            logger.debug("Loading JavaScript from cache.");
+            return pool;
         }
+        logger.debug("Compiling script {}", script);
+        long expired = System.currentTimeMillis() - INLINE_SCRIPT_EXPIRY.toMillis();
+        cacheForInlineScripts.values().removeIf(p -> p.getLastUsed() < expired);
+        pool = new JavaScriptEnginePool(() -> compileInline(script), enginePoolSize);
+        JavaScriptEnginePool existing = cacheForInlineScripts.putIfAbsent(script, pool);
+        return existing != null ? existing : pool;
     }
 
     /**
@@ -125,9 +138,43 @@ public class JavaScriptEngineManager {
         compiledScriptMap.remove(fileName);
     }
 
-    private String calcHash(final String script) throws NoSuchAlgorithmException {
-        MessageDigest digest = MessageDigest.getInstance("SHA-256");
-        byte[] hash = digest.digest(script.getBytes(StandardCharsets.UTF_8));
-        return Base64.getEncoder().encodeToString(hash);
+    /**
+     * @return the pools of the script files by file name
+     */
+    public Map<String, JavaScriptEnginePool> getFilePools() {
+        return Map.copyOf(compiledScriptMap);
+    }
+
+    /**
+     * @return the pools of the inline scripts by script
+     */
+    public Map<String, JavaScriptEnginePool> getInlinePools() {
+        return Map.copyOf(cacheForInlineScripts);
+    }
+
+    private CompiledScript compileFile(String path) throws TransformationException {
+        try (final Reader reader = new InputStreamReader(new FileInputStream(path))) {
+            final CompiledScript cScript = getCompilable().compile(reader);
+            logger.debug("Putting compiled JavaScript {} to cache.", cScript);
+            return cScript;
+        } catch (IOException | ScriptException e) {
+            throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(), e);
+        }
+    }
+
+    private CompiledScript compileInline(String script) throws TransformationException {
+        try {
+            return getCompilable().compile(script);
+        } catch (ScriptException e) {
+            throw new TransformationException("An error occurred while compiling JavaScript. " + e.getMessage(), e);
+        }
+    }
+
+    private Compilable getCompilable() throws TransformationException {
+        final ScriptEngine engine = manager.getEngineByName("javascript");
+        if (engine == null) {
+            throw new TransformationException("No JavaScript engine is available.");
+        }
+        return (Compilable) engine;
     }
 }
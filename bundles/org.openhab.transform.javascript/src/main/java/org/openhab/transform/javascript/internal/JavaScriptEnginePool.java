@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.script.Bindings;
+import javax.script.CompiledScript;
+import javax.script.ScriptException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.transform.TransformationException;
+
+/**
+ * Pool of script engines which have compiled the same script.
+ *
+ * Script engines are not thread-safe, so every evaluation borrows a compiled script exclusively. Engines are compiled
+ * on demand until the maximum size of the pool is reached, then evaluations wait for an engine to be returned.
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class JavaScriptEnginePool {
+
+    /**
+     * Compiles the script of the pool on a new script engine
+     */
+    @FunctionalInterface
+    public interface ScriptCompiler {
+        CompiledScript compile() throws TransformationException;
+    }
+
+    private final ScriptCompiler compiler;
+    private final int maxSize;
+    private final BlockingQueue<CompiledScript> idle;
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder evaluationNanos = new LongAdder();
+    private volatile long lastUsed = System.currentTimeMillis();
+
+    /**
+     * Creates a pool and compiles the script once, so compile errors are reported immediately
+     *
+     * @param compiler compiles the script on a new engine
+     * @param maxSize the maximum number of engines
+     * @throws TransformationException if the script can't be compiled
+     */
+    public JavaScriptEnginePool(ScriptCompiler compiler, int maxSize) throws TransformationException {
+        this.compiler = compiler;
+        this.maxSize = Math.max(1, maxSize);
+        this.idle = new ArrayBlockingQueue<>(this.maxSize);
+        idle.add(compiler.compile());
+        size.set(1);
+    }
+
+    /**
+     * Evaluates the script with the given variables
+     *
+     * @param variables the variables to bind
+     * @return the result of the script
+     * @throws TransformationException if no engine is available or the script fails
+     */
+    public @Nullable Object eval(Map<String, ?> variables) throws TransformationException {
+        long start = System.nanoTime();
+        lastUsed = System.currentTimeMillis();
+        CompiledScript script = borrow();
+        long evaluationStart = System.nanoTime();
+        try {
+            Bindings bindings = script.getEngine().createBindings();
+            bindings.putAll(variables);
+            return script.eval(bindings);
+        } catch (ScriptException e) {
+            throw new TransformationException("An error occurred while executing script. " + e.getMessage(), e);
+        } finally {
+            idle.offer(script);
+            long end = System.nanoTime();
+            evaluations.increment();
+            waitNanos.add(evaluationStart - start);
+            evaluationNanos.add(end - evaluationStart);
+        }
+    }
+
+    private CompiledScript borrow() throws TransformationException {
+        CompiledScript script = idle.poll();
+        if (script != null) {
+            return script;
+        }
+        int current = size.get();
+        while (current < maxSize) {
+            if (size.compareAndSet(current, current + 1)) {
+                try {
+                    return compiler.compile();
+                } catch (TransformationException | RuntimeException e) {
+                    size.decrementAndGet();
+                    throw e;
+                }
+            }
+            current = size.get();
+        }
+        try {
+            return idle.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransformationException("Interrupted while waiting for a script engine", e);
+        }
+    }
+
+    /**
+     * @return the time of the last evaluation in milliseconds
+     */
+    public long getLastUsed() {
+        return lastUsed;
+    }
+
+    /**
+     * @return the number of engines of the pool
+     */
+    public int getSize() {
+        return size.get();
+    }
+
+    /**
+     * @return the maximum number of engines of the pool
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the number of evaluations
+     */
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    /**
+     * @return the total time evaluations waited for an engine in nanoseconds
+     */
+    public long getWaitNanos() {
+        return waitNanos.sum();
+    }
+
+    /**
+     * @return the total time of the evaluations in nanoseconds
+     */
+    public long getEvaluationNanos() {
+        return evaluationNanos.sum();
+    }
+}
@@ -20,16 +20,13 @@ import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-import javax.script.Bindings;
-import javax.script.CompiledScript;
-import javax.script.ScriptException;
-
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.config.core.ConfigOptionProvider;
@@ -91,7 +88,7 @@ public class JavaScriptTransformationService implements TransformationService, C
         Map<String, String> vars = Collections.emptyMap();
         String result = "";
 
-        CompiledScript cScript;
+        JavaScriptEnginePool cScript;
 
         if (filenameOrInlineScript.startsWith("|")) {
             // inline java script
@@ -120,13 +117,10 @@ public class JavaScriptTransformationService implements TransformationService, C
         }
 
         try {
-            final Bindings bindings = cScript.getEngine().createBindings();
+            final Map<String, String> bindings = new HashMap<>(vars);
             bindings.put(SCRIPT_DATA_WORD, source);
-            vars.forEach((k, v) -> bindings.put(k, v));
             result = String.valueOf(cScript.eval(bindings));
             return result;
-        } catch (ScriptException e) {
-            throw new TransformationException("An error occurred while executing script. " + e.getMessage(), e);
         } finally {
             logger.trace("JavaScript execution elapsed {} ms. Result: {}", System.currentTimeMillis() - startTime,
                     result);
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal.console;
+
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.io.console.Console;
+import org.openhab.core.io.console.extensions.AbstractConsoleCommandExtension;
+import org.openhab.core.io.console.extensions.ConsoleCommandExtension;
+import org.openhab.transform.javascript.internal.JavaScriptEngineManager;
+import org.openhab.transform.javascript.internal.JavaScriptEnginePool;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * The {@link JavaScriptTransformationCommandExtension} prints the statistics of the script engine pools
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = ConsoleCommandExtension.class)
+public class JavaScriptTransformationCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String STATS = "stats";
+    private static final int MAX_SCRIPT_LENGTH = 40;
+
+    private final JavaScriptEngineManager manager;
+
+    @Activate
+    public JavaScriptTransformationCommandExtension(final @Reference JavaScriptEngineManager manager) {
+        super("jstransform", "Show the statistics of the JavaScript transformation");
+        this.manager = manager;
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length != 1 || !STATS.equals(args[0])) {
+            printUsage(console);
+            return;
+        }
+        console.println("Script files:");
+        printStatistics(manager.getFilePools(), console);
+        console.println("Inline scripts:");
+        printStatistics(manager.getInlinePools(), console);
+    }
+
+    private void printStatistics(Map<String, JavaScriptEnginePool> pools, Console console) {
+        pools.forEach((script, pool) -> {
+            long evaluations = pool.getEvaluations();
+            console.printf("  %s: engines %d/%d, evaluations %d, avg wait %.3f ms, avg evaluation %.3f ms%n",
+                    script.length() > MAX_SCRIPT_LENGTH ? script.substring(0, MAX_SCRIPT_LENGTH) + "..." : script,
+                    pool.getSize(), pool.getMaxSize(), evaluations, average(pool.getWaitNanos(), evaluations),
+                    average(pool.getEvaluationNanos(), evaluations));
+        });
+    }
+
+    private double average(long nanos, long count) {
+        return count == 0 ? 0 : nanos / 1_000_000.0 / count;
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return List.of(buildCommandUsage(STATS, "list the script engine pools with their size and timings"));
+    }
+}
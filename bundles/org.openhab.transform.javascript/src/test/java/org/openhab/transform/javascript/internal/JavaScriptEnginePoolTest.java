@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.script.Bindings;
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+import javax.script.SimpleBindings;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.transform.TransformationException;
+
+/**
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class JavaScriptEnginePoolTest {
+
+    private final AtomicInteger compilations = new AtomicInteger();
+
+    @Test
+    public void testEnginesAreReused() throws Exception {
+        JavaScriptEnginePool pool = new JavaScriptEnginePool(() -> createScript(null), 4);
+
+        assertEquals("a", pool.eval(Map.of("input", "a")));
+        assertEquals("b", pool.eval(Map.of("input", "b")));
+        assertEquals(1, pool.getSize());
+        assertEquals(1, compilations.get());
+        assertEquals(2, pool.getEvaluations());
+    }
+
+    @Test
+    public void testPoolGrowsUpToMaximum() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        JavaScriptEnginePool pool = new JavaScriptEnginePool(() -> createScript(release), 2);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<?> first = executor.submit(() -> pool.eval(Map.of("input", "1")));
+            Future<?> second = executor.submit(() -> pool.eval(Map.of("input", "2")));
+            Future<?> third = executor.submit(() -> pool.eval(Map.of("input", "3")));
+            Thread.sleep(100);
+            assertEquals(2, pool.getSize());
+            release.countDown();
+            assertEquals("1", first.get(5, TimeUnit.SECONDS));
+            assertEquals("2", second.get(5, TimeUnit.SECONDS));
+            assertEquals("3", third.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(2, compilations.get());
+        assertEquals(3, pool.getEvaluations());
+    }
+
+    @Test
+    public void testScriptErrorIsReported() throws Exception {
+        CompiledScript script = createScript(null);
+        when(script.eval(any(Bindings.class))).thenThrow(new ScriptException("failure"));
+        JavaScriptEnginePool pool = new JavaScriptEnginePool(() -> script, 1);
+
+        assertThrows(TransformationException.class, () -> pool.eval(Map.of()));
+        assertEquals(1, pool.getSize());
+        assertEquals(1, pool.getEvaluations());
+    }
+
+    private CompiledScript createScript(@Nullable CountDownLatch release) throws TransformationException {
+        compilations.incrementAndGet();
+        ScriptEngine engine = mock(ScriptEngine.class);
+        when(engine.createBindings()).thenAnswer(invocation -> new SimpleBindings());
+        CompiledScript script = mock(CompiledScript.class);
+        when(script.getEngine()).thenReturn(engine);
+        try {
+            when(script.eval(any(Bindings.class))).thenAnswer(invocation -> {
+                if (release != null) {
+                    release.await(5, TimeUnit.SECONDS);
+                }
+                return invocation.getArgument(0, Bindings.class).get("input");
+            });
+        } catch (ScriptException e) {
+            throw new TransformationException(e.getMessage(), e);
+        }
+        return script;
+    }
+}
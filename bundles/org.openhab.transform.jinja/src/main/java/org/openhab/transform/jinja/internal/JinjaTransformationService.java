@@ -14,11 +14,14 @@ package org.openhab.transform.jinja.internal;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -30,14 +33,24 @@ import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
 import com.hubspot.jinjava.Jinjava;
 import com.hubspot.jinjava.JinjavaConfig;
+import com.hubspot.jinjava.interpret.Context;
 import com.hubspot.jinjava.interpret.FatalTemplateErrorsException;
+import com.hubspot.jinjava.interpret.InterpretException;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.interpret.TemplateError;
+import com.hubspot.jinjava.interpret.TemplateError.ErrorType;
+import com.hubspot.jinjava.tree.Node;
 
 /**
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by Jinja2 Expressions.
  *
+ * Parsed templates and the JSON trees of the last few values are cached. A template may modify value_json, so every
+ * render gets its own value_json, which is converted from the cached tree.
+ *
  * @author Jochen Klein - Initial contribution
  *
  */
@@ -47,8 +60,31 @@ public class JinjaTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(JinjaTransformationService.class);
 
+    private static final int MAX_CACHED_TEMPLATES = 256;
+    private static final int MAX_CACHED_JSON_TREES = 16;
+
     private final JinjavaConfig config = JinjavaConfig.newBuilder().withFailOnUnknownTokens(true).build();
     private final Jinjava jinjava = new Jinjava(config);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, Node> templateCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, Node> eldest) {
+            return size() > MAX_CACHED_TEMPLATES;
+        }
+    });
+
+    private final Map<String, JsonNode> jsonTreeCache = Collections
+            .synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.@Nullable Entry<String, JsonNode> eldest) {
+                    return size() > MAX_CACHED_JSON_TREES;
+                }
+            });
 
     /**
      * Transforms the input <code>value</code> by Jinja template.
@@ -65,16 +101,10 @@ public class JinjaTransformationService implements TransformationService {
         logger.debug("about to transform '{}' by the function '{}'", value, template);
 
         bindings.put("value", value);
+        bindings.put("value_json", getJsonValue(value));
 
         try {
-            JsonNode tree = new ObjectMapper().readTree(value);
-            bindings.put("value_json", toObject(tree));
-        } catch (IOException e) {
-            // ok, then value_json is null...
-        }
-
-        try {
-            transformationResult = jinjava.render(template, bindings);
+            transformationResult = render(template, bindings);
         } catch (FatalTemplateErrorsException e) {
             throw new TransformationException("An error occurred while transformation. " + e.getMessage(), e);
         }
@@ -84,6 +114,57 @@ public class JinjaTransformationService implements TransformationService {
         return transformationResult;
     }
 
+    /**
+     * Renders a template like {@link Jinjava#render(String, Map)} does, but with the cached parsed template.
+     */
+    private String render(String template, Map<String, @Nullable Object> bindings) {
+        Context context = new Context(jinjava.getGlobalContext(), bindings, config.getDisabled());
+        JinjavaInterpreter interpreter = new JinjavaInterpreter(jinjava, context, config);
+        JinjavaInterpreter.pushCurrent(interpreter);
+        try {
+            Node root = templateCache.get(template);
+            if (root == null) {
+                root = interpreter.parse(template);
+                checkErrors(template, interpreter);
+                templateCache.put(template, root);
+            }
+            String result = interpreter.render(root);
+            checkErrors(template, interpreter);
+            return result;
+        } catch (InterpretException e) {
+            throw new FatalTemplateErrorsException(template, List.of(TemplateError.fromSyntaxError(e)));
+        } finally {
+            // the global context collects the resolved expressions of every render
+            jinjava.getGlobalContext().reset();
+            JinjavaInterpreter.popCurrent();
+        }
+    }
+
+    private void checkErrors(String template, JinjavaInterpreter interpreter) {
+        List<TemplateError> fatalErrors = interpreter.getErrors().stream()
+                .filter(error -> error.getSeverity() == ErrorType.FATAL).collect(Collectors.toList());
+        if (!fatalErrors.isEmpty()) {
+            throw new FatalTemplateErrorsException(template, fatalErrors);
+        }
+    }
+
+    private @Nullable Object getJsonValue(String value) {
+        JsonNode tree = jsonTreeCache.get(value);
+        if (tree == null) {
+            try {
+                tree = objectMapper.readTree(value);
+            } catch (IOException e) {
+                // ok, then value_json is null...
+            }
+            if (tree == null) {
+                tree = MissingNode.getInstance();
+            }
+            jsonTreeCache.put(value, tree);
+        }
+        // the tree is never handed out, so it stays unchanged whatever the template does with value_json
+        return toObject(tree);
+    }
+
     private static @Nullable Object toObject(JsonNode node) {
         switch (node.getNodeType()) {
             case ARRAY: {
@@ -115,4 +115,38 @@ public class JinjaTransformationServiceTest {
         // then map key is defined
         assertEquals("true", transformedResponse);
     }
+
+    @Test
+    public void testCachedTemplateWithChangingValues() throws TransformationException {
+        String template = "{{ value_json.string }} {{ value }}";
+        assertEquals("world {\"string\": \"world\"}", processor.transform(template, "{\"string\": \"world\"}"));
+        assertEquals("moon {\"string\": \"moon\"}", processor.transform(template, "{\"string\": \"moon\"}"));
+        assertThrows(TransformationException.class, () -> processor.transform(template, "{\"other\": \"moon\"}"));
+        assertEquals("sun {\"string\": \"sun\"}", processor.transform(template, "{\"string\": \"sun\"}"));
+    }
+
+    @Test
+    public void testSameValueForSeveralTemplates() throws TransformationException {
+        String json = "{\"string\": \"world\", \"number\": 42}";
+        assertEquals("world", processor.transform("{{ value_json.string }}", json));
+        assertEquals("42", processor.transform("{{ value_json.number }}", json));
+        assertEquals("Hello world!", processor.transform("Hello {{ value_json.string }}!", json));
+    }
+
+    @Test
+    public void testChangedValueJsonIsNotSeenByNextTemplate() throws TransformationException {
+        String json = "{\"string\": \"world\"}";
+        assertEquals("changed",
+                processor.transform("{% set ignored = value_json.put('string', 'changed') %}{{ value_json.string }}",
+                        json));
+        assertEquals("world", processor.transform("{{ value_json.string }}", json));
+    }
+
+    @Test
+    public void testTemplateErrorIsRepeated() {
+        assertThrows(TransformationException.class,
+                () -> processor.transform("Hello {{{ value_json.string }}!", "{\"string\": \"world\"}"));
+        assertThrows(TransformationException.class,
+                () -> processor.transform("Hello {{{ value_json.string }}!", "{\"string\": \"world\"}"));
+    }
 }
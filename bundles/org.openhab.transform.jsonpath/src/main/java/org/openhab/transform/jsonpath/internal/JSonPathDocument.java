@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jsonpath.internal;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.transform.TransformationException;
+import org.openhab.core.types.UnDefType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.InvalidJsonException;
+import com.jayway.jsonpath.InvalidPathException;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.PathNotFoundException;
+
+/**
+ * A JSON document which is parsed once, so any number of JsonPath expressions can be evaluated on it.
+ *
+ * The parsed document is never modified after parsing, so it can be read by several threads at once.
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class JSonPathDocument {
+
+    private final Logger logger = LoggerFactory.getLogger(JSonPathDocument.class);
+
+    private final String source;
+    private final DocumentContext document;
+
+    private JSonPathDocument(String source, DocumentContext document) {
+        this.source = source;
+        this.document = document;
+    }
+
+    /**
+     * Parses a JSON document
+     *
+     * @param source String which contains JSON
+     * @return the parsed document
+     * @throws TransformationException if the source is not valid JSON
+     */
+    public static JSonPathDocument parse(String source) throws TransformationException {
+        try {
+            return new JSonPathDocument(source, JsonPath.parse(source));
+        } catch (InvalidJsonException e) {
+            throw new TransformationException("An error occurred while transforming JSON expression.", e);
+        }
+    }
+
+    /**
+     * @return the source the document was parsed from
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Evaluates a JsonPath expression on the document.
+     *
+     * @param path the compiled JsonPath expression
+     * @return the result of the expression, lists of Boolean, Number and String values are formatted as JSON array
+     * @throws TransformationException if the path doesn't exist or can't be evaluated
+     */
+    public @Nullable String read(JsonPath path) throws TransformationException {
+        try {
+            Object transformationResult = document.read(path);
+            logger.debug("transformation resulted in '{}'", transformationResult);
+            if (transformationResult == null) {
+                return null;
+            } else if (transformationResult instanceof List) {
+                return flattenList((List<?>) transformationResult);
+            } else {
+                return transformationResult.toString();
+            }
+        } catch (PathNotFoundException e) {
+            throw new TransformationException("Invalid path '" + path.getPath() + "' in '" + source + "'");
+        } catch (InvalidPathException | InvalidJsonException e) {
+            throw new TransformationException("An error occurred while transforming JSON expression.", e);
+        }
+    }
+
+    private String flattenList(List<?> list) {
+        if (list.size() == 1) {
+            return list.get(0).toString();
+        }
+        if (list.size() > 1) {
+            if (list.get(0) instanceof Number || list.get(0) instanceof Boolean) {
+                return createNumberList(list);
+            } else if (list.get(0) instanceof String) {
+                return createStringList(list);
+            }
+            logger.warn(
+                    "JsonPath expressions with more than one result are only supported for Boolean, Number and String data types, please adapt your selector. Result: {}",
+                    list);
+        }
+        return UnDefType.NULL.toFullString();
+    }
+
+    private String createNumberList(List<?> list) {
+        return list.stream().map(n -> String.valueOf(n)).collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    private String createStringList(List<?> list) {
+        return list.stream().map(n -> "\"" + String.valueOf(n) + "\"").collect(Collectors.joining(", ", "[", "]"));
+    }
+}
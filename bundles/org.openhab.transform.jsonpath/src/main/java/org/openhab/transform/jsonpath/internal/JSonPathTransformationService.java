@@ -12,27 +12,28 @@
  */
 package org.openhab.transform.jsonpath.internal;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
-import org.openhab.core.types.UnDefType;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.jayway.jsonpath.InvalidJsonException;
 import com.jayway.jsonpath.InvalidPathException;
 import com.jayway.jsonpath.JsonPath;
-import com.jayway.jsonpath.PathNotFoundException;
 
 /**
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by JSonPath Expressions.
  *
+ * Compiled expressions and the documents of the last few sources are cached, so an MQTT message whose channels select
+ * different values by JSONPATH is parsed once and not once per channel.
+ *
  * @author Gaël L'hopital
  * @author Sebastian Janzen
  *
@@ -41,8 +42,31 @@ import com.jayway.jsonpath.PathNotFoundException;
 @Component(property = { "openhab.transform=JSONPATH" })
 public class JSonPathTransformationService implements TransformationService {
 
+    private static final int MAX_CACHED_PATHS = 256;
+    private static final int MAX_CACHED_DOCUMENTS = 16;
+
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    private final Map<String, JsonPath> pathCache = Collections
+            .synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.@Nullable Entry<String, JsonPath> eldest) {
+                    return size() > MAX_CACHED_PATHS;
+                }
+            });
+
+    private final Map<String, JSonPathDocument> documentCache = Collections
+            .synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.@Nullable Entry<String, JSonPathDocument> eldest) {
+                    return size() > MAX_CACHED_DOCUMENTS;
+                }
+            });
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -59,45 +83,42 @@ public class JSonPathTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", source, jsonPathExpression);
 
-        try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
-            logger.debug("transformation resulted in '{}'", transformationResult);
-            if (transformationResult == null) {
-                return null;
-            } else if (transformationResult instanceof List) {
-                return flattenList((List<?>) transformationResult);
-            } else {
-                return transformationResult.toString();
-            }
-        } catch (PathNotFoundException e) {
-            throw new TransformationException("Invalid path '" + jsonPathExpression + "' in '" + source + "'");
-        } catch (InvalidPathException | InvalidJsonException e) {
-            throw new TransformationException("An error occurred while transforming JSON expression.", e);
-        }
+        return getDocument(source).read(compile(jsonPathExpression));
     }
 
-    private String flattenList(List<?> list) {
-        if (list.size() == 1) {
-            return list.get(0).toString();
-        }
-        if (list.size() > 1) {
-            if (list.get(0) instanceof Number || list.get(0) instanceof Boolean) {
-                return createNumberList(list);
-            } else if (list.get(0) instanceof String) {
-                return createStringList(list);
+    /**
+     * Returns the compiled JsonPath expression
+     *
+     * @param jsonPathExpression JsonPath expression
+     * @return the compiled expression
+     * @throws TransformationException if the expression is invalid
+     */
+    public JsonPath compile(String jsonPathExpression) throws TransformationException {
+        JsonPath path = pathCache.get(jsonPathExpression);
+        if (path == null) {
+            try {
+                path = JsonPath.compile(jsonPathExpression);
+            } catch (InvalidPathException e) {
+                throw new TransformationException("An error occurred while transforming JSON expression.", e);
             }
-            logger.warn(
-                    "JsonPath expressions with more than one result are only supported for Boolean, Number and String data types, please adapt your selector. Result: {}",
-                    list);
+            pathCache.put(jsonPathExpression, path);
         }
-        return UnDefType.NULL.toFullString();
+        return path;
     }
 
-    private String createNumberList(List<?> list) {
-        return list.stream().map(n -> String.valueOf(n)).collect(Collectors.joining(", ", "[", "]"));
-    }
-
-    private String createStringList(List<?> list) {
-        return list.stream().map(n -> "\"" + String.valueOf(n) + "\"").collect(Collectors.joining(", ", "[", "]"));
+    /**
+     * Returns the parsed document, which is shared with all transformations of the same source while it is cached
+     *
+     * @param source String which contains JSON
+     * @return the parsed document
+     * @throws TransformationException if the source is not valid JSON
+     */
+    public JSonPathDocument getDocument(String source) throws TransformationException {
+        JSonPathDocument document = documentCache.get(source);
+        if (document == null) {
+            document = JSonPathDocument.parse(source);
+            documentCache.put(source, document);
+        }
+        return document;
     }
 }
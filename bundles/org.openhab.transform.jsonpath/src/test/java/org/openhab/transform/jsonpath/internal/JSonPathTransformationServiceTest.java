@@ -127,4 +127,38 @@ public class JSonPathTransformationServiceTest {
         String transformedResponse = processor.transform("$.data", json);
         assertEquals(list, transformedResponse);
     }
+
+    @Test
+    public void testDocumentIsReusedForSameSource() throws TransformationException {
+        JSonPathDocument document = processor.getDocument(jsonArray);
+        assertSame(document, processor.getDocument(new String(jsonArray)));
+        assertNotSame(document, processor.getDocument("{}"));
+
+        assertEquals("bob", document.read(processor.compile("$[0].name")));
+        assertEquals("2", document.read(processor.compile("$[1].id")));
+    }
+
+    @Test
+    public void testDocumentsOfInterleavedSourcesAreReused() throws TransformationException {
+        JSonPathDocument first = processor.getDocument(jsonArray);
+        JSonPathDocument second = processor.getDocument("{\"id\": 3}");
+
+        assertSame(first, processor.getDocument(jsonArray));
+        assertSame(second, processor.getDocument("{\"id\": 3}"));
+        assertEquals("3", processor.transform("$.id", "{\"id\": 3}"));
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+    }
+
+    @Test
+    public void testCompiledPathIsCached() throws TransformationException {
+        assertSame(processor.compile("$[0].name"), processor.compile("$[0].name"));
+    }
+
+    @Test
+    public void testMultiplePathsOnSameSource() throws TransformationException {
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+        assertEquals("alice", processor.transform("$[1].name", jsonArray));
+        assertThrows(TransformationException.class, () -> processor.transform("$[5].id", jsonArray));
+        assertEquals("[1, 2]", processor.transform("$.*.id", jsonArray));
+    }
 }
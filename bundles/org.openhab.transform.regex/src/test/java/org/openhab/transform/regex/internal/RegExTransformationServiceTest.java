@@ -75,4 +75,15 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testTransformByRegex_cachedExpressions() throws TransformationException {
+        for (int i = 0; i < 300; i++) {
+            assertEquals(Integer.toString(i), processor.transform("v(" + i + ")", "v" + i));
+            assertEquals("w" + i, processor.transform("s/v(" + i + ")/w$1/", "v" + i));
+        }
+        assertEquals("42", processor.transform("v(42)", "v42"));
+        assertEquals("w42", processor.transform("s/v(42)/w$1/", "v42"));
+        assertNull(processor.transform("v(42)", "v43"));
+    }
 }
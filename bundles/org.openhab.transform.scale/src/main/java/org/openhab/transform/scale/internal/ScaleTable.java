@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A compiled scale configuration.
+ *
+ * The limits of all ranges split the numbers into elementary intervals: the limits themselves and the open intervals
+ * between them. Every range either contains an elementary interval completely or not at all, so the label of the first
+ * matching range is determined once per elementary interval and a value is looked up by a binary search of the limits.
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class ScaleTable {
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+    private static final String FORMAT_VALUE = "%value%";
+    private static final String FORMAT_LABEL = "%label%";
+
+    /** sorted distinct limits of all ranges */
+    private final BigDecimal[] limits;
+    /**
+     * labels of the elementary intervals: index 2i is the open interval below limits[i], index 2i+1 is limits[i] and
+     * the last index is the open interval above the highest limit
+     */
+    private final @Nullable String[] labels;
+    private final @Nullable String nonNumeric;
+    /** the literal parts of the format, with a placeholder between every two parts */
+    private final String[] formatParts;
+    private final boolean[] valuePlaceholders;
+
+    /**
+     * Compiles a scale configuration
+     *
+     * @param ranges the ranges and their labels in the order of the configuration
+     * @param nonNumeric the label for non numeric inputs or null
+     * @param format the format of the result with the placeholders %value% and %label%
+     */
+    public ScaleTable(Map<Range, String> ranges, @Nullable String nonNumeric, String format) {
+        TreeSet<BigDecimal> distinctLimits = new TreeSet<>();
+        for (Range range : ranges.keySet()) {
+            if (range.min != null) {
+                distinctLimits.add(range.min);
+            }
+            if (range.max != null) {
+                distinctLimits.add(range.max);
+            }
+        }
+        limits = distinctLimits.toArray(new BigDecimal[0]);
+        labels = new String[2 * limits.length + 1];
+        for (int i = 0; i < labels.length; i++) {
+            BigDecimal representative = getRepresentative(i);
+            for (Map.Entry<Range, String> entry : ranges.entrySet()) {
+                if (entry.getKey().contains(representative)) {
+                    labels[i] = entry.getValue();
+                    break;
+                }
+            }
+        }
+        this.nonNumeric = nonNumeric;
+
+        List<String> parts = new ArrayList<>();
+        List<Boolean> placeholders = new ArrayList<>();
+        int start = 0;
+        while (true) {
+            int value = format.indexOf(FORMAT_VALUE, start);
+            int label = format.indexOf(FORMAT_LABEL, start);
+            if (value == -1 && label == -1) {
+                break;
+            }
+            boolean isValue = label == -1 || (value != -1 && value < label);
+            int index = isValue ? value : label;
+            parts.add(format.substring(start, index));
+            placeholders.add(isValue);
+            start = index + (isValue ? FORMAT_VALUE : FORMAT_LABEL).length();
+        }
+        parts.add(format.substring(start));
+        formatParts = parts.toArray(new String[0]);
+        valuePlaceholders = new boolean[placeholders.size()];
+        for (int i = 0; i < valuePlaceholders.length; i++) {
+            valuePlaceholders[i] = placeholders.get(i);
+        }
+    }
+
+    /**
+     * Returns a value within an elementary interval, which is contained in a range if the interval is
+     */
+    private BigDecimal getRepresentative(int interval) {
+        if (limits.length == 0) {
+            return BigDecimal.ZERO;
+        }
+        int limit = interval / 2;
+        if (interval % 2 == 1) {
+            return limits[limit];
+        } else if (limit == 0) {
+            return limits[0].subtract(BigDecimal.ONE);
+        } else if (limit == limits.length) {
+            return limits[limits.length - 1].add(BigDecimal.ONE);
+        }
+        // dividing by two is always exact
+        return limits[limit - 1].add(limits[limit]).divide(TWO);
+    }
+
+    /**
+     * Returns the label of the first range containing the value
+     *
+     * @param value the value
+     * @return the label or null if no range contains the value
+     */
+    public @Nullable String getLabel(BigDecimal value) {
+        int index = Arrays.binarySearch(limits, value);
+        return labels[index >= 0 ? 2 * index + 1 : -2 * (index + 1)];
+    }
+
+    /**
+     * @return the label for non numeric inputs or null
+     */
+    public @Nullable String getNonNumeric() {
+        return nonNumeric;
+    }
+
+    /**
+     * Formats the result of the transformation
+     *
+     * @param value the input of the transformation
+     * @param label the label of the matching range
+     * @return the formatted result
+     */
+    public String format(String value, String label) {
+        if (valuePlaceholders.length == 1 && formatParts[0].isEmpty() && formatParts[1].isEmpty()) {
+            return valuePlaceholders[0] ? value : label;
+        }
+        StringBuilder result = new StringBuilder(formatParts[0]);
+        for (int i = 0; i < valuePlaceholders.length; i++) {
+            result.append(valuePlaceholders[i] ? value : label).append(formatParts[i + 1]);
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class ScaleTableTest {
+
+    @Test
+    public void testFirstMatchingRangeIsUsed() {
+        Map<Range, String> ranges = new LinkedHashMap<>();
+        ranges.put(Range.closedOpen(new BigDecimal("10"), new BigDecimal("20")), "first");
+        ranges.put(Range.closed(new BigDecimal("0"), new BigDecimal("30")), "second");
+        ranges.put(Range.greaterThan(new BigDecimal("30")), "third");
+        ScaleTable table = new ScaleTable(ranges, null, "%label%");
+
+        assertNull(table.getLabel(new BigDecimal("-0.1")));
+        assertEquals("second", table.getLabel(new BigDecimal("0")));
+        assertEquals("second", table.getLabel(new BigDecimal("9.99")));
+        assertEquals("first", table.getLabel(new BigDecimal("10.0")));
+        assertEquals("first", table.getLabel(new BigDecimal("19.99")));
+        assertEquals("second", table.getLabel(new BigDecimal("20")));
+        assertEquals("second", table.getLabel(new BigDecimal("30")));
+        assertEquals("third", table.getLabel(new BigDecimal("30.001")));
+    }
+
+    @Test
+    public void testLookupMatchesLinearSearch() {
+        Random random = new Random(42);
+        for (int run = 0; run < 100; run++) {
+            Map<Range, String> ranges = new LinkedHashMap<>();
+            for (int i = 0; i < 20; i++) {
+                ranges.put(Range.range(randomLimit(random), random.nextBoolean(), randomLimit(random),
+                        random.nextBoolean()), "label" + i);
+            }
+            ScaleTable table = new ScaleTable(ranges, null, "%label%");
+            for (int i = -600; i <= 600; i++) {
+                BigDecimal value = BigDecimal.valueOf(i, 1);
+                String expected = ranges.entrySet().stream().filter(entry -> entry.getKey().contains(value))
+                        .map(Map.Entry::getValue).findFirst().orElse(null);
+                assertEquals(expected, table.getLabel(value), value.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testFormat() {
+        ScaleTable table = new ScaleTable(Map.of(), "Non Numeric", "Correcte (%value%) ! %label%");
+        assertEquals("Correcte (992) ! Good", table.format("992", "Good"));
+        assertEquals("Non Numeric", table.getNonNumeric());
+
+        assertEquals("$1", new ScaleTable(Map.of(), null, "%label%").format("1", "$1"));
+        assertEquals("no placeholder", new ScaleTable(Map.of(), null, "no placeholder").format("1", "label"));
+    }
+
+    private @Nullable BigDecimal randomLimit(Random random) {
+        return random.nextInt(10) == 0 ? null : BigDecimal.valueOf(random.nextInt(100) - 50, random.nextInt(2));
+    }
+}
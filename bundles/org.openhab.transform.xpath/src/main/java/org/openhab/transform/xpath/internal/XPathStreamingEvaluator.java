@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xpath.internal;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Evaluates simple absolute paths like <code>/a/b/c</code>, <code>/a/b/@attr</code> or <code>/a/b/text()</code> on a
+ * StAX stream, so the value can be extracted without building a DOM of the whole document.
+ *
+ * The result is the string value of the first matching node in document order, like the evaluation of the path as
+ * XPath expression returns. Names must not have a prefix, so they only match nodes without namespace. Documents with a
+ * DTD or entity references can't be evaluated and have to be evaluated as DOM.
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class XPathStreamingEvaluator {
+    private static final String NAME = "[A-Za-z_][A-Za-z0-9_.-]*";
+    private static final Pattern SIMPLE_PATH = Pattern
+            .compile("(/" + NAME + ")+(/@" + NAME + "|/text\\(\\))?");
+    private static final String TEXT = "text()";
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private final List<String> elements;
+    private final @Nullable String attribute;
+    private final boolean text;
+
+    private XPathStreamingEvaluator(List<String> elements, @Nullable String attribute, boolean text) {
+        this.elements = elements;
+        this.attribute = attribute;
+        this.text = text;
+    }
+
+    /**
+     * Creates an evaluator for an expression
+     *
+     * @param expression the XPath expression
+     * @return the evaluator or null if the expression is not a simple absolute path
+     */
+    public static @Nullable XPathStreamingEvaluator forExpression(String expression) {
+        String path = expression.trim();
+        if (!SIMPLE_PATH.matcher(path).matches()) {
+            return null;
+        }
+        List<String> steps = List.of(path.substring(1).split("/"));
+        String last = steps.get(steps.size() - 1);
+        if (TEXT.equals(last)) {
+            return new XPathStreamingEvaluator(steps.subList(0, steps.size() - 1), null, true);
+        } else if (last.startsWith("@")) {
+            return new XPathStreamingEvaluator(steps.subList(0, steps.size() - 1), last.substring(1), false);
+        }
+        return new XPathStreamingEvaluator(steps, null, false);
+    }
+
+    /**
+     * Evaluates the path on a document
+     *
+     * @param source the XML document
+     * @return the string value of the first matching node, an empty string if no node matches or null if the
+     *         document can't be evaluated as stream
+     * @throws XMLStreamException if the document is not well-formed up to the first match
+     */
+    public @Nullable String evaluate(String source) throws XMLStreamException {
+        XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(new StringReader(source));
+        try {
+            // number of leading path elements matched by the current element and its ancestors
+            int matched = 0;
+            int depth = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                switch (event) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        depth++;
+                        if (matched == depth - 1 && matched < elements.size() && matches(reader, matched)) {
+                            matched++;
+                            if (matched == elements.size()) {
+                                String value = evaluateMatch(reader);
+                                if (value != null) {
+                                    return value;
+                                }
+                                // the reader is at the end of the element
+                                matched--;
+                                depth--;
+                            }
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (matched == depth) {
+                            matched--;
+                        }
+                        depth--;
+                        break;
+                    case XMLStreamConstants.DTD:
+                    case XMLStreamConstants.ENTITY_REFERENCE:
+                        return null;
+                    default:
+                        break;
+                }
+            }
+            return "";
+        } finally {
+            reader.close();
+        }
+    }
+
+    private boolean matches(XMLStreamReader reader, int step) {
+        String namespace = reader.getNamespaceURI();
+        return (namespace == null || namespace.isEmpty()) && elements.get(step).equals(reader.getLocalName());
+    }
+
+    /**
+     * Evaluates the remaining step on an element matching the path
+     *
+     * @return the value or null if the element has no matching node, the reader is at the end of the element then
+     */
+    private @Nullable String evaluateMatch(XMLStreamReader reader) throws XMLStreamException {
+        String attribute = this.attribute;
+        if (attribute != null) {
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                String namespace = reader.getAttributeNamespace(i);
+                if ((namespace == null || namespace.isEmpty()) && attribute.equals(reader.getAttributeLocalName(i))) {
+                    return reader.getAttributeValue(i);
+                }
+            }
+            skipElement(reader);
+            return null;
+        }
+
+        StringBuilder value = new StringBuilder();
+        int depth = 0;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                case XMLStreamConstants.COMMENT:
+                case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                    // text() selects the first run of adjacent text of the element itself
+                    if (text && depth == 0 && value.length() > 0) {
+                        return value.toString();
+                    }
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    if (depth == 0) {
+                        // the string value of an element is its text, even if it is empty
+                        return text && value.length() == 0 ? null : value.toString();
+                    }
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (!text || depth == 0) {
+                        value.append(reader.getText());
+                    }
+                    break;
+                case XMLStreamConstants.ENTITY_REFERENCE:
+                    throw new XMLStreamException("entity references are not supported");
+                default:
+                    break;
+            }
+        }
+        throw new XMLStreamException("unexpected end of document");
+    }
+
+    private void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 0;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (depth == 0) {
+                    return;
+                }
+                depth--;
+            }
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // see https://cheatsheetseries.owasp.org/cheatsheets/XML_External_Entity_Prevention_Cheat_Sheet.html
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
@@ -13,12 +13,20 @@
 package org.openhab.transform.xpath.internal;
 
 import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -35,14 +43,41 @@ import org.xml.sax.InputSource;
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by XPath Expressions.
  *
+ * Neither {@link DocumentBuilder}, {@link XPath} nor {@link XPathExpression} are thread-safe, so a transformation
+ * takes a builder and a compiled expression out of shared pools and puts them back afterwards. The compiled
+ * expressions are kept in an LRU cache by their source. Large documents are evaluated by the
+ * {@link XPathStreamingEvaluator} without building a DOM if the expression is a simple absolute path.
+ *
  * @author Thomas.Eichstaedt-Engelen
  */
 @NonNullByDefault
 @Component(property = { "openhab.transform=XPATH" })
 public class XPathTransformationService implements TransformationService {
 
+    // number of expression sources whose compiled expressions are cached
+    private static final int MAX_CACHED_EXPRESSIONS = 64;
+    // number of builders and compiled expressions of one source kept for concurrent transformations
+    private static final int MAX_POOLED_INSTANCES = 4;
+    // minimum length of documents which are evaluated as stream if possible
+    private static final int STREAMING_THRESHOLD = 64 * 1024;
+
     private final Logger logger = LoggerFactory.getLogger(XPathTransformationService.class);
 
+    // guarded by itself
+    private final Deque<DocumentBuilder> builders = new ArrayDeque<>();
+    // the pools of compiled expressions are guarded by themselves
+    private final Map<String, Deque<XPathExpression>> expressions = Collections
+            .synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.@Nullable Entry<String, Deque<XPathExpression>> eldest) {
+                    return size() > MAX_CACHED_EXPRESSIONS;
+                }
+            });
+    // guarded by itself
+    private final XPath xpath = XPathFactory.newInstance().newXPath();
+
     @Override
     public @Nullable String transform(String xpathExpression, String source) throws TransformationException {
         if (xpathExpression == null || source == null) {
@@ -51,19 +86,20 @@ public class XPathTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", source, xpathExpression);
 
+        if (source.length() >= STREAMING_THRESHOLD) {
+            String transformationResult = transformStreaming(xpathExpression, source);
+            if (transformationResult != null) {
+                logger.debug("transformation resulted in '{}'", transformationResult);
+                return transformationResult;
+            }
+        }
+
         StringReader stringReader = null;
+        DocumentBuilder builder = null;
+        XPathExpression expr = null;
 
         try {
-            DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
-            // see https://cheatsheetseries.owasp.org/cheatsheets/XML_External_Entity_Prevention_Cheat_Sheet.html
-            domFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
-            domFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
-            domFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-            domFactory.setXIncludeAware(false);
-            domFactory.setExpandEntityReferences(false);
-            domFactory.setNamespaceAware(true);
-            domFactory.setValidating(false);
-            DocumentBuilder builder = domFactory.newDocumentBuilder();
+            builder = takeBuilder();
 
             stringReader = new StringReader(source);
             InputSource inputSource = new InputSource(stringReader);
@@ -71,8 +107,7 @@ public class XPathTransformationService implements TransformationService {
 
             Document doc = builder.parse(inputSource);
 
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xpath.compile(xpathExpression);
+            expr = takeExpression(xpathExpression);
 
             String transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
 
@@ -85,6 +120,82 @@ public class XPathTransformationService implements TransformationService {
             if (stringReader != null) {
                 stringReader.close();
             }
+            if (builder != null) {
+                releaseBuilder(builder);
+            }
+            if (expr != null) {
+                releaseExpression(xpathExpression, expr);
+            }
+        }
+    }
+
+    private @Nullable String transformStreaming(String xpathExpression, String source) {
+        XPathStreamingEvaluator evaluator = XPathStreamingEvaluator.forExpression(xpathExpression);
+        if (evaluator == null) {
+            return null;
+        }
+        try {
+            return evaluator.evaluate(source);
+        } catch (XMLStreamException e) {
+            // the DOM evaluation reports the error
+            logger.trace("streaming evaluation of '{}' failed: {}", xpathExpression, e.getMessage());
+            return null;
+        }
+    }
+
+    private DocumentBuilder takeBuilder() throws ParserConfigurationException {
+        DocumentBuilder builder;
+        synchronized (builders) {
+            builder = builders.poll();
+        }
+        return builder != null ? builder : createBuilder();
+    }
+
+    private void releaseBuilder(DocumentBuilder builder) {
+        builder.reset();
+        synchronized (builders) {
+            if (builders.size() < MAX_POOLED_INSTANCES) {
+                builders.push(builder);
+            }
+        }
+    }
+
+    private DocumentBuilder createBuilder() throws ParserConfigurationException {
+        DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
+        // see https://cheatsheetseries.owasp.org/cheatsheets/XML_External_Entity_Prevention_Cheat_Sheet.html
+        domFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+        domFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        domFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        domFactory.setXIncludeAware(false);
+        domFactory.setExpandEntityReferences(false);
+        domFactory.setNamespaceAware(true);
+        domFactory.setValidating(false);
+        return domFactory.newDocumentBuilder();
+    }
+
+    private XPathExpression takeExpression(String xpathExpression) throws XPathExpressionException {
+        Deque<XPathExpression> pool = expressions.computeIfAbsent(xpathExpression, key -> new ArrayDeque<>());
+        XPathExpression expr;
+        synchronized (pool) {
+            expr = pool.poll();
+        }
+        if (expr == null) {
+            synchronized (xpath) {
+                expr = xpath.compile(xpathExpression);
+            }
+        }
+        return expr;
+    }
+
+    private void releaseExpression(String xpathExpression, XPathExpression expr) {
+        // the pool may have been evicted in the meantime, then the expression is dropped
+        Deque<XPathExpression> pool = expressions.get(xpathExpression);
+        if (pool != null) {
+            synchronized (pool) {
+                if (pool.size() < MAX_POOLED_INSTANCES) {
+                    pool.push(expr);
+                }
+            }
         }
     }
 }
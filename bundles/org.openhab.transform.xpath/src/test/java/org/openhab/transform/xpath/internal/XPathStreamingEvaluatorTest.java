@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xpath.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.transform.TransformationException;
+
+/**
+ * Tests the {@link XPathStreamingEvaluator} against the DOM evaluation of the {@link XPathTransformationService}.
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class XPathStreamingEvaluatorTest extends AbstractTransformationServiceTest {
+
+    private static final String DOCUMENT = "<?xml version=\"1.0\"?><root><item id=\"1\">first<!-- c -->second</item>"
+            + "<item id=\"2\"><![CDATA[cdata]]> text<sub>nested</sub>tail</item><item/>"
+            + "<other><item id=\"3\">deep</item></other><empty></empty><ns:item xmlns:ns=\"urn:x\" id=\"4\">ns</ns:item>"
+            + "<list><entry>a</entry><entry key=\"k\">b</entry></list></root>";
+
+    private final XPathTransformationService service = new XPathTransformationService();
+
+    @Test
+    public void testSimplePathsMatchDomEvaluation() throws Exception {
+        String[] expressions = { "/root/item", "/root/item/@id", "/root/item/text()", "/root/other/item",
+                "/root/empty", "/root/empty/text()", "/root/list/entry/@key", "/root/missing", "/root/item/sub",
+                "/root/item/sub/text()", "/item", "/root" };
+        for (String expression : expressions) {
+            assertEquals(service.transform(expression, DOCUMENT), evaluate(expression, DOCUMENT), expression);
+        }
+        assertEquals(service.transform("/xml_api_reply/weather/current_conditions/temp_c/@data", source),
+                evaluate("/xml_api_reply/weather/current_conditions/temp_c/@data", source));
+    }
+
+    @Test
+    public void testComplexExpressionsAreNotStreamed() {
+        assertNull(XPathStreamingEvaluator.forExpression("//item"));
+        assertNull(XPathStreamingEvaluator.forExpression("/root/item[2]"));
+        assertNull(XPathStreamingEvaluator.forExpression("/ns:root"));
+        assertNull(XPathStreamingEvaluator.forExpression("count(/root/item)"));
+        assertNull(XPathStreamingEvaluator.forExpression("/*[local-name()='root']"));
+    }
+
+    @Test
+    public void testDocumentWithDtdIsNotStreamed() throws XMLStreamException {
+        XPathStreamingEvaluator evaluator = XPathStreamingEvaluator.forExpression("/root");
+        assertNotNull(evaluator);
+        assertNull(evaluator.evaluate("<!DOCTYPE root [<!ENTITY e \"x\">]><root>&e;</root>"));
+    }
+
+    @Test
+    public void testLargeDocumentIsStreamed() throws TransformationException {
+        StringBuilder document = new StringBuilder("<root><value>42</value>");
+        while (document.length() < 100_000) {
+            document.append("<filler>some content which is not of interest</filler>");
+        }
+        document.append("</root>");
+        assertEquals("42", service.transform("/root/value/text()", document.toString()));
+        assertEquals("42", service.transform("//value", document.toString()));
+    }
+
+    private @Nullable String evaluate(String expression, String document) throws XMLStreamException {
+        XPathStreamingEvaluator evaluator = XPathStreamingEvaluator.forExpression(expression);
+        assertNotNull(evaluator, expression);
+        return evaluator.evaluate(document);
+    }
+}
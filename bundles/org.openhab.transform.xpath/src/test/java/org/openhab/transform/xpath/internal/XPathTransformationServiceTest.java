@@ -14,12 +14,20 @@ package org.openhab.transform.xpath.internal;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.openhab.core.transform.TransformationException;
 
 /**
  * @author Thomas.Eichstaedt-Engelen
+ * @author Agent - Test concurrent transformations
  */
 public class XPathTransformationServiceTest extends AbstractTransformationServiceTest {
 
@@ -38,4 +46,39 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testConcurrentTransformationsOfDifferentDocuments() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        // more expressions than cached, so expressions are evicted while they are in use
+                        int value = thread * 1000 + i;
+                        String expression = "/root/value" + (i % 100);
+                        String document = "<root><value" + (i % 100) + ">" + value + "</value" + (i % 100)
+                                + "></root>";
+                        assertEquals(String.valueOf(value), processor.transform(expression, document));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+    }
+
+    @Test
+    public void testInvalidDocumentDoesNotBreakFollowingTransformations() throws TransformationException {
+        assertThrows(TransformationException.class,
+                () -> processor.transform("//current_conditions/temp_c/@data", "<invalid"));
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+    }
 }
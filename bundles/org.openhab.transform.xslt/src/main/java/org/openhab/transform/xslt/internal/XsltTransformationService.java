@@ -12,12 +12,15 @@
  */
 package org.openhab.transform.xslt.internal;
 
-import java.io.File;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
@@ -35,14 +38,24 @@ import org.slf4j.LoggerFactory;
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by XSLT.
  *
+ * Stylesheets are compiled once to {@link Templates}, which are cached until the {@link XsltTransformationWatcher}
+ * reports a change of the file. As a {@link Transformer} is not thread-safe, a new one is created from the compiled
+ * stylesheet for every transformation.
+ *
  * @author Thomas.Eichstaedt-Engelen
  */
 @NonNullByDefault
-@Component(property = { "openhab.transform=XSLT" })
+@Component(service = { TransformationService.class,
+        XsltTransformationService.class }, property = { "openhab.transform=XSLT" })
 public class XsltTransformationService implements TransformationService {
 
+    public static final Path TRANSFORM_FOLDER = Path.of(OpenHAB.getConfigFolder(),
+            TransformationService.TRANSFORM_FOLDER_NAME);
+
     private final Logger logger = LoggerFactory.getLogger(XsltTransformationService.class);
 
+    private final Map<Path, Templates> templatesCache = new ConcurrentHashMap<>();
+
     /**
      * Transforms the input <code>source</code> by XSLT.
      *
@@ -60,12 +73,10 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
-        Source xsl = null;
+        Path path;
 
         try {
-            String path = OpenHAB.getConfigFolder() + File.separator + TransformationService.TRANSFORM_FOLDER_NAME
-                    + File.separator + filename;
-            xsl = new StreamSource(new File(path));
+            path = TRANSFORM_FOLDER.resolve(filename).toAbsolutePath().normalize();
         } catch (Exception e) {
             String message = "opening file '" + filename + "' throws exception";
 
@@ -73,15 +84,13 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException(message, e);
         }
 
-        logger.debug("about to transform '{}' by the function '{}'", source, xsl);
+        logger.debug("about to transform '{}' by the function '{}'", source, path);
 
         StringReader xml = new StringReader(source);
         StringWriter out = new StringWriter();
 
-        Transformer transformer;
-
         try {
-            transformer = TransformerFactory.newInstance().newTransformer(xsl);
+            Transformer transformer = getTemplates(path).newTransformer();
             transformer.transform(new StreamSource(xml), new StreamResult(out));
         } catch (Exception e) {
             logger.error("transformation throws exception", e);
@@ -92,4 +101,38 @@ public class XsltTransformationService implements TransformationService {
 
         return out.toString();
     }
+
+    /**
+     * Removes the compiled stylesheet of a file from the cache, so it is compiled again on its next use.
+     *
+     * @param path the path of the stylesheet
+     */
+    public void removeFromCache(Path path) {
+        if (templatesCache.remove(path.toAbsolutePath().normalize()) != null) {
+            logger.debug("removed stylesheet '{}' from cache", path);
+        }
+    }
+
+    /**
+     * Removes all compiled stylesheets from the cache, e.g. if changes of the files may have been missed.
+     */
+    public void clearCache() {
+        templatesCache.clear();
+        logger.debug("removed all stylesheets from cache");
+    }
+
+    private Templates getTemplates(Path path) throws TransformerConfigurationException {
+        Templates templates = templatesCache.get(path);
+        return templates != null ? templates : compile(path);
+    }
+
+    private synchronized Templates compile(Path path) throws TransformerConfigurationException {
+        Templates templates = templatesCache.get(path);
+        if (templates == null) {
+            logger.debug("compiling stylesheet '{}'", path);
+            templates = TransformerFactory.newInstance().newTemplates(new StreamSource(path.toFile()));
+            templatesCache.put(path, templates);
+        }
+        return templates;
+    }
 }
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xslt.internal;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openhab.core.transform.TransformationException;
+
+/**
+ * Tests that the {@link XsltTransformationWatcher} makes the {@link XsltTransformationService} recompile changed
+ * stylesheets.
+ *
+ * @author Agent - Initial contribution
+ */
+@NonNullByDefault
+public class XsltTransformationWatcherTest {
+
+    private static final String SOURCE = "<?xml version=\"1.0\"?><value>8</value>";
+
+    private @TempDir @NonNullByDefault({}) Path tempDir;
+
+    private @NonNullByDefault({}) XsltTransformationService service;
+    private @NonNullByDefault({}) XsltTransformationWatcher watcher;
+
+    @BeforeEach
+    public void setUp() {
+        service = new XsltTransformationService();
+        watcher = new XsltTransformationWatcher(service);
+    }
+
+    @Test
+    public void editedStylesheetIsRecompiled() throws IOException, TransformationException {
+        Path stylesheet = writeStylesheet("stylesheet.xsl", "first");
+        assertEquals("first 8", service.transform(stylesheet.toString(), SOURCE));
+
+        writeStylesheet("stylesheet.xsl", "second");
+        // the cached stylesheet is used until the change is reported
+        assertEquals("first 8", service.transform(stylesheet.toString(), SOURCE));
+
+        watcher.processWatchEvent(null, ENTRY_MODIFY, stylesheet);
+        assertEquals("second 8", service.transform(stylesheet.toString(), SOURCE));
+    }
+
+    @Test
+    public void otherStylesheetsStayCachedOnEdit() throws IOException, TransformationException {
+        Path edited = writeStylesheet("edited.xsl", "first");
+        Path other = writeStylesheet("other.xsl", "first");
+        assertEquals("first 8", service.transform(edited.toString(), SOURCE));
+        assertEquals("first 8", service.transform(other.toString(), SOURCE));
+
+        writeStylesheet("edited.xsl", "second");
+        writeStylesheet("other.xsl", "second");
+        watcher.processWatchEvent(null, ENTRY_MODIFY, edited);
+
+        assertEquals("second 8", service.transform(edited.toString(), SOURCE));
+        assertEquals("first 8", service.transform(other.toString(), SOURCE));
+    }
+
+    @Test
+    public void allStylesheetsAreRecompiledOnOverflow() throws IOException, TransformationException {
+        Path first = writeStylesheet("first.xsl", "first");
+        Path second = writeStylesheet("second.xsl", "first");
+        assertEquals("first 8", service.transform(first.toString(), SOURCE));
+        assertEquals("first 8", service.transform(second.toString(), SOURCE));
+
+        writeStylesheet("first.xsl", "second");
+        writeStylesheet("second.xsl", "second");
+        watcher.processWatchEvent(null, OVERFLOW, null);
+
+        assertEquals("second 8", service.transform(first.toString(), SOURCE));
+        assertEquals("second 8", service.transform(second.toString(), SOURCE));
+    }
+
+    private Path writeStylesheet(String name, String prefix) throws IOException {
+        return Files.writeString(tempDir.resolve(name), "<?xml version=\"1.0\"?>"
+                + "<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">"
+                + "<xsl:output method=\"text\"/><xsl:template match=\"/\">" + prefix
+                + " <xsl:value-of select=\"value\"/></xsl:template></xsl:stylesheet>");
+    }
+}
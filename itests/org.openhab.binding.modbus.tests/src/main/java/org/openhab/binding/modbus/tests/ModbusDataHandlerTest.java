@@ -29,6 +29,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -93,6 +94,7 @@ import org.osgi.framework.InvalidSyntaxException;
 
 /**
  * @author Sami Salonen - Initial contribution
+ * @author Agent - Tests of skipping unchanged values
  */
 public class ModbusDataHandlerTest extends AbstractModbusOSGiTest {
 
@@ -103,6 +105,16 @@ public class ModbusDataHandlerTest extends AbstractModbusOSGiTest {
         }
     }
 
+    private final class CountingTransformation implements TransformationService {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public String transform(String function, String source) throws TransformationException {
+            calls.incrementAndGet();
+            return source;
+        }
+    }
+
     private static final String HOST = "thisishost";
     private static final int PORT = 44;
 
@@ -660,6 +672,144 @@ public class ModbusDataHandlerTest extends AbstractModbusOSGiTest {
         assertSingleStateUpdate(dataHandler, CHANNEL_STRING, is(equalTo(new StringType("ON"))));
     }
 
+    private ModbusDataThingHandler createReadHandler(ModbusReadRequestBlueprint request, String start,
+            String transform, ValueType valueType, long updateUnchangedValuesEveryMillis) {
+        ModbusSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("thisishost", 502, false);
+
+        PollTask task = Mockito.mock(PollTask.class);
+        doReturn(endpoint).when(task).getEndpoint();
+        doReturn(request).when(task).getRequest();
+
+        Bridge poller = createPollerMock("poller1", task);
+
+        Configuration dataConfig = new Configuration();
+        dataConfig.put("readStart", start);
+        dataConfig.put("readTransform", transform);
+        dataConfig.put("readValueType", valueType.getConfigValue());
+        dataConfig.put("updateUnchangedValuesEveryMillis", updateUnchangedValuesEveryMillis);
+
+        ModbusDataThingHandler dataHandler = createDataHandler("read1", poller,
+                builder -> builder.withConfiguration(dataConfig), bundleContext);
+        assertThat(dataHandler.getThing().getStatus(), is(equalTo(ThingStatus.ONLINE)));
+        return dataHandler;
+    }
+
+    private ModbusReadRequestBlueprint createRegisterRequest(int pollLength) {
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+        doReturn(pollLength).when(request).getDataLength();
+        doReturn(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS).when(request).getFunctionCode();
+        return request;
+    }
+
+    private void assertStateUpdates(ModbusDataThingHandler handler, String channel, Matcher<Integer> matcher) {
+        String itemName = getItemName(new ChannelUID(handler.getThing().getUID(), channel));
+        waitForAssert(() -> {
+            List<State> updates = getStateUpdates(itemName);
+            assertThat(String.format("Updates of %s: %s", itemName, updates), updates == null ? 0 : updates.size(),
+                    matcher);
+        });
+    }
+
+    @Test
+    public void testUnchangedRegistersAreNotTransformedAgain() {
+        CountingTransformation transformation = new CountingTransformation();
+        mockTransformation("COUNT", transformation);
+        ModbusReadRequestBlueprint request = createRegisterRequest(3);
+        ModbusDataThingHandler dataHandler = createReadHandler(request, "0", "COUNT(x)",
+                ModbusConstants.ValueType.INT16, 60_000L);
+        ModbusRegisterArray registers = new ModbusRegisterArray(new byte[] { (byte) 0x00, (byte) 0x05 });
+
+        dataHandler.onReadResult(new AsyncModbusReadResult(request, registers));
+        int callsPerValue = transformation.calls.get();
+        assertTrue(callsPerValue > 0);
+        dataHandler.onReadResult(new AsyncModbusReadResult(request, registers));
+
+        // the value is not transformed again, but the successful read is still reported
+        assertThat(transformation.calls.get(), is(equalTo(callsPerValue)));
+        assertStateUpdates(dataHandler, CHANNEL_LAST_READ_SUCCESS, is(equalTo(2)));
+        assertSingleStateUpdate(dataHandler, CHANNEL_NUMBER, new DecimalType(5));
+        assertThat(dataHandler.getThing().getStatus(), is(equalTo(ThingStatus.ONLINE)));
+    }
+
+    @Test
+    public void testUnchangedRegistersAreTransformedAgainAfterInterval() throws InterruptedException {
+        CountingTransformation transformation = new CountingTransformation();
+        mockTransformation("COUNT", transformation);
+        ModbusReadRequestBlueprint request = createRegisterRequest(3);
+        ModbusDataThingHandler dataHandler = createReadHandler(request, "0", "COUNT(x)",
+                ModbusConstants.ValueType.INT16, 100L);
+        ModbusRegisterArray registers = new ModbusRegisterArray(new byte[] { (byte) 0x00, (byte) 0x05 });
+
+        dataHandler.onReadResult(new AsyncModbusReadResult(request, registers));
+        int callsPerValue = transformation.calls.get();
+        Thread.sleep(150);
+        dataHandler.onReadResult(new AsyncModbusReadResult(request, registers));
+
+        assertThat(transformation.calls.get(), is(equalTo(2 * callsPerValue)));
+        assertStateUpdates(dataHandler, CHANNEL_NUMBER, is(equalTo(2)));
+    }
+
+    @Test
+    public void testUnchangedRegistersAreTransformedAgainAfterError() {
+        CountingTransformation transformation = new CountingTransformation();
+        mockTransformation("COUNT", transformation);
+        ModbusReadRequestBlueprint request = createRegisterRequest(3);
+        ModbusDataThingHandler dataHandler = createReadHandler(request, "0", "COUNT(x)",
+                ModbusConstants.ValueType.INT16, 60_000L);
+        ModbusRegisterArray registers = new ModbusRegisterArray(new byte[] { (byte) 0x00, (byte) 0x05 });
+
+        dataHandler.onReadResult(new AsyncModbusReadResult(request, registers));
+        int callsPerValue = transformation.calls.get();
+        dataHandler.handleReadError(
+                new AsyncModbusFailure<ModbusReadRequestBlueprint>(request, new Exception("fooerror")));
+        dataHandler.onReadResult(new AsyncModbusReadResult(request, registers));
+
+        assertThat(transformation.calls.get(), is(equalTo(2 * callsPerValue)));
+        assertThat(dataHandler.getThing().getStatus(), is(equalTo(ThingStatus.ONLINE)));
+    }
+
+    @Test
+    public void testUnchangedRegistersAreTransformedAgainAfterChannelLinked() {
+        CountingTransformation transformation = new CountingTransformation();
+        mockTransformation("COUNT", transformation);
+        ModbusReadRequestBlueprint request = createRegisterRequest(3);
+        ModbusDataThingHandler dataHandler = createReadHandler(request, "0", "COUNT(x)",
+                ModbusConstants.ValueType.INT16, 60_000L);
+        ModbusRegisterArray registers = new ModbusRegisterArray(new byte[] { (byte) 0x00, (byte) 0x05 });
+
+        dataHandler.onReadResult(new AsyncModbusReadResult(request, registers));
+        int callsPerValue = transformation.calls.get();
+        dataHandler.channelLinked(new ChannelUID(dataHandler.getThing().getUID(), CHANNEL_NUMBER));
+        dataHandler.onReadResult(new AsyncModbusReadResult(request, registers));
+
+        assertThat(transformation.calls.get(), is(equalTo(2 * callsPerValue)));
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "int32, 2", "int64, 4" })
+    public void testChangedLowRegisterIsProcessed(String valueType, int registerCount) {
+        CountingTransformation transformation = new CountingTransformation();
+        mockTransformation("COUNT", transformation);
+        ModbusReadRequestBlueprint request = createRegisterRequest(registerCount);
+        ModbusDataThingHandler dataHandler = createReadHandler(request, "0", "COUNT(x)",
+                ModbusConstants.ValueType.fromConfigValue(valueType), 60_000L);
+        // the values 0x10002 and 0x10003, which differ only in the lowest register
+        byte[] first = new byte[2 * registerCount];
+        first[first.length - 3] = 1;
+        first[first.length - 1] = 2;
+        byte[] second = Arrays.copyOf(first, first.length);
+        second[second.length - 1] = 3;
+
+        dataHandler.onReadResult(new AsyncModbusReadResult(request, new ModbusRegisterArray(first)));
+        int callsPerValue = transformation.calls.get();
+        dataHandler.onReadResult(new AsyncModbusReadResult(request, new ModbusRegisterArray(second)));
+
+        assertThat(transformation.calls.get(), is(equalTo(2 * callsPerValue)));
+        String itemName = getItemName(new ChannelUID(dataHandler.getThing().getUID(), CHANNEL_NUMBER));
+        waitForAssert(() -> assertThat(getStateUpdates(itemName),
+                is(equalTo(List.of(new DecimalType(0x10002), new DecimalType(0x10003))))));
+    }
+
     @Test
     public void testWriteWithDataAsChildOfEndpoint() throws InvalidSyntaxException {
         captureModbusWrites();